@@ -0,0 +1,91 @@
+package goldenknight.task;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import goldenknight.exception.DukeException;
+import goldenknight.storage.Storage;
+import goldenknight.ui.Ui;
+
+/**
+ * Measures listing and saving tasks that have not changed, with the cache of each task's display
+ * and file format strings turned off and on.
+ *
+ * <p>A listing is a single page holding every task, so that it formats as many tasks as a save.
+ * With the cache on, the strings are made during warm-up and reused afterwards.</p>
+ *
+ * <p>Run with {@code gradlew jmh -Pbench=StringCacheBenchmark}.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class StringCacheBenchmark {
+
+    private static final String BENCH_FILE = "bench_tasks.txt";
+
+    @Param({"10000", "100000"})
+    private int size;
+
+    @Param({"false", "true"})
+    private boolean isCacheEnabled;
+
+    private final Ui ui = new Ui();
+    private Storage storage;
+    private TaskList tasks;
+    private String page;
+
+    /**
+     * Builds the tasks and turns the cache on or off for the trial.
+     */
+    @Setup
+    public void setUp() {
+        Task.setStringCacheEnabled(isCacheEnabled);
+        tasks = new TaskList(TaskHeapBenchmark.generateTasks(size));
+        storage = new Storage(BENCH_FILE);
+        page = "1 " + size;
+    }
+
+    /**
+     * Turns the cache off again and deletes the file written by the saves.
+     */
+    @TearDown
+    public void tearDown() {
+        Task.setStringCacheEnabled(false);
+        new File(BENCH_FILE).delete();
+    }
+
+    /**
+     * Lists every task as one page.
+     *
+     * @return the listing, so that it is not optimised away
+     * @throws DukeException if the page is invalid
+     */
+    @Benchmark
+    public String list() throws DukeException {
+        return ui.listTasksString(tasks, page);
+    }
+
+    /**
+     * Saves every task to the task file.
+     */
+    @Benchmark
+    public void save() {
+        storage.save(tasks.snapshot());
+    }
+}
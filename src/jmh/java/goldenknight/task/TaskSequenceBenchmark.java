@@ -0,0 +1,115 @@
+package goldenknight.task;
+
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares {@link TaskSequence} with an {@link ArrayList} under a mix of appends, deletes at random
+ * positions and reads at random positions.
+ *
+ * <p>Each invocation starts from a copy of a list of the given size and applies the same seeded
+ * sequence of operations. The mix reads as {@code add/delete/get} percentages.</p>
+ *
+ * <p>Run with {@code gradlew jmh -Pbench=TaskSequenceBenchmark}.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskSequenceBenchmark {
+
+    private static final int OPERATIONS = 200_000;
+
+    @Param({"10000", "100000", "1000000"})
+    private int size;
+
+    @Param({"10/10/80", "25/25/50", "45/45/10"})
+    private String mix;
+
+    private ArrayList<Task> initial;
+    private int addPercent;
+    private int deletePercent;
+
+    /**
+     * Builds the starting list and reads the mix of operations.
+     */
+    @Setup
+    public void setUp() {
+        initial = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Task task = new Todo("item" + i);
+            task.setId(i);
+            initial.add(task);
+        }
+        String[] percents = mix.split("/");
+        addPercent = Integer.parseInt(percents[0]);
+        deletePercent = Integer.parseInt(percents[1]);
+    }
+
+    /**
+     * Applies the operations to an {@link ArrayList}.
+     *
+     * @return a checksum of the ids read and deleted, so that the reads are not optimised away
+     */
+    @Benchmark
+    public long arrayList() {
+        ArrayList<Task> list = new ArrayList<>(initial);
+        Random random = new Random(42);
+        int nextId = initial.size();
+        long checksum = 0;
+        for (int i = 0; i < OPERATIONS; i++) {
+            int roll = random.nextInt(100);
+            if (roll < addPercent || list.isEmpty()) {
+                Task task = new Todo("added");
+                task.setId(nextId++);
+                list.add(task);
+            } else if (roll < addPercent + deletePercent) {
+                checksum += list.remove(random.nextInt(list.size())).getId();
+            } else {
+                checksum += list.get(random.nextInt(list.size())).getId();
+            }
+        }
+        return checksum;
+    }
+
+    /**
+     * Applies the operations to a {@link TaskSequence}.
+     *
+     * @return a checksum of the ids read and deleted, so that the reads are not optimised away
+     */
+    @Benchmark
+    public long sequence() {
+        TaskSequence sequence = new TaskSequence(initial);
+        Random random = new Random(42);
+        int nextId = initial.size();
+        long checksum = 0;
+        for (int i = 0; i < OPERATIONS; i++) {
+            int roll = random.nextInt(100);
+            if (roll < addPercent || sequence.size() == 0) {
+                Task task = new Todo("added");
+                task.setId(nextId++);
+                sequence.add(task);
+            } else if (roll < addPercent + deletePercent) {
+                checksum += sequence.remove(random.nextInt(sequence.size())).getId();
+            } else {
+                checksum += sequence.get(random.nextInt(sequence.size())).getId();
+            }
+        }
+        return checksum;
+    }
+}
@@ -0,0 +1,53 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+import goldenknight.GoldenKnight;
+import goldenknight.exception.DukeException;
+import goldenknight.parser.Parser;
+
+/**
+ * Runs GoldenKnight without the GUI, reading commands from standard input and printing the responses.
+ *
+ * <p>Commands are run by the same {@link GoldenKnight#getResponse(String)} as in the GUI. Reading stops
+ * after {@code bye} or at the end of the input, so a file of commands can be piped in.</p>
+ */
+public class HeadlessLauncher {
+
+    private static final String DEFAULT_FILE_PATH = "./data/goldenknight.txt";
+
+    /**
+     * Starts the headless front end.
+     *
+     * @param args the path of the task file, which defaults to the one the GUI uses
+     * @throws IOException if standard input cannot be read
+     */
+    public static void main(String[] args) throws IOException {
+        GoldenKnight goldenKnight = new GoldenKnight(args.length > 0 ? args[0] : DEFAULT_FILE_PATH);
+        try {
+            BufferedReader in = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+            System.out.println(goldenKnight.getWelcomeMessage());
+            String input;
+            while ((input = in.readLine()) != null) {
+                if (input.isBlank()) {
+                    continue;
+                }
+                System.out.println(goldenKnight.getResponse(input));
+                if (isBye(input)) {
+                    break;
+                }
+            }
+        } finally {
+            goldenKnight.close();
+        }
+    }
+
+    private static boolean isBye(String input) {
+        try {
+            return Parser.tokenize(input).isKeyword("bye");
+        } catch (DukeException e) {
+            return false;
+        }
+    }
+}
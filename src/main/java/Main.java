@@ -39,4 +39,9 @@ public class Main extends Application {
             e.printStackTrace();
         }
     }
+
+    @Override
+    public void stop() {
+        goldenKnight.close();
+    }
 }
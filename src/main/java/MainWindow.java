@@ -56,7 +56,7 @@ public class MainWindow extends AnchorPane {
 
     /**
      * Handles user input from the text field.
-     * Calls the corresponding GoldenKnight method and updates the dialog container.
+     * Passes it to GoldenKnight to run as a command and updates the dialog container.
      */
     @FXML
     private void handleUserInput() {
@@ -65,50 +65,7 @@ public class MainWindow extends AnchorPane {
             return;
         }
 
-        String response;
-
-        // Split command into parts
-        String[] parts = input.split(" ", 2);
-        String command = parts[0].toLowerCase();
-
-        try {
-            switch (command) {
-            case "list":
-                response = goldenKnight.listTasks();
-                break;
-            case "todo":
-                response = goldenKnight.addTodo(parts.length > 1 ? parts[1] : "");
-                break;
-            case "deadline":
-                response = goldenKnight.addDeadline(parts.length > 1 ? parts[1] : "");
-                break;
-            case "event":
-                response = goldenKnight.addEvent(parts.length > 1 ? parts[1] : "");
-                break;
-            case "mark":
-                response = goldenKnight.markTask(parts.length > 1 ? Integer.parseInt(parts[1]) - 1 : -1);
-                break;
-            case "unmark":
-                response = goldenKnight.unmarkTask(parts.length > 1 ? Integer.parseInt(parts[1]) - 1 : -1);
-                break;
-            case "delete":
-                response = goldenKnight.deleteTask(parts.length > 1 ? Integer.parseInt(parts[1]) - 1 : -1);
-                break;
-            case "find":
-                response = goldenKnight.findTasks(parts.length > 1 ? parts[1] : "");
-                break;
-            case "help":
-                response = goldenKnight.getHelpMessage();
-                break;
-            case "bye":
-                response = goldenKnight.getGoodbyeMessage();
-                break;
-            default:
-                response = "I don't understand that command.";
-            }
-        } catch (Exception e) {
-            response = "Error: " + e.getMessage();
-        }
+        String response = goldenKnight.getResponse(input);
 
         // Add user input and GoldenKnight response to the dialog container
         boolean isError = response.startsWith("Error:") || response.startsWith("I don't understand");
@@ -1,7 +1,22 @@
 package goldenknight;
 
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+
 import goldenknight.exception.DukeException;
+import goldenknight.parser.CommandEngine;
+import goldenknight.parser.CommandLine;
+import goldenknight.parser.Option;
+import goldenknight.storage.Durability;
+import goldenknight.storage.IncrementalStorage;
 import goldenknight.storage.Storage;
+import goldenknight.storage.StorageBackend;
+import goldenknight.storage.StorageBackendType;
+import goldenknight.storage.StorageFormat;
+import goldenknight.task.ColumnarTaskList;
+import goldenknight.task.ConcurrentTaskList;
+import goldenknight.task.Task;
 import goldenknight.task.TaskList;
 import goldenknight.ui.Ui;
 
@@ -14,20 +29,94 @@ import goldenknight.ui.Ui;
  */
 public class GoldenKnight {
 
-    private Storage storage;
+    /** System property that selects the {@link StorageBackendType} by name, e.g. {@code key-value}. */
+    public static final String BACKEND_PROPERTY = "goldenknight.backend";
+
+    /** System property that switches persistence to an append-only journal, if no backend is selected. */
+    public static final String JOURNAL_PROPERTY = "goldenknight.journal";
+
+    /** System property that enables background group commit with the given flush interval in milliseconds. */
+    public static final String GROUP_COMMIT_INTERVAL_PROPERTY = "goldenknight.groupcommit.interval";
+
+    /** System property that sets the maximum number of mutations merged into one group commit. */
+    public static final String GROUP_COMMIT_BATCH_PROPERTY = "goldenknight.groupcommit.batch";
+
+    /** System property that selects the {@link Durability} level of saves, e.g. {@code data}. */
+    public static final String DURABILITY_PROPERTY = "goldenknight.durability";
+
+    /** System property that selects the {@link StorageFormat} the task file is written in, e.g. {@code binary}. */
+    public static final String FORMAT_PROPERTY = "goldenknight.format";
+
+    /** System property that makes saves write only the tasks that changed, if no backend is selected. */
+    public static final String INCREMENTAL_PROPERTY = "goldenknight.incremental";
+
+    /** System property that sets the fraction of blanked lines at which an incrementally saved file is compacted. */
+    public static final String COMPACTION_THRESHOLD_PROPERTY = "goldenknight.compaction.threshold";
+
+    /**
+     * System property that sets the age in days after which finished deadlines and events are archived.
+     * If it is set, completed tasks are also archived at startup.
+     */
+    public static final String ARCHIVE_AGE_PROPERTY = "goldenknight.archive.days";
+
+    /** System property that makes the task list safe to use from several threads at once. */
+    public static final String CONCURRENT_PROPERTY = "goldenknight.concurrent";
+
+    /** System property that keeps the tasks in columns of primitives to save memory on large lists. */
+    public static final String COLUMNAR_PROPERTY = "goldenknight.columnar";
+
+    /** System property that makes tasks keep the strings they are displayed and saved as. */
+    public static final String STRING_CACHE_PROPERTY = "goldenknight.stringcache";
+
+    private static final int DEFAULT_ARCHIVE_DAYS = 30;
+
+    private static final int DEFAULT_GROUP_COMMIT_BATCH = 256;
+
+    private StorageBackend storage;
     private TaskList tasks;
     private Ui ui;
+    private final CommandEngine commands = new CommandEngine();
 
     /**
      * Constructs a new {@code GoldenKnight} instance.
      * Initializes the UI, storage, and task list.
+     * The {@value #BACKEND_PROPERTY} system property selects how tasks are persisted.
+     * If it is not set, tasks are journaled if {@value #JOURNAL_PROPERTY} is {@code true},
+     * or saved incrementally if {@value #INCREMENTAL_PROPERTY} is.
+     * File-based backends write in the background if {@value #GROUP_COMMIT_INTERVAL_PROPERTY} is set.
+     * The {@value #DURABILITY_PROPERTY} property selects how far each save goes to survive a crash,
+     * and {@value #FORMAT_PROPERTY} whether the task file is written as text or in binary.
+     * If {@value #CONCURRENT_PROPERTY} is {@code true}, the tasks are kept in a {@link ConcurrentTaskList}.
+     * Otherwise, if {@value #COLUMNAR_PROPERTY} is {@code true}, they are kept in a {@link ColumnarTaskList}.
+     * If {@value #STRING_CACHE_PROPERTY} is {@code true}, each task keeps its display and file format
+     * strings, trading memory for faster listing and saving of tasks that have not changed.
      *
      * @param filePath the file path where tasks are stored
      */
     public GoldenKnight(String filePath) {
+        this(createStorage(filePath));
+    }
+
+    /**
+     * Constructs a new {@code GoldenKnight} instance that persists tasks through the given storage.
+     *
+     * @param storage the storage backend to load tasks from and save them to
+     */
+    public GoldenKnight(StorageBackend storage) {
         ui = new Ui();
-        storage = new Storage(filePath);
-        tasks = new TaskList(storage.load());
+        this.storage = storage;
+        if (Boolean.getBoolean(STRING_CACHE_PROPERTY)) {
+            Task.setStringCacheEnabled(true);
+        }
+        tasks = Boolean.getBoolean(CONCURRENT_PROPERTY)
+                ? new ConcurrentTaskList(storage.load())
+                : Boolean.getBoolean(COLUMNAR_PROPERTY)
+                ? new ColumnarTaskList(storage.load())
+                : new TaskList(storage.load());
+        if (System.getProperty(ARCHIVE_AGE_PROPERTY) != null) {
+            archive("");
+        }
+        registerCommands();
 
         // Assertions: invariants after construction
         assert ui != null : "UI should be initialized";
@@ -35,8 +124,89 @@ public class GoldenKnight {
         assert tasks != null : "TaskList should be initialized";
     }
 
+    private static StorageBackend createStorage(String filePath) {
+        Durability durability = Durability.fromName(System.getProperty(DURABILITY_PROPERTY, "none"));
+        StorageBackendType type = StorageBackendType.fromName(System.getProperty(BACKEND_PROPERTY,
+                Boolean.getBoolean(JOURNAL_PROPERTY) ? "journal"
+                : Boolean.getBoolean(INCREMENTAL_PROPERTY) ? "incremental" : "file"));
+        String threshold = System.getProperty(COMPACTION_THRESHOLD_PROPERTY);
+        StorageBackend backend = type == StorageBackendType.INCREMENTAL && threshold != null
+                ? new IncrementalStorage(filePath, durability, Double.parseDouble(threshold))
+                : type.create(filePath, durability);
+
+        if (backend instanceof Storage) {
+            Storage storage = (Storage) backend;
+            storage.setFormat(StorageFormat.fromName(System.getProperty(FORMAT_PROPERTY, "text")));
+            Long flushInterval = Long.getLong(GROUP_COMMIT_INTERVAL_PROPERTY);
+            if (flushInterval != null) {
+                storage.enableGroupCommit(flushInterval,
+                        Integer.getInteger(GROUP_COMMIT_BATCH_PROPERTY, DEFAULT_GROUP_COMMIT_BATCH));
+            }
+        }
+        return backend;
+    }
+
+    /**
+     * Writes any mutations still queued for storage and releases its resources.
+     * Should be called once when the application exits.
+     */
+    public void close() {
+        storage.close();
+    }
+
+    private void registerCommands() {
+        commands.register("list", line -> ui.listTasksString(tasks, line));
+        commands.register("todo", line -> addTodo(line.getArguments()));
+        commands.register("deadline", line -> persistAdded(ui.addDeadlineString(tasks, line)), Option.BY);
+        commands.register("event", line -> persistAdded(ui.addEventString(tasks, line)), Option.FROM, Option.TO);
+        commands.register("mark", line -> markTask(parseIndex(line)));
+        commands.register("unmark", line -> unmarkTask(parseIndex(line)));
+        commands.register("delete", line -> deleteTask(parseIndex(line)));
+        commands.register("find", line -> findTasks(line.getArguments()));
+        commands.register("upcoming", line -> upcomingTasks(line.getArguments()));
+        commands.register("due", line -> ui.dueTasksString(tasks, line));
+        commands.register("freeslot", line -> ui.freeSlotString(tasks, line));
+        commands.register("stats", line -> showStats());
+        commands.register("archive", line -> archive(line.getArguments()));
+        commands.register("help", line -> getHelpMessage());
+        commands.register("bye", line -> getGoodbyeMessage());
+    }
+
+    /**
+     * Returns the 0-based index of the task numbered in the arguments of a command.
+     *
+     * @param line the command line
+     * @return the index, or -1 if no task number is given
+     * @throws DukeException if the arguments are not a number
+     */
+    private static int parseIndex(CommandLine line) throws DukeException {
+        String args = line.getArguments();
+        if (args.isEmpty()) {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(args) - 1;
+        } catch (NumberFormatException e) {
+            throw new DukeException("Please give the number of a task, e.g. " + line.getKeyword() + " 2.");
+        }
+    }
+
     // -------------------- Public Methods for GUI --------------------
 
+    /**
+     * Runs the command typed by the user and returns the response to display.
+     *
+     * <p>The command is looked up by its keyword in a table built when this instance is constructed,
+     * so any front end can pass the user's input here as it is.</p>
+     *
+     * @param input the raw input from the user
+     * @return the response, which starts with {@code Error:} if the command failed,
+     *         or is {@value CommandEngine#UNKNOWN_COMMAND} if there is no such command
+     */
+    public String getResponse(String input) {
+        return commands.execute(input);
+    }
+
     /**
      * Returns the welcome message displayed when the application starts.
      *
@@ -58,7 +228,7 @@ public class GoldenKnight {
     }
 
     /**
-     * Returns a formatted string containing the list of tasks.
+     * Returns a formatted string containing the first page of the list of tasks.
      *
      * @return the string representation of the current task list
      */
@@ -67,6 +237,30 @@ public class GoldenKnight {
         return ui.getTaskListString(tasks);
     }
 
+    /**
+     * Returns a formatted string containing one page of the list of tasks.
+     *
+     * @param args the page number, optionally followed by the page size
+     * @return the page, or an error message if the page is invalid
+     */
+    public String listTasks(String args) {
+        try {
+            return ui.listTasksString(tasks, args);
+        } catch (DukeException e) {
+            return "Error: " + e.getMessage();
+        }
+    }
+
+    /**
+     * Returns the number of tasks in the list, done, pending, overdue and of each type.
+     *
+     * @return the counts, formatted for display
+     */
+    public String showStats() {
+        assert tasks != null : "TaskList must not be null when counting tasks";
+        return ui.getStatsString(tasks);
+    }
+
     /**
      * Adds a todo task to the task list and saves it to storage.
      *
@@ -75,10 +269,7 @@ public class GoldenKnight {
      */
     public String addTodo(String description) {
         try {
-            String result = ui.addTodoString(tasks, description);
-            storage.save(tasks.getAll());
-            assert result != null && !result.isBlank() : "Result message should not be null/blank";
-            return result;
+            return persistAdded(ui.addTodoString(tasks, description));
         } catch (DukeException e) {
             return "Error: " + e.getMessage();
         }
@@ -92,10 +283,7 @@ public class GoldenKnight {
      */
     public String addDeadline(String input) {
         try {
-            String result = ui.addDeadlineString(tasks, input);
-            storage.save(tasks.getAll());
-            assert result != null && !result.isBlank() : "Result message should not be null/blank";
-            return result;
+            return persistAdded(ui.addDeadlineString(tasks, input));
         } catch (DukeException e) {
             return "Error: " + e.getMessage();
         }
@@ -109,15 +297,24 @@ public class GoldenKnight {
      */
     public String addEvent(String input) {
         try {
-            String result = ui.addEventString(tasks, input);
-            storage.save(tasks.getAll());
-            assert result != null && !result.isBlank() : "Result message should not be null/blank";
-            return result;
+            return persistAdded(ui.addEventString(tasks, input));
         } catch (DukeException e) {
             return "Error: " + e.getMessage();
         }
     }
 
+    /**
+     * Saves the task just added to the end of the list.
+     *
+     * @param result the confirmation message of the addition
+     * @return the confirmation message
+     */
+    private String persistAdded(String result) {
+        storage.persistAdd(tasks, tasks.get(tasks.size() - 1));
+        assert result != null && !result.isBlank() : "Result message should not be null/blank";
+        return result;
+    }
+
     /**
      * Marks the task at the specified index as completed and saves the updated list.
      *
@@ -127,7 +324,7 @@ public class GoldenKnight {
     public String markTask(int index) {
         try {
             String result = ui.markTaskString(tasks, index);
-            storage.save(tasks.getAll());
+            storage.persistMark(tasks, index);
             assert result.contains("marked") : "Result should confirm marking";
             return result;
         } catch (DukeException e) {
@@ -145,7 +342,7 @@ public class GoldenKnight {
     public String unmarkTask(int index) {
         try {
             String result = ui.unmarkTaskString(tasks, index);
-            storage.save(tasks.getAll());
+            storage.persistUnmark(tasks, index);
             assert result.contains("not done") : "Result should confirm unmarking";
             return result;
         } catch (DukeException e) {
@@ -162,7 +359,7 @@ public class GoldenKnight {
     public String deleteTask(int index) {
         try {
             String result = ui.deleteTaskString(tasks, index);
-            storage.save(tasks.getAll());
+            storage.persistDelete(tasks, index);
             assert result.contains("removed") : "Result should confirm deletion";
             return result;
         } catch (DukeException e) {
@@ -184,6 +381,93 @@ public class GoldenKnight {
         }
     }
 
+    /**
+     * Lists the next deadlines and events that are not done yet.
+     *
+     * @param args the number of tasks to show
+     * @return a string listing the upcoming tasks, or an error message if the number is invalid
+     */
+    public String upcomingTasks(String args) {
+        try {
+            return ui.upcomingTasksString(tasks, args);
+        } catch (DukeException e) {
+            return "Error: " + e.getMessage();
+        }
+    }
+
+    /**
+     * Lists the deadlines and events due between two dates.
+     *
+     * @param args the start and end of the window
+     * @return a string listing the tasks due in the window, or an error message if the window is invalid
+     */
+    public String dueTasks(String args) {
+        try {
+            return ui.dueTasksString(tasks, args);
+        } catch (DukeException e) {
+            return "Error: " + e.getMessage();
+        }
+    }
+
+    /**
+     * Finds the earliest free slot of a given length between two dates.
+     *
+     * @param args the length of the slot followed by the start and end of the window
+     * @return a message with the free slot, or an error message if the arguments are invalid
+     */
+    public String freeSlot(String args) {
+        try {
+            return ui.freeSlotString(tasks, args);
+        } catch (DukeException e) {
+            return "Error: " + e.getMessage();
+        }
+    }
+
+    /**
+     * Handles the {@code archive} command.
+     *
+     * <p>{@code archive [days]} moves finished deadlines and events older than the given number
+     * of days into the compressed archive (by default the {@value #ARCHIVE_AGE_PROPERTY} property,
+     * or 30). To-dos have no date, so they stay in the list. {@code archive find <keyword>}
+     * searches the archived tasks without loading them into the list.</p>
+     *
+     * @param args the arguments after the command keyword
+     * @return a confirmation or search result, or an error message
+     */
+    public String archive(String args) {
+        String trimmed = args.trim();
+        try {
+            if (trimmed.equals("find") || trimmed.startsWith("find ")) {
+                String keyword = trimmed.substring("find".length()).trim();
+                ArrayList<Task> matches = keyword.isEmpty()
+                        ? new ArrayList<>()
+                        : storage.getArchive().find(keyword);
+                return ui.findArchivedTasksString(keyword, matches);
+            }
+            int days = trimmed.isEmpty()
+                    ? Integer.getInteger(ARCHIVE_AGE_PROPERTY, DEFAULT_ARCHIVE_DAYS)
+                    : parseDays(trimmed);
+            int count = storage.archiveDone(tasks, LocalDateTime.now().minusDays(days));
+            return ui.archiveTasksString(count, days, tasks.size());
+        } catch (DukeException e) {
+            return "Error: " + e.getMessage();
+        } catch (IOException e) {
+            return "Error: The archive could not be accessed: " + e.getMessage();
+        }
+    }
+
+    private static int parseDays(String text) throws DukeException {
+        try {
+            int days = Integer.parseInt(text);
+            if (days >= 0) {
+                return days;
+            }
+        } catch (NumberFormatException e) {
+            // Reported below
+        }
+        throw new DukeException("The archive age must be a number of days, e.g. archive 30.");
+    }
+
     /**
      * Returns a reminder for the next upcoming task.
      *
@@ -0,0 +1,159 @@
+package goldenknight.parser;
+
+import java.util.Locale;
+
+import goldenknight.exception.DukeException;
+
+/**
+ * Runs commands typed by the user, looking up the handler of each command keyword in a table.
+ *
+ * <p>Commands are registered once with their keyword, their handler and the options they take.
+ * The keywords are kept lowercase in an open-addressing hash table, and a keyword typed in any
+ * case is hashed and compared character by character where it stands in the input, so looking up
+ * a command creates no strings. The input is read once into a {@link CommandLine}, and the
+ * options of the command are then found in one more pass over its arguments.</p>
+ *
+ * <p>The engine knows nothing of the GUI, so the same commands can be run from any front end.</p>
+ */
+public final class CommandEngine {
+
+    /** The response to a keyword that no command is registered for. */
+    public static final String UNKNOWN_COMMAND = "I don't understand that command.";
+
+    private static final Option[] NO_OPTIONS = new Option[0];
+
+    /**
+     * Handles a command, given the line it was typed on.
+     */
+    @FunctionalInterface
+    public interface Handler {
+        /**
+         * Runs the command.
+         *
+         * @param line the command line, with the options of the command read
+         * @return the response to display
+         * @throws DukeException if the command cannot be run
+         */
+        String handle(CommandLine line) throws DukeException;
+    }
+
+    /** The keyword, handler and options of each command, placed by hash with linear probing. */
+    private String[] keywords = new String[32];
+    private Handler[] handlers = new Handler[32];
+    private Option[][] options = new Option[32][];
+    private int count;
+
+    /**
+     * Registers a command, replacing any command with the same keyword.
+     *
+     * @param keyword the keyword that starts the command, in any case
+     * @param handler the handler that runs the command
+     * @param commandOptions the options the command takes among its arguments
+     */
+    public void register(String keyword, Handler handler, Option... commandOptions) {
+        assert keyword != null && !keyword.isBlank() : "Keyword should not be blank";
+        assert handler != null : "Handler should not be null";
+        String lowerCase = keyword.toLowerCase(Locale.ROOT);
+        int slot = slotOf(lowerCase);
+        if (keywords[slot] == null) {
+            keywords[slot] = lowerCase;
+            count++;
+        }
+        handlers[slot] = handler;
+        options[slot] = commandOptions.length == 0 ? NO_OPTIONS : commandOptions.clone();
+        if (count * 2 > keywords.length) {
+            rehash(keywords.length * 2);
+        }
+    }
+
+    /**
+     * Returns whether a command is registered for the given keyword.
+     *
+     * @param keyword the keyword, in any case
+     * @return {@code true} if the keyword starts a command
+     */
+    public boolean hasCommand(String keyword) {
+        return keywords[slotOf(keyword.toLowerCase(Locale.ROOT))] != null;
+    }
+
+    /**
+     * Runs the command typed in the given input.
+     *
+     * @param input the raw input from the user
+     * @return the response of the command, {@value #UNKNOWN_COMMAND} if the keyword is not known,
+     *         or an error message starting with {@code Error:} if the command fails
+     */
+    public String execute(String input) {
+        try {
+            CommandLine line = Parser.tokenize(input);
+            int slot = find(line);
+            if (slot == -1) {
+                return UNKNOWN_COMMAND;
+            }
+            line.readOptions(options[slot]);
+            return handlers[slot].handle(line);
+        } catch (DukeException | RuntimeException e) {
+            return "Error: " + e.getMessage();
+        }
+    }
+
+    /**
+     * Finds the slot of the command typed on a line, without creating its keyword as a string.
+     */
+    private int find(CommandLine line) {
+        int length = line.keywordLength();
+        int h = 1;
+        for (int i = 0; i < length; i++) {
+            h = 31 * h + Character.toLowerCase(line.keywordChar(i));
+        }
+        int mask = keywords.length - 1;
+        for (int slot = spread(h) & mask; keywords[slot] != null; slot = (slot + 1) & mask) {
+            if (line.isKeyword(keywords[slot])) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    private int slotOf(String lowerCase) {
+        int mask = keywords.length - 1;
+        int slot = hash(lowerCase) & mask;
+        while (keywords[slot] != null && !keywords[slot].equals(lowerCase)) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void rehash(int capacity) {
+        String[] oldKeywords = keywords;
+        Handler[] oldHandlers = handlers;
+        Option[][] oldOptions = options;
+        keywords = new String[capacity];
+        handlers = new Handler[capacity];
+        options = new Option[capacity][];
+        for (int i = 0; i < oldKeywords.length; i++) {
+            if (oldKeywords[i] != null) {
+                int slot = slotOf(oldKeywords[i]);
+                keywords[slot] = oldKeywords[i];
+                handlers[slot] = oldHandlers[i];
+                options[slot] = oldOptions[i];
+            }
+        }
+    }
+
+    private static int hash(String lowerCase) {
+        int h = 1;
+        for (int i = 0; i < lowerCase.length(); i++) {
+            h = 31 * h + lowerCase.charAt(i);
+        }
+        return spread(h);
+    }
+
+    /**
+     * Spreads the bits so that the low bits used for slots depend on every character.
+     */
+    private static int spread(int h) {
+        h *= 0x9E3779B9;
+        return h ^ h >>> 16;
+    }
+}
@@ -0,0 +1,257 @@
+package goldenknight.parser;
+
+import java.util.Arrays;
+
+/**
+ * A line of user input, split into its command keyword, its arguments, and the options among
+ * the arguments.
+ *
+ * <p>The line is read once from left to right, without regular expressions or {@code split}.
+ * Only the positions of its parts are recorded while reading, and a part becomes a {@code String}
+ * only when it is asked for. An {@link Option} is recognised where it stands on its own, at the
+ * start of the arguments or after a space and followed by a space or the end, and only if the
+ * command takes it, so {@code todo read /by the lake} keeps its whole description. The first
+ * occurrence of each option counts; a later one is part of the text before it.</p>
+ *
+ * <p>The description is the text of the arguments before the first option, and the value of an
+ * option runs from the option to the next one or to the end. All parts are trimmed.</p>
+ *
+ * <p>Commands that take a few plain values, such as a page number or a date, read the arguments as
+ * words separated by whitespace instead. The words are found the first time they are asked for.</p>
+ */
+public final class CommandLine {
+
+    private static final Option[] OPTIONS = Option.values();
+
+    private final String text;
+    private final int keywordStart;
+    private final int keywordEnd;
+    private final int argumentsStart;
+    private final int argumentsEnd;
+
+    /** The end of the description, before the first option. */
+    private int descriptionEnd;
+
+    /**
+     * Where the value of each option starts and ends, by ordinal, or -1 if the option is absent.
+     * Null until options are read, so a command without options allocates nothing for them.
+     */
+    private int[] valueStarts;
+    private int[] valueEnds;
+
+    /** Where each word of the arguments starts and ends. Null until the words are first read. */
+    private int[] wordStarts;
+    private int[] wordEnds;
+
+    /**
+     * Reads the keyword and arguments of a line.
+     *
+     * @param text the line
+     * @param hasKeyword whether the line starts with a keyword, or holds only arguments
+     */
+    CommandLine(String text, boolean hasKeyword) {
+        int start = 0;
+        int end = text.length();
+        while (start < end && Character.isWhitespace(text.charAt(start))) {
+            start++;
+        }
+        while (end > start && Character.isWhitespace(text.charAt(end - 1))) {
+            end--;
+        }
+        int i = start;
+        if (hasKeyword) {
+            while (i < end && !Character.isWhitespace(text.charAt(i))) {
+                i++;
+            }
+        }
+        this.text = text;
+        this.keywordStart = start;
+        this.keywordEnd = i;
+        while (i < end && Character.isWhitespace(text.charAt(i))) {
+            i++;
+        }
+        this.argumentsStart = i;
+        this.argumentsEnd = end;
+        this.descriptionEnd = end;
+    }
+
+    /**
+     * Finds the given options among the arguments, in one pass over them.
+     *
+     * @param options the options the command takes
+     */
+    void readOptions(Option... options) {
+        if (options.length == 0) {
+            return;
+        }
+        valueStarts = new int[OPTIONS.length];
+        valueEnds = new int[OPTIONS.length];
+        Arrays.fill(valueStarts, -1);
+        Arrays.fill(valueEnds, -1);
+        // The ordinal of the option last found, whose value runs up to the next one
+        int last = -1;
+        for (int i = argumentsStart; i < argumentsEnd; i++) {
+            if (text.charAt(i) != '/' || i > argumentsStart && text.charAt(i - 1) != ' ') {
+                continue;
+            }
+            for (Option option : options) {
+                int o = option.ordinal();
+                String name = option.getName();
+                int valueStart = i + name.length();
+                if (valueStarts[o] == -1 && text.startsWith(name, i)
+                        && (valueStart == argumentsEnd || text.charAt(valueStart) == ' ')) {
+                    if (last == -1) {
+                        descriptionEnd = trimEnd(argumentsStart, i);
+                    } else {
+                        valueEnds[last] = trimEnd(valueStarts[last], i);
+                    }
+                    valueStarts[o] = trimStart(valueStart, argumentsEnd);
+                    last = o;
+                    i = valueStart - 1;
+                    break;
+                }
+            }
+        }
+        if (last != -1) {
+            valueEnds[last] = argumentsEnd;
+        }
+    }
+
+    private int trimStart(int from, int to) {
+        while (from < to && Character.isWhitespace(text.charAt(from))) {
+            from++;
+        }
+        return from;
+    }
+
+    private int trimEnd(int from, int to) {
+        while (to > from && Character.isWhitespace(text.charAt(to - 1))) {
+            to--;
+        }
+        return to;
+    }
+
+    public String getKeyword() {
+        return text.substring(keywordStart, keywordEnd);
+    }
+
+    /**
+     * Returns everything after the keyword, options included.
+     *
+     * @return the arguments, or an empty string if there are none
+     */
+    public String getArguments() {
+        return text.substring(argumentsStart, argumentsEnd);
+    }
+
+    /**
+     * Returns the text of the arguments before the first option the command takes.
+     *
+     * @return the description, which may be empty
+     */
+    public String getDescription() {
+        return text.substring(argumentsStart, Math.max(argumentsStart, descriptionEnd));
+    }
+
+    /**
+     * Returns whether the arguments contain the given option.
+     *
+     * @param option the option
+     * @return {@code true} if the option was found
+     */
+    public boolean hasOption(Option option) {
+        return valueStarts != null && valueStarts[option.ordinal()] != -1;
+    }
+
+    /**
+     * Returns the value given to an option.
+     *
+     * @param option the option
+     * @return the text after the option up to the next one, which may be empty,
+     *         or {@code null} if the option is absent
+     */
+    public String getOption(Option option) {
+        if (!hasOption(option)) {
+            return null;
+        }
+        int o = option.ordinal();
+        return text.substring(valueStarts[o], Math.max(valueStarts[o], valueEnds[o]));
+    }
+
+    /**
+     * Returns the number of words in the arguments, where words are separated by whitespace.
+     *
+     * @return the number of words, or 0 if there are no arguments
+     */
+    public int getWordCount() {
+        readWords();
+        return wordStarts.length;
+    }
+
+    /**
+     * Returns a word of the arguments.
+     *
+     * @param index the position of the word, starting from 0
+     * @return the word
+     * @throws IndexOutOfBoundsException if there is no word at that position
+     */
+    public String getWord(int index) {
+        readWords();
+        return text.substring(wordStarts[index], wordEnds[index]);
+    }
+
+    /**
+     * Finds the words of the arguments, counting them in a first pass so the arrays are sized exactly.
+     */
+    private void readWords() {
+        if (wordStarts != null) {
+            return;
+        }
+        int count = 0;
+        for (int i = argumentsStart; i < argumentsEnd; i++) {
+            if (!Character.isWhitespace(text.charAt(i))
+                    && (i == argumentsStart || Character.isWhitespace(text.charAt(i - 1)))) {
+                count++;
+            }
+        }
+        int[] starts = new int[count];
+        int[] ends = new int[count];
+        int word = 0;
+        int i = argumentsStart;
+        while (word < count) {
+            i = trimStart(i, argumentsEnd);
+            starts[word] = i;
+            while (i < argumentsEnd && !Character.isWhitespace(text.charAt(i))) {
+                i++;
+            }
+            ends[word++] = i;
+        }
+        wordStarts = starts;
+        wordEnds = ends;
+    }
+
+    /**
+     * Returns the number of characters in the keyword.
+     */
+    int keywordLength() {
+        return keywordEnd - keywordStart;
+    }
+
+    /**
+     * Returns a character of the keyword, without creating the keyword as a string.
+     */
+    char keywordChar(int index) {
+        return text.charAt(keywordStart + index);
+    }
+
+    /**
+     * Returns whether the keyword is the given one, ignoring case.
+     *
+     * @param keyword the keyword to compare with
+     * @return {@code true} if they match
+     */
+    public boolean isKeyword(String keyword) {
+        return keywordLength() == keyword.length()
+                && text.regionMatches(true, keywordStart, keyword, 0, keyword.length());
+    }
+}
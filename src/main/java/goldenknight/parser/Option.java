@@ -0,0 +1,27 @@
+package goldenknight.parser;
+
+/**
+ * An option that a command takes among its arguments, such as {@code /by} in
+ * {@code deadline return book /by 2/10/2025 1800}.
+ */
+public enum Option {
+    /** The time a deadline is due. */
+    BY("/by"),
+
+    /** The time an event starts. */
+    FROM("/from"),
+
+    /** The time an event ends. */
+    TO("/to");
+
+    /** The option as the user types it. */
+    private final String name;
+
+    private Option(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+}
@@ -11,6 +11,10 @@ import goldenknight.exception.DukeException;
  *
  * <p>Leading and trailing spaces in the input are ignored. If the input
  * is empty or contains only whitespace, a {@link DukeException} is thrown.</p>
+ *
+ * <p>{@link #tokenize(String)} and {@link #parseArguments(String, Option...)} read the input into a
+ * {@link CommandLine} instead, which also finds the options of a command without splitting the
+ * input into new strings.</p>
  */
 public class Parser {
 
@@ -34,4 +38,32 @@ public class Parser {
 
         return trimmed.split(" ", 2);
     }
+
+    /**
+     * Reads the given input into a command keyword and its arguments.
+     *
+     * @param input The raw input string from the user.
+     * @return The command line, whose options are not read yet.
+     * @throws DukeException If the input is empty or contains only whitespace.
+     */
+    public static CommandLine tokenize(String input) throws DukeException {
+        CommandLine line = new CommandLine(input, true);
+        if (line.keywordLength() == 0) {
+            throw new DukeException("OOPS!!! You entered an empty command.");
+        }
+        return line;
+    }
+
+    /**
+     * Reads the arguments of a command, finding the given options among them.
+     *
+     * @param arguments The input after the command keyword.
+     * @param options The options the command takes.
+     * @return The arguments, with the description and the value of each option found.
+     */
+    public static CommandLine parseArguments(String arguments, Option... options) {
+        CommandLine line = new CommandLine(arguments, false);
+        line.readOptions(options);
+        return line;
+    }
 }
@@ -0,0 +1,262 @@
+package goldenknight.storage;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.DateTimeException;
+import java.util.Arrays;
+import java.util.List;
+
+import goldenknight.task.Deadline;
+import goldenknight.task.Event;
+import goldenknight.task.Task;
+import goldenknight.task.TaskDateTime;
+import goldenknight.task.Todo;
+
+/**
+ * Encodes tasks in the compact binary task file format.
+ *
+ * <p>A file starts with the four magic bytes {@code 0x89 'G' 'K' 'B'}, a version byte
+ * and the number of tasks. Each task is then stored as:</p>
+ * <ul>
+ *     <li>its id plus one, or 0 if it has none,</li>
+ *     <li>one byte holding the task type code ({@code 'T'}, {@code 'D'} or {@code 'E'})
+ *         with the done flag packed into the top bit,</li>
+ *     <li>the description as a length-prefixed UTF-8 string,</li>
+ *     <li>for a deadline, its date in minutes since the epoch,</li>
+ *     <li>for an event, its start in minutes since the epoch and its length in minutes.</li>
+ * </ul>
+ * <p>All numbers are variable-length integers of 7 bits per byte, and dates are
+ * zigzag encoded so that dates before 1970 stay short. Loading such a file needs
+ * no date parsing at all.</p>
+ */
+final class BinaryTaskCodec {
+
+    /** The version of the format. */
+    static final int VERSION = 1;
+
+    private static final byte[] MAGIC = {(byte) 0x89, 'G', 'K', 'B'};
+    private static final int DONE_FLAG = 0x80;
+
+    private BinaryTaskCodec() {
+    }
+
+    /**
+     * Returns whether the given file starts with the binary format's magic bytes.
+     * A text task file never does, since its first byte is a task type code.
+     *
+     * @param path The task file.
+     * @return Whether the file is in the binary format.
+     * @throws IOException If the file cannot be read.
+     */
+    static boolean isBinary(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(MAGIC.length);
+            while (header.hasRemaining()) {
+                if (channel.read(header) < 0) {
+                    return false;
+                }
+            }
+            return Arrays.equals(header.array(), MAGIC);
+        }
+    }
+
+    /**
+     * Encodes the given tasks, header included.
+     *
+     * @param tasks The tasks to encode.
+     * @return The contents of the binary task file.
+     */
+    static byte[] encode(List<Task> tasks) {
+        Output out = new Output(16 + tasks.size() * 32);
+        out.write(MAGIC, MAGIC.length);
+        out.write(VERSION);
+        out.writeVarint(tasks.size());
+        for (Task task : tasks) {
+            out.writeVarint(task.getId() + 1L);
+            encodeTask(task, out);
+        }
+        return Arrays.copyOf(out.bytes, out.size);
+    }
+
+    /**
+     * Encodes a single task without the file header.
+     *
+     * @param task The task to encode.
+     * @return The encoded task.
+     */
+    static byte[] encodeTask(Task task) {
+        Output out = new Output(32);
+        encodeTask(task, out);
+        return Arrays.copyOf(out.bytes, out.size);
+    }
+
+    private static void encodeTask(Task task, Output out) {
+        char code = task instanceof Deadline ? 'D' : task instanceof Event ? 'E' : 'T';
+        out.write(code | (task.isDone() ? DONE_FLAG : 0));
+        byte[] description = task.getDescription().getBytes(StandardCharsets.UTF_8);
+        out.writeVarint(description.length);
+        out.write(description, description.length);
+        if (task instanceof Deadline) {
+            out.writeVarint(zigzag(((Deadline) task).getByEpochMinutes()));
+        } else if (task instanceof Event) {
+            long from = ((Event) task).getFromEpochMinutes();
+            long to = ((Event) task).getToEpochMinutes();
+            out.writeVarint(zigzag(from));
+            out.writeVarint(zigzag(to - from));
+        }
+    }
+
+    /**
+     * Decodes a binary task file, appending its tasks to the given list in file order.
+     * If the file turns out to be corrupted, the tasks decoded before the damage are kept.
+     *
+     * @param buffer The contents of the file, from its first byte to its last.
+     * @param tasks The list the tasks are appended to.
+     * @throws IOException If the file is not a binary task file of a supported version, or is corrupted.
+     */
+    static void decode(ByteBuffer buffer, List<Task> tasks) throws IOException {
+        try {
+            byte[] magic = new byte[MAGIC.length];
+            buffer.get(magic);
+            if (!Arrays.equals(magic, MAGIC)) {
+                throw new IOException("Not a binary task file");
+            }
+            int version = buffer.get() & 0xFF;
+            if (version != VERSION) {
+                throw new IOException("Unsupported binary task file version: " + version);
+            }
+            long count = readVarint(buffer);
+            byte[] scratch = new byte[256];
+            for (long i = 0; i < count; i++) {
+                long id = readVarint(buffer) - 1;
+                if (id < Task.NO_ID || id > Integer.MAX_VALUE) {
+                    throw new IOException("Corrupted task id: " + id);
+                }
+                Task task = decodeTask(buffer, scratch);
+                if (id != Task.NO_ID) {
+                    task.setId((int) id);
+                }
+                tasks.add(task);
+            }
+            if (buffer.hasRemaining()) {
+                throw new IOException("Unexpected data after task " + count);
+            }
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Binary task file is truncated after task " + tasks.size());
+        } catch (IOException e) {
+            throw new IOException(e.getMessage() + " after task " + tasks.size());
+        }
+    }
+
+    /**
+     * Decodes one task encoded by {@link #encodeTask(Task)}.
+     *
+     * @param buffer The buffer positioned at the task, which is left positioned after it.
+     * @param scratch A buffer for descriptions that fit in it, to avoid allocating one per task.
+     * @return The decoded task.
+     * @throws IOException If the task is truncated or corrupted.
+     */
+    static Task decodeTask(ByteBuffer buffer, byte[] scratch) throws IOException {
+        try {
+            int header = buffer.get() & 0xFF;
+            long length = readVarint(buffer);
+            if (length < 0 || length > buffer.remaining()) {
+                throw new IOException("Corrupted description length: " + length);
+            }
+            byte[] bytes = scratch.length >= length ? scratch : new byte[(int) length];
+            buffer.get(bytes, 0, (int) length);
+            String description = new String(bytes, 0, (int) length, StandardCharsets.UTF_8);
+            if (description.isBlank()) {
+                throw new IOException("Blank task description");
+            }
+
+            Task task;
+            switch (header & ~DONE_FLAG) {
+            case 'T':
+                task = new Todo(description);
+                break;
+            case 'D':
+                task = new Deadline(description, TaskDateTime.ofEpochMinutes(unzigzag(readVarint(buffer))));
+                break;
+            case 'E':
+                long from = unzigzag(readVarint(buffer));
+                long to = from + unzigzag(readVarint(buffer));
+                task = new Event(description, TaskDateTime.ofEpochMinutes(from), TaskDateTime.ofEpochMinutes(to));
+                break;
+            default:
+                throw new IOException("Unknown task type byte: " + (header & ~DONE_FLAG));
+            }
+            if ((header & DONE_FLAG) != 0) {
+                task.markAsDone();
+            }
+            return task;
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Truncated task");
+        } catch (IllegalArgumentException | DateTimeException e) {
+            throw new IOException("Corrupted task: " + e.getMessage());
+        }
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static long readVarint(ByteBuffer buffer) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IOException("Variable-length integer is too long");
+    }
+
+    /**
+     * A growable byte array, which unlike {@link java.io.ByteArrayOutputStream} is not synchronized.
+     */
+    private static final class Output {
+        private byte[] bytes;
+        private int size;
+
+        Output(int capacity) {
+            bytes = new byte[capacity];
+        }
+
+        void write(int b) {
+            ensureCapacity(1);
+            bytes[size++] = (byte) b;
+        }
+
+        void write(byte[] data, int length) {
+            ensureCapacity(length);
+            System.arraycopy(data, 0, bytes, size, length);
+            size += length;
+        }
+
+        void writeVarint(long value) {
+            ensureCapacity(10);
+            while ((value & ~0x7FL) != 0) {
+                bytes[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            bytes[size++] = (byte) value;
+        }
+
+        private void ensureCapacity(int extra) {
+            if (size + extra > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(size + extra, bytes.length * 2));
+            }
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package goldenknight.storage;
+
+/**
+ * Represents how far {@link Storage} goes to make a save survive a crash.
+ *
+ * <p>Every level writes the new file next to the old one and renames it into place,
+ * so a crashed process never leaves a half-written task file behind. The levels only
+ * differ in whether they wait for the operating system to flush the data to disk.</p>
+ */
+public enum Durability {
+    /** Rename only. Fastest, but a power loss may lose the most recent saves. */
+    NONE,
+
+    /** Flush the file contents to disk before renaming it into place. */
+    DATA,
+
+    /** Flush the file contents, rename, then flush the directory so the rename itself is durable. */
+    DATA_AND_DIRECTORY;
+
+    /**
+     * Returns the {@code Durability} with the given name, ignoring case.
+     *
+     * @param name the name of the level, e.g. "data"
+     * @return the matching {@code Durability}
+     * @throws IllegalArgumentException if no level has the given name
+     */
+    public static Durability fromName(String name) {
+        if (name == null) {
+            throw new IllegalArgumentException("Durability level cannot be null");
+        }
+        return valueOf(name.trim().toUpperCase());
+    }
+}
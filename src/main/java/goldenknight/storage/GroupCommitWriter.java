@@ -0,0 +1,311 @@
+package goldenknight.storage;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes persistence requests on a single background thread, merging bursts
+ * of requests into one commit.
+ *
+ * <p>Callers {@link #submit(String)} entries and return immediately. The writer
+ * thread waits up to the flush interval after the first entry of a batch for more
+ * entries to arrive, then hands the whole batch to a {@link Sink} in one call.
+ * {@link #flush()} and {@link #close()} block until every entry submitted before
+ * the call has been committed by the sink.</p>
+ *
+ * <p>A commit that fails is recorded, and the next {@link #flush()} or {@link #close()}
+ * throws the failure, so that a caller waiting for its entries learns they were lost.
+ * If the writer thread stops for any reason, waiting callers are woken with an error
+ * instead of waiting forever.</p>
+ */
+public class GroupCommitWriter {
+
+    /**
+     * Receives batches of entries from the writer thread.
+     */
+    public interface Sink {
+        /**
+         * Durably writes a batch of entries, oldest first.
+         *
+         * @param batch the entries to write
+         * @throws IOException if the entries cannot be written
+         */
+        void commit(List<String> batch) throws IOException;
+    }
+
+    /**
+     * An entry waiting in the queue. A {@code null} payload marks a flush request.
+     */
+    private static class Entry {
+        private final String payload;
+        private final long sequence;
+        private final long enqueuedNanos;
+
+        Entry(String payload, long sequence) {
+            this.payload = payload;
+            this.sequence = sequence;
+            this.enqueuedNanos = System.nanoTime();
+        }
+    }
+
+    private final Sink sink;
+    private final long flushIntervalNanos;
+    private final int maxBatchSize;
+    private final BlockingQueue<Entry> queue = new LinkedBlockingQueue<>();
+    private final Thread thread;
+    private final Object lock = new Object();
+
+    /** Sequence number of the last submitted entry, guarded by {@link #lock}. */
+    private long submitted;
+    /** Sequence number of the last entry handed to the sink, guarded by {@link #lock}. */
+    private long committed;
+    /** Failures of commits not yet reported to a caller, guarded by {@link #lock}. */
+    private IOException failure;
+    /** Whether the writer thread has stopped, guarded by {@link #lock}. */
+    private boolean isStopped;
+    private volatile boolean isClosed;
+
+    private volatile long commitCount;
+    private volatile long committedEntries;
+    private volatile long failedCommits;
+    private volatile long totalCommitLatencyNanos;
+    private volatile long maxCommitLatencyNanos;
+
+    /**
+     * Constructs a GroupCommitWriter and starts its writer thread.
+     *
+     * @param sink the sink that performs the actual writes
+     * @param flushIntervalMillis how long to wait for more entries after the first entry of a batch
+     * @param maxBatchSize the maximum number of entries handed to the sink at once
+     */
+    public GroupCommitWriter(Sink sink, long flushIntervalMillis, int maxBatchSize) {
+        assert sink != null : "Sink should not be null";
+        assert flushIntervalMillis >= 0 : "Flush interval should not be negative";
+        assert maxBatchSize > 0 : "Max batch size should be positive";
+        this.sink = sink;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+        this.maxBatchSize = maxBatchSize;
+        this.thread = new Thread(this::run, "goldenknight-writer");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * Queues an entry to be committed by the writer thread.
+     *
+     * @param payload the entry to write
+     * @throws IllegalStateException if the writer has been closed
+     */
+    public void submit(String payload) {
+        assert payload != null : "Payload should not be null";
+        enqueue(payload);
+    }
+
+    /**
+     * Blocks until every entry submitted before this call has been committed.
+     *
+     * @throws IOException if a commit failed since the last flush or close, or the writer stopped
+     * @throws IllegalStateException if the writer has been closed
+     */
+    public void flush() throws IOException {
+        awaitCommitted(enqueue(null));
+    }
+
+    /**
+     * Commits every pending entry and stops the writer thread.
+     * Calling this more than once has no further effect.
+     *
+     * @throws IOException if a commit failed since the last flush or close, or the writer stopped
+     */
+    public void close() throws IOException {
+        long target;
+        synchronized (lock) {
+            if (isClosed) {
+                return;
+            }
+            submitted++;
+            // Queued before the writer thread can see the flag, so it commits the marker before stopping
+            queue.add(new Entry(null, submitted));
+            isClosed = true;
+            target = submitted;
+        }
+        try {
+            awaitCommitted(target);
+        } finally {
+            thread.interrupt();
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private long enqueue(String payload) {
+        synchronized (lock) {
+            if (isClosed) {
+                throw new IllegalStateException("Writer has been closed");
+            }
+            submitted++;
+            queue.add(new Entry(payload, submitted));
+            return submitted;
+        }
+    }
+
+    /**
+     * Waits until the entry with the given sequence number has been committed, then reports
+     * any failed commit.
+     */
+    private void awaitCommitted(long target) throws IOException {
+        synchronized (lock) {
+            while (committed < target && !isStopped) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while waiting for queued writes");
+                }
+            }
+            IOException reported = failure;
+            failure = null;
+            if (committed < target) {
+                IOException stopped = new IOException("The writer stopped before committing every entry");
+                if (reported != null) {
+                    stopped.addSuppressed(reported);
+                }
+                throw stopped;
+            }
+            if (reported != null) {
+                throw reported;
+            }
+        }
+    }
+
+    private void run() {
+        List<Entry> batch = new ArrayList<>();
+        try {
+            while (!isClosed || !queue.isEmpty()) {
+                try {
+                    Entry first = queue.take();
+                    batch.add(first);
+                    collect(batch, first.enqueuedNanos + flushIntervalNanos);
+                } catch (InterruptedException e) {
+                    if (batch.isEmpty()) {
+                        continue;
+                    }
+                }
+                commit(batch);
+                batch.clear();
+            }
+        } finally {
+            synchronized (lock) {
+                isStopped = true;
+                lock.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Adds entries to the batch until it is full, the deadline passes or a flush is requested.
+     */
+    private void collect(List<Entry> batch, long deadlineNanos) throws InterruptedException {
+        while (batch.size() < maxBatchSize && batch.get(batch.size() - 1).payload != null) {
+            long remaining = deadlineNanos - System.nanoTime();
+            Entry next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void commit(List<Entry> batch) {
+        List<String> payloads = new ArrayList<>(batch.size());
+        for (Entry entry : batch) {
+            if (entry.payload != null) {
+                payloads.add(entry.payload);
+            }
+        }
+        if (!payloads.isEmpty()) {
+            try {
+                sink.commit(payloads);
+            } catch (IOException | RuntimeException e) {
+                failedCommits++;
+                recordFailure(e instanceof IOException
+                        ? (IOException) e
+                        : new IOException("Commit failed: " + e, e));
+            }
+            long latency = System.nanoTime() - batch.get(0).enqueuedNanos;
+            commitCount++;
+            committedEntries += payloads.size();
+            totalCommitLatencyNanos += latency;
+            maxCommitLatencyNanos = Math.max(maxCommitLatencyNanos, latency);
+        }
+        synchronized (lock) {
+            committed = batch.get(batch.size() - 1).sequence;
+            lock.notifyAll();
+        }
+    }
+
+    private void recordFailure(IOException e) {
+        synchronized (lock) {
+            if (failure == null) {
+                failure = e;
+            } else {
+                failure.addSuppressed(e);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of entries waiting to be committed.
+     *
+     * @return the current queue depth
+     */
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    public long getCommitCount() {
+        return commitCount;
+    }
+
+    public long getCommittedEntries() {
+        return committedEntries;
+    }
+
+    public long getFailedCommits() {
+        return failedCommits;
+    }
+
+    public long getMaxCommitLatencyNanos() {
+        return maxCommitLatencyNanos;
+    }
+
+    /**
+     * Returns the mean time from the first entry of a batch being submitted
+     * to the batch being committed.
+     *
+     * @return the average commit latency in nanoseconds, or 0 if nothing has been committed
+     */
+    public long getAverageCommitLatencyNanos() {
+        long commits = commitCount;
+        return commits == 0 ? 0 : totalCommitLatencyNanos / commits;
+    }
+
+    /**
+     * Returns a one-line summary of the writer metrics, suitable for logging.
+     *
+     * @return the metrics summary
+     */
+    public String getMetricsSummary() {
+        return String.format("queue=%d commits=%d entries=%d failed=%d avgLatency=%.3fms maxLatency=%.3fms",
+                getQueueDepth(), commitCount, committedEntries, failedCommits,
+                getAverageCommitLatencyNanos() / 1e6, maxCommitLatencyNanos / 1e6);
+    }
+}
@@ -0,0 +1,299 @@
+package goldenknight.storage;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import goldenknight.task.Task;
+import goldenknight.task.TaskList;
+
+/**
+ * A {@link Storage} that writes only the tasks that changed since the last save.
+ *
+ * <p>It keeps the byte offset and length of every task's line in the text task file.
+ * A task whose line keeps its length, such as one that was marked or unmarked, is
+ * rewritten in place. Added tasks are appended to the end of the file, and deleted
+ * tasks are blanked out with spaces, which loading skips like any blank line. Once
+ * the blanked lines make up more than the compaction threshold of the file, it is
+ * rewritten in full without them.</p>
+ *
+ * <p>Anything the index cannot express, such as a line changing length or a file
+ * that was not written by this class, falls back to a full rewrite. So do the
+ * binary format and group commit, which always write whole snapshots. Unlike a
+ * full rewrite, an incremental save is not atomic: a crash can leave some of its
+ * lines written and others not, although every single line is either old or new.</p>
+ */
+public class IncrementalStorage extends Storage {
+
+    /** Default fraction of the file that may be blanked lines before it is compacted. */
+    public static final double DEFAULT_COMPACTION_THRESHOLD = 0.5;
+
+    private static final byte[] LINE_SEPARATOR = System.lineSeparator().getBytes(CHARSET);
+
+    private final double compactionThreshold;
+
+    /** Where each task's line is in the file, if the file matches the tasks. */
+    private final Map<Task, Extent> extents = new IdentityHashMap<>();
+    private long fileLength;
+    private long tombstoneBytes;
+    private boolean isIndexed;
+
+    /**
+     * Constructs an IncrementalStorage for the given task file with the default compaction threshold.
+     *
+     * @param filePath The path to the file where tasks are stored.
+     */
+    public IncrementalStorage(String filePath) {
+        this(filePath, Durability.NONE, DEFAULT_COMPACTION_THRESHOLD);
+    }
+
+    /**
+     * Constructs an IncrementalStorage for the given task file, durability level and
+     * compaction threshold. Any level other than {@link Durability#NONE} flushes each
+     * incremental save to disk.
+     *
+     * @param filePath The path to the file where tasks are stored.
+     * @param durability How far each save goes to survive a crash.
+     * @param compactionThreshold The fraction of the file, between 0 and 1, that may be
+     *                            blanked lines before the file is rewritten without them.
+     */
+    public IncrementalStorage(String filePath, Durability durability, double compactionThreshold) {
+        super(filePath, durability);
+        assert compactionThreshold >= 0 && compactionThreshold <= 1 : "Compaction threshold should be a fraction";
+        this.compactionThreshold = compactionThreshold;
+    }
+
+    /**
+     * Loads the tasks and indexes where each of them is stored in the file.
+     *
+     * @return An ArrayList containing all valid tasks loaded from the file.
+     */
+    @Override
+    public ArrayList<Task> load() {
+        ArrayList<Task> tasks = super.load();
+        try {
+            isIndexed = index(Files.readAllBytes(Path.of(filePath)), tasks);
+        } catch (IOException e) {
+            isIndexed = false;
+        }
+        return tasks;
+    }
+
+    /**
+     * Records the offset of each task's line in the file contents.
+     *
+     * <p>The index is only usable if the non-blank lines are exactly the tasks' file
+     * formats, in order, each ended by a line break. Otherwise, for example when a
+     * corrupted line was skipped, the next save rewrites the whole file.</p>
+     *
+     * @param content The contents of the task file.
+     * @param tasks The tasks loaded from it.
+     * @return Whether the file matches the tasks line for line.
+     */
+    private boolean index(byte[] content, List<Task> tasks) {
+        extents.clear();
+        tombstoneBytes = 0;
+        int next = 0;
+        int start = 0;
+        while (start < content.length) {
+            int end = start;
+            while (end < content.length && content[end] != '\n') {
+                end++;
+            }
+            if (end == content.length) {
+                return false;
+            }
+            int lineEnd = end > start && content[end - 1] == '\r' ? end - 1 : end;
+            if (isBlank(content, start, lineEnd)) {
+                tombstoneBytes += lineEnd - start;
+            } else {
+                if (next == tasks.size()) {
+                    return false;
+                }
+                byte[] expected = encodeLine(tasks.get(next));
+                if (!Arrays.equals(content, start, lineEnd, expected, 0, expected.length)) {
+                    return false;
+                }
+                extents.put(tasks.get(next), new Extent(start, expected.length));
+                next++;
+            }
+            start = end + 1;
+        }
+        fileLength = content.length;
+        return next == tasks.size();
+    }
+
+    private static boolean isBlank(byte[] content, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (content[i] > ' ' || content[i] < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Writes the whole file and indexes the new position of every task's line.
+     *
+     * @param tasks The list of tasks to be written.
+     * @throws IOException If the file cannot be written.
+     */
+    @Override
+    protected void writeFile(List<Task> tasks) throws IOException {
+        extents.clear();
+        isIndexed = false;
+        if (getFormat() != StorageFormat.TEXT) {
+            super.writeFile(tasks);
+            return;
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (Task task : tasks) {
+            int start = out.size();
+            writeLine(out, task);
+            extents.put(task, new Extent(start, out.size() - start));
+            out.write(LINE_SEPARATOR);
+        }
+        writeBytes(out.toByteArray(), durability);
+        fileLength = out.size();
+        tombstoneBytes = 0;
+        isIndexed = true;
+    }
+
+    /**
+     * Writes only the changes recorded in the task list, falling back to a full save
+     * when they cannot be written in place, and compacts the file once too much of it
+     * is blanked out.
+     *
+     * @param tasks The task list to save.
+     */
+    @Override
+    protected void persistAll(TaskList tasks) {
+        if (!isIndexed || getGroupCommitWriter() != null || getFormat() != StorageFormat.TEXT) {
+            super.persistAll(tasks);
+            return;
+        }
+        try {
+            if (!writeChanges(tasks)) {
+                writeFile(tasks.snapshot());
+            }
+            tasks.clearChanges();
+            if (tombstoneBytes > compactionThreshold * fileLength) {
+                writeFile(tasks.snapshot());
+            }
+        } catch (IOException e) {
+            // The file may now be partly updated, so the next save rewrites it in full
+            isIndexed = false;
+            System.err.println("Error saving tasks: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Appends added tasks, rewrites changed ones in place and blanks out deleted ones.
+     *
+     * @param tasks The task list whose changes are written.
+     * @return Whether the changes could be written in place; if not, nothing was written.
+     * @throws IOException If the file cannot be written.
+     */
+    private boolean writeChanges(TaskList tasks) throws IOException {
+        List<Extent> patches = new ArrayList<>();
+        List<byte[]> patchLines = new ArrayList<>();
+        int addedCount = 0;
+        // Read once, since a concurrent list copies the set on every call
+        Set<Task> dirty = tasks.getDirtyTasks();
+        for (Task task : dirty) {
+            Extent extent = extents.get(task);
+            if (extent == null) {
+                addedCount++;
+                continue;
+            }
+            byte[] line = encodeLine(task);
+            if (line.length != extent.length) {
+                return false;
+            }
+            patches.add(extent);
+            patchLines.add(line);
+        }
+
+        // Appending keeps the file in list order only if the added tasks are the last ones
+        int firstAdded = tasks.size() - addedCount;
+        ByteArrayOutputStream appended = new ByteArrayOutputStream();
+        List<Task> added = new ArrayList<>(addedCount);
+        for (int i = firstAdded; i < tasks.size(); i++) {
+            Task task = tasks.get(i);
+            if (extents.containsKey(task) || !dirty.contains(task)) {
+                return false;
+            }
+            added.add(task);
+        }
+
+        try (FileChannel channel = FileChannel.open(Path.of(filePath), StandardOpenOption.WRITE)) {
+            long position = fileLength;
+            for (Task task : added) {
+                int start = appended.size();
+                writeLine(appended, task);
+                extents.put(task, new Extent(position + start, appended.size() - start));
+                appended.write(LINE_SEPARATOR);
+            }
+            writeAt(channel, appended.toByteArray(), position);
+            fileLength += appended.size();
+
+            for (int i = 0; i < patches.size(); i++) {
+                writeAt(channel, patchLines.get(i), patches.get(i).offset);
+            }
+
+            for (Task task : tasks.getDeletedTasks()) {
+                Extent extent = extents.remove(task);
+                if (extent != null) {
+                    byte[] blank = new byte[extent.length];
+                    Arrays.fill(blank, (byte) ' ');
+                    writeAt(channel, blank, extent.offset);
+                    tombstoneBytes += extent.length;
+                }
+            }
+
+            if (durability != Durability.NONE) {
+                channel.force(false);
+            }
+        }
+        return true;
+    }
+
+    private static void writeAt(FileChannel channel, byte[] bytes, long position) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, position + buffer.position());
+        }
+    }
+
+    /**
+     * Returns the fraction of the file taken up by the lines of deleted tasks.
+     *
+     * @return The tombstone ratio, or 0 if the file is empty.
+     */
+    public double getTombstoneRatio() {
+        return fileLength == 0 ? 0 : (double) tombstoneBytes / fileLength;
+    }
+
+    /**
+     * The position of one task's line in the file, excluding its line break.
+     */
+    private static final class Extent {
+        private final long offset;
+        private final int length;
+
+        Extent(long offset, int length) {
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+}
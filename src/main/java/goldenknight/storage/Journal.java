@@ -0,0 +1,190 @@
+package goldenknight.storage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * An append-only log of task mutations that sits next to a snapshot file.
+ *
+ * <p>The first line of the journal is a header holding the checksum of the
+ * snapshot the journal was started against. Every following line is one
+ * mutation record, prefixed with the CRC32 checksum of the record as eight hex
+ * digits. If the snapshot no longer matches the header, the journal has already
+ * been folded into the snapshot and its records are ignored.</p>
+ *
+ * <p>Each line is decoded and checked on its own, so a record torn by a crash, even
+ * in the middle of a character, is dropped without losing the records before it.</p>
+ */
+class Journal {
+
+    /** Prefix of the header line that ties the journal to its snapshot. */
+    private static final String HEADER_PREFIX = "S ";
+
+    /** Number of hex digits in the checksum that starts each record line. */
+    private static final int CHECKSUM_DIGITS = 8;
+
+    /** Path to the journal file. */
+    private final Path path;
+
+    /**
+     * Constructs a Journal backed by the given file.
+     *
+     * @param path The path to the journal file.
+     */
+    Journal(String path) {
+        this.path = Paths.get(path);
+    }
+
+    /**
+     * Appends records in a single write, optionally waiting until they have reached the disk.
+     *
+     * @param records The records to append, oldest first, without line separators.
+     * @param isForced Whether to flush the journal to disk after writing.
+     * @throws IOException If the journal cannot be written.
+     */
+    void append(List<String> records, boolean isForced) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        for (String record : records) {
+            sb.append(String.format("%08x", recordChecksum(record))).append(' ')
+                    .append(record).append(System.lineSeparator());
+        }
+        ByteBuffer buffer = StandardCharsets.UTF_8.encode(sb.toString());
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            if (isForced) {
+                channel.force(false);
+            }
+        }
+    }
+
+    /**
+     * Discards all records and starts a new journal against the given snapshot.
+     *
+     * @param snapshotChecksum The checksum of the snapshot the new journal applies to.
+     * @throws IOException If the journal cannot be written.
+     */
+    void reset(long snapshotChecksum) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        Files.writeString(path, HEADER_PREFIX + snapshotChecksum + System.lineSeparator(),
+                StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reads the records written since the journal was last reset.
+     *
+     * <p>Returns an empty list if the journal does not exist or was started
+     * against a different snapshot. Records that cannot be decoded or fail their
+     * checksum, such as a record torn by a crash, are skipped with a warning.</p>
+     *
+     * @param snapshotChecksum The checksum of the snapshot currently on disk.
+     * @return The records in the order they were appended, without their checksums.
+     * @throws IOException If the journal exists but cannot be read.
+     */
+    List<String> readRecords(long snapshotChecksum) throws IOException {
+        List<String> records = new ArrayList<>();
+        if (!Files.exists(path)) {
+            return records;
+        }
+        byte[] bytes = Files.readAllBytes(path);
+        CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder();
+        boolean isHeader = true;
+        int start = 0;
+        while (start < bytes.length) {
+            int end = start;
+            while (end < bytes.length && bytes[end] != '\n') {
+                end++;
+            }
+            int lineEnd = end > start && bytes[end - 1] == '\r' ? end - 1 : end;
+            String line = decode(decoder, bytes, start, lineEnd);
+            if (isHeader) {
+                if (line == null || !line.equals(HEADER_PREFIX + snapshotChecksum)) {
+                    return records;
+                }
+                isHeader = false;
+            } else if (lineEnd > start) {
+                String record = line == null ? null : verify(line);
+                if (record != null) {
+                    records.add(record);
+                } else if (end == bytes.length) {
+                    System.err.println("⚠ Skipping torn journal record at the end of " + path);
+                } else {
+                    System.err.println("⚠ Skipping corrupted journal record: " + line);
+                }
+            }
+            start = end + 1;
+        }
+        return records;
+    }
+
+    /**
+     * Decodes one line of the journal.
+     *
+     * @return the line, or {@code null} if its bytes are not valid UTF-8
+     */
+    private static String decode(CharsetDecoder decoder, byte[] bytes, int from, int to) {
+        try {
+            return decoder.decode(ByteBuffer.wrap(bytes, from, to - from)).toString();
+        } catch (CharacterCodingException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Checks a line against the checksum it starts with.
+     *
+     * @param line a line of the journal after its header
+     * @return the record the line holds, or {@code null} if it has no checksum or the checksum does not match
+     */
+    private static String verify(String line) {
+        if (line.length() <= CHECKSUM_DIGITS || line.charAt(CHECKSUM_DIGITS) != ' ') {
+            return null;
+        }
+        String record = line.substring(CHECKSUM_DIGITS + 1);
+        try {
+            long checksum = Long.parseLong(line.substring(0, CHECKSUM_DIGITS), 16);
+            return checksum == recordChecksum(record) ? record : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Computes the CRC32 checksum of a record's UTF-8 bytes.
+     */
+    private static long recordChecksum(String record) {
+        CRC32 crc = new CRC32();
+        crc.update(record.getBytes(StandardCharsets.UTF_8));
+        return crc.getValue();
+    }
+
+    /**
+     * Computes the CRC32 checksum of a file.
+     *
+     * @param file The file to checksum.
+     * @return The checksum, or the checksum of no bytes if the file does not exist.
+     * @throws IOException If the file exists but cannot be read.
+     */
+    static long checksum(Path file) throws IOException {
+        CRC32 crc = new CRC32();
+        if (Files.exists(file)) {
+            crc.update(Files.readAllBytes(file));
+        }
+        return crc.getValue();
+    }
+}
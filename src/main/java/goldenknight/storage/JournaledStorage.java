@@ -0,0 +1,241 @@
+package goldenknight.storage;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+import goldenknight.task.Task;
+import goldenknight.task.TaskList;
+
+/**
+ * A {@link Storage} that appends each mutation to a journal instead of
+ * rewriting the whole task file.
+ *
+ * <p>Adding, marking, unmarking and deleting a task each cost one short append,
+ * no matter how many tasks are stored. On startup the journal is replayed onto
+ * the last snapshot. Once the journal grows as large as the task list itself,
+ * it is folded back into the snapshot so that replay stays cheap.</p>
+ *
+ * <p>Records refer to tasks by their ids, as {@code M #<id>}, {@code U #<id>} and
+ * {@code D #<id>}, so a record that is lost or skipped does not change which task
+ * the records after it apply to.</p>
+ */
+public class JournaledStorage extends Storage {
+
+    /** Minimum number of records kept in the journal before a checkpoint. */
+    private static final int MIN_CHECKPOINT_RECORDS = 1024;
+
+    private final Journal journal;
+
+    /** Number of records appended since the last checkpoint. */
+    private int recordCount;
+
+    /**
+     * Constructs a JournaledStorage for the given task file.
+     * The journal is kept next to it with a {@code .journal} suffix.
+     *
+     * @param filePath The path to the snapshot file where tasks are stored.
+     */
+    public JournaledStorage(String filePath) {
+        this(filePath, Durability.NONE);
+    }
+
+    /**
+     * Constructs a JournaledStorage for the given task file and durability level.
+     * Any level other than {@link Durability#NONE} flushes each record to disk.
+     *
+     * @param filePath The path to the snapshot file where tasks are stored.
+     * @param durability How far each write goes to survive a crash.
+     */
+    public JournaledStorage(String filePath, Durability durability) {
+        super(filePath, durability);
+        this.journal = new Journal(filePath + ".journal");
+    }
+
+    /**
+     * Loads the snapshot and replays any journal records written after it.
+     *
+     * <p>Corrupted journal records, such as a line torn by a crash, are skipped
+     * with a warning message in the same way corrupted snapshot lines are.</p>
+     *
+     * @return An ArrayList containing all tasks after replaying the journal.
+     */
+    @Override
+    public ArrayList<Task> load() {
+        ArrayList<Task> tasks = super.load();
+        // Snapshot tasks saved without ids get the ones the task list gave them before the journal
+        TaskList.assignIds(tasks);
+        try {
+            long snapshotChecksum = Journal.checksum(Paths.get(filePath));
+            List<String> records = journal.readRecords(snapshotChecksum);
+            if (records.isEmpty()) {
+                journal.reset(snapshotChecksum);
+                recordCount = 0;
+                return tasks;
+            }
+            LinkedHashMap<Integer, Task> byId = new LinkedHashMap<>();
+            for (Task task : tasks) {
+                byId.put(task.getId(), task);
+            }
+            for (String record : records) {
+                try {
+                    replay(byId, record);
+                } catch (Exception e) {
+                    System.err.println("⚠ Skipping corrupted journal record: " + record);
+                }
+            }
+            tasks = new ArrayList<>(byId.values());
+            checkpoint(tasks);
+        } catch (IOException e) {
+            System.err.println("Error loading journal: " + e.getMessage());
+        }
+        return tasks;
+    }
+
+    /**
+     * Applies a single journal record to the tasks.
+     *
+     * @param tasks the tasks loaded so far, by id in list order
+     * @param record the record to apply
+     * @throws IllegalArgumentException if the record type is unknown or its task does not exist
+     */
+    private void replay(LinkedHashMap<Integer, Task> tasks, String record) {
+        String payload = record.substring(2);
+        switch (record.charAt(0)) {
+        case 'A':
+            Task task = parseLine(payload);
+            if (task == null) {
+                break;
+            }
+            if (task.getId() == Task.NO_ID) {
+                throw new IllegalArgumentException("Added task has no id");
+            }
+            if (tasks.putIfAbsent(task.getId(), task) != null) {
+                throw new IllegalArgumentException("Task " + task.getId() + " was already added");
+            }
+            break;
+        case 'M':
+            find(tasks, payload).markAsDone();
+            break;
+        case 'U':
+            find(tasks, payload).markAsNotDone();
+            break;
+        case 'D':
+            tasks.remove(find(tasks, payload).getId());
+            break;
+        default:
+            throw new IllegalArgumentException("Unknown journal record: " + record);
+        }
+    }
+
+    /**
+     * Finds the task a record refers to by its id.
+     */
+    private static Task find(LinkedHashMap<Integer, Task> tasks, String payload) {
+        if (!payload.startsWith(ID_PREFIX)) {
+            throw new IllegalArgumentException("Record does not refer to a task id: " + payload);
+        }
+        Task task = tasks.get(Integer.parseInt(payload.substring(ID_PREFIX.length())));
+        if (task == null) {
+            throw new IllegalArgumentException("No task " + payload);
+        }
+        return task;
+    }
+
+    @Override
+    public void persistAdd(TaskList tasks, Task task) {
+        append(tasks, List.of("A " + formatLine(task)));
+    }
+
+    @Override
+    public void persistMark(TaskList tasks, int index) {
+        append(tasks, List.of("M " + ID_PREFIX + tasks.get(index).getId()));
+    }
+
+    @Override
+    public void persistUnmark(TaskList tasks, int index) {
+        append(tasks, List.of("U " + ID_PREFIX + tasks.get(index).getId()));
+    }
+
+    @Override
+    public void persistDelete(TaskList tasks, int index) {
+        persistDeletes(tasks, List.of(index));
+    }
+
+    /**
+     * Appends a delete record for each removed task, keyed by its id. The removed tasks are
+     * the last ones the task list reports as deleted since its changes were last cleared.
+     *
+     * @param tasks The task list after the tasks were removed.
+     * @param indices The 0-based indices of the removed tasks, in the order they were removed.
+     */
+    @Override
+    public void persistDeletes(TaskList tasks, List<Integer> indices) {
+        List<Task> deleted = tasks.getDeletedTasks();
+        assert deleted.size() >= indices.size() : "Every removed task should be reported as deleted";
+        List<String> records = new ArrayList<>(indices.size());
+        for (Task task : deleted.subList(deleted.size() - indices.size(), deleted.size())) {
+            records.add("D " + ID_PREFIX + task.getId());
+        }
+        append(tasks, records);
+    }
+
+    /**
+     * Appends a batch of queued records to the journal in one write.
+     *
+     * @param batch the records queued since the last commit, oldest first
+     * @throws IOException if the journal cannot be written
+     */
+    @Override
+    protected void commitBatch(List<String> batch) throws IOException {
+        journal.append(batch, true);
+    }
+
+    /**
+     * Appends records to the journal, folding the journal into the snapshot
+     * once it holds as many records as there are tasks.
+     *
+     * <p>Records refer to tasks by id, and added tasks are recorded with their ids, so
+     * they keep them across a restart. Records for one operation are appended together,
+     * so a checkpoint never falls between them.</p>
+     *
+     * @param tasks the task list after the mutation
+     * @param records the records describing the mutation, in the order they happened
+     */
+    private void append(TaskList tasks, List<String> records) {
+        try {
+            GroupCommitWriter writer = getGroupCommitWriter();
+            if (writer == null) {
+                journal.append(records, durability != Durability.NONE);
+            } else {
+                records.forEach(writer::submit);
+            }
+            recordCount += records.size();
+            tasks.clearChanges();
+            if (recordCount >= Math.max(MIN_CHECKPOINT_RECORDS, tasks.size())) {
+                flush();
+                checkpoint(tasks.snapshot());
+            }
+        } catch (IOException e) {
+            System.err.println("Error saving tasks: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Writes a fresh snapshot and starts an empty journal against it.
+     *
+     * <p>The snapshot is written first. If the process stops before the journal
+     * is reset, the old journal no longer matches the snapshot checksum and is
+     * ignored on the next load, so no record is applied twice.</p>
+     *
+     * @param tasks the full list of tasks to snapshot
+     * @throws IOException if the snapshot or the journal cannot be written
+     */
+    private void checkpoint(List<Task> tasks) throws IOException {
+        writeFile(tasks);
+        journal.reset(Journal.checksum(Paths.get(filePath)));
+        recordCount = 0;
+    }
+}
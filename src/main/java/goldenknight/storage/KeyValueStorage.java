@@ -0,0 +1,368 @@
+package goldenknight.storage;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+import goldenknight.task.Task;
+import goldenknight.task.TaskList;
+
+/**
+ * A {@link StorageBackend} that keeps the tasks in a single-file, log-structured key-value store.
+ *
+ * <p>Every task is stored under its id as the key. Each mutation appends one checksummed
+ * record to the file: a put with the task's new value for adds, marks and unmarks, or a delete
+ * for removals. Loading replays the log, keeping the latest value of each key. Once superseded
+ * and deleted records outnumber the live tasks, the file is compacted into a fresh log with one
+ * put per task.</p>
+ *
+ * <p>The store is kept next to the task file with a {@code .kv} suffix. A record torn by a crash
+ * fails its checksum and is cut off on the next load. Values are stored in the
+ * {@link BinaryTaskCodec} task layout, so loading needs no date parsing. If there is no store yet,
+ * the text or binary task file is imported on the first load and left as it is. A store that
+ * cannot be read is moved aside with a {@code .corrupt} suffix, and an empty one is started in
+ * its place, so that later changes are still saved.</p>
+ */
+public class KeyValueStorage implements StorageBackend {
+
+    /** Minimum number of dead records kept before the log is compacted. */
+    private static final int MIN_COMPACTION_RECORDS = 1024;
+
+    private static final byte[] MAGIC = {(byte) 0x89, 'G', 'K', 'V'};
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = MAGIC.length + 1;
+    private static final byte PUT = 'P';
+    private static final byte DELETE = 'X';
+
+    /** Bytes before each record's body: its length and its checksum. */
+    private static final int RECORD_PREFIX = 8;
+
+    /** Bytes in each record's body before the value: its kind and its key. */
+    private static final int BODY_PREFIX = 9;
+
+    /** The task file, which the store is imported from. */
+    private final Path taskFile;
+    private final Path path;
+    private final Durability durability;
+    private int deadRecords;
+    private FileChannel channel;
+    private TaskArchive archive;
+
+    /**
+     * Constructs a KeyValueStorage for the given task file.
+     * The store is kept next to it with a {@code .kv} suffix, and records are not flushed to disk.
+     *
+     * @param filePath The path to the task file.
+     */
+    public KeyValueStorage(String filePath) {
+        this(filePath, Durability.NONE);
+    }
+
+    /**
+     * Constructs a KeyValueStorage for the given task file and durability level.
+     * Any level other than {@link Durability#NONE} flushes each record to disk.
+     *
+     * @param filePath The path to the task file. The store is kept next to it with a {@code .kv} suffix.
+     * @param durability How far each write goes to survive a crash.
+     */
+    public KeyValueStorage(String filePath, Durability durability) {
+        assert durability != null : "Durability should not be null";
+        this.taskFile = Path.of(filePath);
+        this.path = Path.of(filePath + ".kv");
+        this.durability = durability;
+    }
+
+    /**
+     * Loads the tasks by replaying the log, importing the task file if there is no store yet.
+     * A store that cannot be read is moved aside, and the tasks are saved to a new one from then on.
+     *
+     * @return The live tasks, in the order they were added.
+     */
+    @Override
+    public ArrayList<Task> load() {
+        close();
+        deadRecords = 0;
+        ArrayList<Task> tasks;
+        boolean canWrite = true;
+        try {
+            tasks = readOrImport();
+        } catch (IOException e) {
+            System.err.println("Error loading tasks: " + e.getMessage());
+            tasks = new ArrayList<>();
+            canWrite = setAside();
+        }
+        if (canWrite) {
+            try {
+                if (!Files.exists(path)) {
+                    compact(tasks);
+                }
+                channel = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            } catch (IOException e) {
+                System.err.println("Error opening task store: " + e.getMessage());
+            }
+        }
+        return tasks;
+    }
+
+    private ArrayList<Task> readOrImport() throws IOException {
+        if (Files.exists(path) && Files.size(path) > 0) {
+            return replay();
+        }
+        ArrayList<Task> tasks = Files.exists(taskFile) ? new Storage(taskFile.toString()).load() : new ArrayList<>();
+        TaskList.assignIds(tasks);
+        compact(tasks);
+        return tasks;
+    }
+
+    /**
+     * Moves an unreadable store out of the way, so that it is kept for recovery but not appended to.
+     *
+     * @return Whether a new store may be started at the path.
+     */
+    private boolean setAside() {
+        if (!Files.exists(path)) {
+            return true;
+        }
+        Path aside = Path.of(path + ".corrupt");
+        try {
+            Files.move(path, aside, StandardCopyOption.REPLACE_EXISTING);
+            System.err.println("⚠ Moved the unreadable task store to " + aside);
+            return true;
+        } catch (IOException e) {
+            System.err.println("Error moving the unreadable task store aside: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Replays the log into the live tasks, cutting off a damaged tail.
+     *
+     * @return The live tasks in the order their keys were first put.
+     * @throws IOException If the log cannot be read, is not a key-value store or is of an unsupported version.
+     */
+    private ArrayList<Task> replay() throws IOException {
+        Map<Long, Task> live = new LinkedHashMap<>();
+        int records = 0;
+        ByteBuffer buffer = Storage.readAll(path);
+        byte[] magic = new byte[MAGIC.length];
+        if (buffer.remaining() >= HEADER_SIZE) {
+            buffer.get(0, magic);
+        }
+        if (!Arrays.equals(magic, MAGIC)) {
+            throw new IOException("Not a key-value store: " + path);
+        }
+        int version = buffer.get(MAGIC.length) & 0xFF;
+        if (version != VERSION) {
+            throw new IOException("Unsupported key-value store version: " + version);
+        }
+        buffer.position(HEADER_SIZE);
+        byte[] scratch = new byte[256];
+        CRC32 crc = new CRC32();
+        while (buffer.remaining() >= RECORD_PREFIX) {
+            int start = buffer.position();
+            int length = buffer.getInt();
+            int checksum = buffer.getInt();
+            if (length < BODY_PREFIX || length > buffer.remaining()) {
+                buffer.position(start);
+                break;
+            }
+            ByteBuffer body = buffer.slice(buffer.position(), length);
+            crc.reset();
+            crc.update(body.duplicate());
+            if ((int) crc.getValue() != checksum) {
+                buffer.position(start);
+                break;
+            }
+            byte kind = body.get();
+            long key = body.getLong();
+            records++;
+            buffer.position(start + RECORD_PREFIX + length);
+            if (kind != PUT) {
+                live.remove(key);
+                continue;
+            }
+            try {
+                Task task = BinaryTaskCodec.decodeTask(body, scratch);
+                task.setId(Math.toIntExact(key));
+                live.put(key, task);
+            } catch (IOException e) {
+                System.err.println("⚠ Skipping corrupted record for task " + key + ": " + e.getMessage());
+            }
+        }
+        long validLength = buffer.position();
+        if (buffer.hasRemaining()) {
+            System.err.println("⚠ Skipping " + buffer.remaining() + " corrupted bytes at the end of " + path);
+        }
+        if (validLength < Files.size(path)) {
+            try (FileChannel out = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                out.truncate(validLength);
+            }
+        }
+
+        deadRecords = records - live.size();
+        ArrayList<Task> tasks = new ArrayList<>(live.values());
+        if (deadRecords >= Math.max(MIN_COMPACTION_RECORDS, tasks.size())) {
+            compact(tasks);
+        }
+        return tasks;
+    }
+
+    @Override
+    public void persistAdd(TaskList tasks, Task task) {
+        append(tasks, List.of(record(PUT, task.getId(), task)));
+    }
+
+    @Override
+    public void persistMark(TaskList tasks, int index) {
+        deadRecords++;
+        Task task = tasks.get(index);
+        append(tasks, List.of(record(PUT, task.getId(), task)));
+    }
+
+    @Override
+    public void persistUnmark(TaskList tasks, int index) {
+        deadRecords++;
+        Task task = tasks.get(index);
+        append(tasks, List.of(record(PUT, task.getId(), task)));
+    }
+
+    @Override
+    public void persistDelete(TaskList tasks, int index) {
+        persistDeletes(tasks, List.of(index));
+    }
+
+    /**
+     * Appends a delete record for each removed task, keyed by its id. The removed tasks are
+     * the last ones the task list reports as deleted since its changes were last cleared.
+     *
+     * @param tasks The task list after the tasks were removed.
+     * @param indices The 0-based indices of the removed tasks, in the order they were removed.
+     */
+    @Override
+    public void persistDeletes(TaskList tasks, List<Integer> indices) {
+        List<Task> deleted = tasks.getDeletedTasks();
+        assert deleted.size() >= indices.size() : "Every removed task should be reported as deleted";
+        List<byte[]> records = new ArrayList<>(indices.size());
+        for (Task task : deleted.subList(deleted.size() - indices.size(), deleted.size())) {
+            records.add(record(DELETE, task.getId(), null));
+            deadRecords += 2;
+        }
+        append(tasks, records);
+    }
+
+    /**
+     * Builds one record, prefixed with its length and checksum.
+     *
+     * @param kind {@link #PUT} or {@link #DELETE}.
+     * @param key The key of the task.
+     * @param task The new value of the task, or {@code null} for a delete.
+     * @return The encoded record.
+     */
+    private static byte[] record(byte kind, long key, Task task) {
+        byte[] value = task == null ? new byte[0] : BinaryTaskCodec.encodeTask(task);
+        ByteBuffer body = ByteBuffer.allocate(RECORD_PREFIX + BODY_PREFIX + value.length);
+        body.position(RECORD_PREFIX);
+        body.put(kind).putLong(key).put(value);
+        CRC32 crc = new CRC32();
+        crc.update(body.array(), RECORD_PREFIX, BODY_PREFIX + value.length);
+        body.putInt(0, BODY_PREFIX + value.length);
+        body.putInt(4, (int) crc.getValue());
+        return body.array();
+    }
+
+    /**
+     * Appends records in one write, compacting the log once most of it is dead.
+     *
+     * @param tasks The task list after the mutation.
+     * @param records The records describing the mutation.
+     */
+    private void append(TaskList tasks, List<byte[]> records) {
+        tasks.clearChanges();
+        try {
+            if (channel == null) {
+                throw new IOException("The key-value store is not open");
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            for (byte[] record : records) {
+                out.write(record);
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(out.toByteArray());
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            if (durability != Durability.NONE) {
+                channel.force(false);
+            }
+            if (deadRecords >= Math.max(MIN_COMPACTION_RECORDS, tasks.size())) {
+                channel.close();
+                compact(tasks.snapshot());
+                channel = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            }
+        } catch (IOException e) {
+            System.err.println("Error saving tasks: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Atomically replaces the log with one put per task, keyed by the task's id.
+     *
+     * @param tasks The live tasks, in list order, each with an id.
+     * @throws IOException If the log cannot be written.
+     */
+    private void compact(List<Task> tasks) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(MAGIC);
+        out.write(VERSION);
+        for (Task task : tasks) {
+            out.write(record(PUT, task.getId(), task));
+        }
+        Storage.replaceAtomically(path, out.toByteArray(),
+                durability == Durability.NONE ? Durability.NONE : Durability.DATA_AND_DIRECTORY);
+        deadRecords = 0;
+    }
+
+    /**
+     * Does nothing, since every record is written before its {@code persist} method returns.
+     */
+    @Override
+    public void flush() {
+    }
+
+    @Override
+    public void close() {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            System.err.println("Error closing task store: " + e.getMessage());
+        }
+        channel = null;
+    }
+
+    /**
+     * Returns the archive that completed tasks are moved to.
+     * It is kept next to the task file with an {@code .archive.gz} suffix, like the other backends' archives.
+     *
+     * @return The archive.
+     */
+    @Override
+    public TaskArchive getArchive() {
+        if (archive == null) {
+            archive = new TaskArchive(Path.of(taskFile + ".archive.gz"), Storage::parseTask);
+        }
+        return archive;
+    }
+}
@@ -1,14 +1,29 @@
 package goldenknight.storage;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Scanner;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicReference;
 
 import goldenknight.task.Deadline;
 import goldenknight.task.Event;
 import goldenknight.task.Task;
+import goldenknight.task.TaskList;
 import goldenknight.task.Todo;
 
 /**
@@ -18,28 +33,74 @@ import goldenknight.task.Todo;
  * and writing tasks from a list back to the file. It ensures that the file
  * exists and creates it if necessary.</p>
  */
-public class Storage {
+public class Storage implements StorageBackend {
+
+    /** Smallest task file, in bytes, that is parsed in parallel by default. */
+    public static final long DEFAULT_PARALLEL_LOAD_THRESHOLD = 4L << 20;
+
+    /** Charset task files are written and read in, whatever the platform charset is. */
+    static final Charset CHARSET = StandardCharsets.UTF_8;
+
+    /** Marks the field holding a task's id at the end of a line. */
+    static final String ID_PREFIX = "#";
+
+    /** Entry queued on the background writer for each save of the whole list. */
+    private static final String SAVE_ENTRY = "save";
 
     /** Path to the file used for storing tasks. */
-    private final String filePath;
+    protected final String filePath;
+
+    /** How far each save goes to survive a crash. */
+    protected final Durability durability;
+
+    /** Background writer used when group commit is enabled, otherwise {@code null}. */
+    private GroupCommitWriter writer;
+
+    /** The newest snapshot queued for the background writer and not yet taken by it, or {@code null}. */
+    private final AtomicReference<List<Task>> pendingSnapshot = new AtomicReference<>();
+
+    /** Pool that large task files are parsed on, or {@code null} to always load sequentially. */
+    private ForkJoinPool loadPool = ForkJoinPool.commonPool();
+    private long parallelLoadThreshold = DEFAULT_PARALLEL_LOAD_THRESHOLD;
+
+    /** Layout the task file is written in. Loading accepts either layout. */
+    private StorageFormat format = StorageFormat.TEXT;
+
+    /** Archive of completed tasks, created when first used. */
+    private TaskArchive archive;
 
     /**
      * Constructs a Storage object with the specified file path.
+     * Saves are atomic but not flushed to disk.
      *
      * @param filePath The path to the file where tasks are stored.
      */
     public Storage(String filePath) {
+        this(filePath, Durability.NONE);
+    }
+
+    /**
+     * Constructs a Storage object with the specified file path and durability level.
+     *
+     * @param filePath The path to the file where tasks are stored.
+     * @param durability How far each save goes to survive a crash.
+     */
+    public Storage(String filePath, Durability durability) {
+        assert durability != null : "Durability should not be null";
         this.filePath = filePath;
+        this.durability = durability;
     }
 
     /**
      * Loads tasks from the file into an ArrayList.
      *
      * <p>If the file does not exist, it will be created. Corrupted lines
-     * or unknown task types are skipped with a warning message.</p>
+     * or unknown task types are skipped with a warning message. A file in the
+     * {@link StorageFormat#BINARY} format is recognised by its header.</p>
      *
      * @return An ArrayList containing all valid tasks loaded from the file.
      */
+    @Override
     public ArrayList<Task> load() {
         ArrayList<Task> tasks = new ArrayList<>();
         File file = new File(this.filePath);
@@ -58,8 +119,110 @@ public class Storage {
             return tasks;
         }
 
-        // Read and parse tasks from file
-        try (Scanner sc = new Scanner(file)) {
+        try {
+            if (BinaryTaskCodec.isBinary(file.toPath())) {
+                return loadBinary(file.toPath());
+            }
+        } catch (IOException e) {
+            System.err.println("Error loading tasks: " + e.getMessage());
+            return tasks;
+        }
+
+        try {
+            TaskFileReader reader = new TaskFileReader(this::parseFields);
+            tasks = reader.read(file.toPath(), loadPool, parallelLoadThreshold);
+            reader.getWarnings().forEach(System.err::println);
+            return tasks;
+        } catch (CharacterCodingException e) {
+            // Not UTF-8, so written in the platform charset before task files had a fixed one
+            return loadWithScanner(file);
+        } catch (IOException e) {
+            System.err.println("Error loading tasks: " + e.getMessage());
+            return tasks;
+        }
+    }
+
+    /**
+     * Loads tasks from a file in the binary format. If the file is damaged, the tasks
+     * stored before the damage are kept and the rest are skipped with a warning.
+     *
+     * @param path the task file, which must be in the binary format
+     * @return the tasks read from the file
+     */
+    private ArrayList<Task> loadBinary(Path path) {
+        ArrayList<Task> tasks = new ArrayList<>();
+        try {
+            BinaryTaskCodec.decode(readAll(path), tasks);
+        } catch (IOException e) {
+            System.err.println("⚠ Skipping the rest of the task file: " + e.getMessage());
+        }
+        return tasks;
+    }
+
+    /**
+     * Sets the layout the task file is written in from now on.
+     *
+     * @param format The layout to write.
+     */
+    public void setFormat(StorageFormat format) {
+        assert format != null : "Storage format should not be null";
+        this.format = format;
+    }
+
+    /**
+     * Returns the layout the task file is written in.
+     *
+     * @return The current format.
+     */
+    protected StorageFormat getFormat() {
+        return format;
+    }
+
+    /**
+     * Copies the tasks in one task file into another in the given format.
+     * The source may be in either format, so this converts in both directions.
+     *
+     * @param sourcePath The task file to read.
+     * @param targetPath The task file to write, which is replaced if it exists.
+     * @param format The layout to write the target in.
+     * @throws IOException If the source does not exist or the target cannot be written.
+     */
+    public static void convert(String sourcePath, String targetPath, StorageFormat format) throws IOException {
+        if (!new File(sourcePath).isFile()) {
+            throw new IOException("No task file at " + sourcePath);
+        }
+        ArrayList<Task> tasks = new Storage(sourcePath).load();
+        Storage target = new Storage(targetPath, Durability.DATA);
+        target.setFormat(format);
+        target.writeFile(tasks);
+    }
+
+    /**
+     * Sets how large task files are loaded. Files of at least {@code thresholdBytes} are split
+     * into newline-aligned chunks that are parsed on the given pool; smaller files are parsed
+     * sequentially. Either way the tasks are returned in file order.
+     *
+     * @param pool The pool to parse chunks on, or {@code null} to always load sequentially.
+     * @param thresholdBytes The smallest file size that is loaded in parallel.
+     */
+    public void setParallelLoad(ForkJoinPool pool, long thresholdBytes) {
+        this.loadPool = pool;
+        this.parallelLoadThreshold = thresholdBytes;
+    }
+
+    /**
+     * Loads tasks line by line with a {@link Scanner}.
+     *
+     * <p>This is the reference behaviour that {@link TaskFileReader} reproduces.
+     * It is used for files that are not valid {@link #CHARSET}, which it reads in the
+     * platform charset that task files used to be written in.</p>
+     *
+     * @param file the task file, which must exist
+     * @return the valid tasks read from the file
+     */
+    private ArrayList<Task> loadWithScanner(File file) {
+        ArrayList<Task> tasks = new ArrayList<>();
+        try (Scanner sc = new Scanner(file, Charset.defaultCharset())) {
             while (sc.hasNextLine()) {
                 String line = sc.nextLine().trim();
                 if (line.isEmpty()) {
@@ -87,25 +250,135 @@ public class Storage {
      * @param line the line to parse
      * @return a Task object, or null if the type is unknown
      */
-    private Task parseLine(String line) {
-        String[] parts = line.split(" \\| ");
+    Task parseLine(String line) {
+        String[] parts = TaskFileReader.split(line);
+        Task task = parseFields(parts);
+        if (task == null) {
+            System.err.println("⚠ Unknown task type: " + parts[0]);
+        }
+        return task;
+    }
+
+    /**
+     * Creates a Task object from the fields of a line in the task file.
+     *
+     * @param parts the fields of the line, split at each {@code " | "}
+     * @return a Task object, or null if the type is unknown
+     */
+    Task parseFields(String[] parts) {
+        return parseTask(parts);
+    }
+
+    /**
+     * Creates a Task object from the fields of a line in file format.
+     *
+     * <p>A task's id is always written as the last field, in the form {@code #<id>}, so only
+     * the last field is read as an id, and only if it comes after all of the task's own fields.
+     * A todo's description is everything between its done flag and its id, so a description
+     * containing {@code " | "} is read back whole.</p>
+     *
+     * @param parts the fields of the line, split at each {@code " | "}
+     * @return a Task object, or null if the type is unknown
+     * @throws NumberFormatException if the id field is a number out of the range of ids
+     */
+    static Task parseTask(String[] parts) {
+        int minFields;
         switch (parts[0]) {
         case "T":
-            Todo t = new Todo(parts[2]);
-            if ("1".equals(parts[1])) {
-                t.markAsDone();
-            }
-            return t;
+            minFields = 3;
+            break;
         case "D":
-            return Deadline.fromFileFormat(parts);
+            minFields = 4;
+            break;
         case "E":
-            return Event.fromFileFormat(parts);
+            minFields = 5;
+            break;
         default:
-            System.err.println("⚠ Unknown task type: " + parts[0]);
             return null;
         }
+        int fields = parts.length;
+        int id = Task.NO_ID;
+        if (fields > minFields && isIdField(parts[fields - 1])) {
+            id = Integer.parseInt(parts[fields - 1].substring(ID_PREFIX.length()));
+            fields--;
+        }
+
+        Task task;
+        switch (parts[0]) {
+        case "T":
+            if (fields < minFields) {
+                throw new IllegalArgumentException("Invalid file format for Todo task");
+            }
+            task = new Todo(String.join(" | ", Arrays.asList(parts).subList(2, fields)));
+            if ("1".equals(parts[1])) {
+                task.markAsDone();
+            }
+            break;
+        case "D":
+            task = Deadline.fromFileFormat(parts);
+            break;
+        default:
+            task = Event.fromFileFormat(parts);
+            break;
+        }
+        if (id != Task.NO_ID) {
+            task.setId(id);
+        }
+        return task;
+    }
+
+    /**
+     * Returns whether a field has the form of an id: {@value #ID_PREFIX} followed by decimal digits.
+     */
+    private static boolean isIdField(String field) {
+        if (field.length() <= ID_PREFIX.length() || !field.startsWith(ID_PREFIX)) {
+            return false;
+        }
+        for (int i = ID_PREFIX.length(); i < field.length(); i++) {
+            char c = field.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
     }
 
+    /**
+     * Returns the line a task is stored as: its file format, followed by its id if it has one.
+     *
+     * @param task the task
+     * @return the line, without a line separator
+     */
+    static String formatLine(Task task) {
+        String line = task.toFileFormat();
+        return task.getId() == Task.NO_ID ? line : line + " | " + ID_PREFIX + task.getId();
+    }
+
+    /**
+     * Writes the line a task is stored as, like {@link #formatLine(Task)}, as UTF-8 bytes without
+     * building it as a string first.
+     *
+     * @param out the stream to write to
+     * @param task the task
+     */
+    static void writeLine(ByteArrayOutputStream out, Task task) {
+        task.writeFileFormat(out);
+        if (task.getId() != Task.NO_ID) {
+            out.writeBytes((" | " + ID_PREFIX + task.getId()).getBytes(CHARSET));
+        }
+    }
+
+    /**
+     * Returns the UTF-8 bytes of the line a task is stored as, without a line separator.
+     *
+     * @param task the task
+     * @return the bytes of {@link #formatLine(Task)}
+     */
+    static byte[] encodeLine(Task task) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writeLine(out, task);
+        return out.toByteArray();
+    }
 
     /**
      * Saves the given list of tasks to the file.
@@ -115,18 +388,321 @@ public class Storage {
      *
      * @param tasks The list of tasks to be saved.
      */
-    public void save(ArrayList<Task> tasks) {
-        File file = new File(this.filePath);
-        if (file.getParentFile() != null) {
-            file.getParentFile().mkdirs();
+    public void save(List<Task> tasks) {
+        try {
+            flush();
+            writeFile(tasks);
+        } catch (IOException e) {
+            System.err.println("Error saving tasks: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Writes the given tasks to the file, replacing its contents.
+     *
+     * @param tasks The list of tasks to be written.
+     * @throws IOException If the file cannot be written.
+     */
+    protected void writeFile(List<Task> tasks) throws IOException {
+        writeBytes(encode(tasks), durability);
+    }
+
+    /**
+     * Encodes the given tasks in the current format.
+     *
+     * @param tasks The tasks to encode.
+     * @return The contents of the task file.
+     */
+    private byte[] encode(List<Task> tasks) {
+        return format == StorageFormat.BINARY ? BinaryTaskCodec.encode(tasks) : render(tasks);
+    }
+
+    /**
+     * Renders the given tasks in file format, one task per line.
+     *
+     * @param tasks The tasks to render.
+     * @return The contents of the task file.
+     */
+    private byte[] render(List<Task> tasks) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] separator = System.lineSeparator().getBytes(CHARSET);
+        for (Task t : tasks) {
+            writeLine(out, t);
+            out.writeBytes(separator);
         }
+        return out.toByteArray();
+    }
+
+    /**
+     * Atomically replaces the contents of the task file with the given bytes.
+     *
+     * <p>The bytes are written to a temporary file in the same directory, which is then
+     * renamed over the task file. Depending on the durability level, the temporary file
+     * and the directory are flushed to disk along the way. A crash at any point leaves
+     * either the old or the new file, never a truncated one.</p>
+     *
+     * @param content The bytes to write.
+     * @param level How far to go to make the write survive a crash.
+     * @throws IOException If the file cannot be written.
+     */
+    protected void writeBytes(byte[] content, Durability level) throws IOException {
+        replaceAtomically(Path.of(this.filePath), content, level);
+    }
 
-        try (FileWriter fw = new FileWriter(file)) {
-            for (Task t : tasks) {
-                fw.write(t.toFileFormat() + System.lineSeparator());
+    /**
+     * Reads a whole file into a buffer on the heap through its channel.
+     *
+     * <p>Files are read rather than memory-mapped. A mapping stays open until the garbage collector
+     * frees the buffer, and on Windows an open mapping stops a save from renaming over the file.</p>
+     *
+     * @param file The file to read.
+     * @return The contents of the file, from position 0 to the limit.
+     * @throws IOException If the file cannot be read or is larger than 2 GB.
+     */
+    static ByteBuffer readAll(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("File is too large to read: " + size + " bytes");
             }
+            ByteBuffer buffer = ByteBuffer.allocate((int) size);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer) < 0) {
+                    break;
+                }
+            }
+            buffer.flip();
+            return buffer;
+        }
+    }
+
+    /**
+     * Atomically replaces the contents of a file with the given bytes, as described
+     * for {@link #writeBytes(byte[], Durability)}.
+     *
+     * @param file The file to replace.
+     * @param content The bytes to write.
+     * @param level How far to go to make the write survive a crash.
+     * @throws IOException If the file cannot be written.
+     */
+    static void replaceAtomically(Path file, byte[] content, Durability level) throws IOException {
+        Path target = file.toAbsolutePath();
+        Path directory = target.getParent();
+        Files.createDirectories(directory);
+        Path temp = directory.resolve(target.getFileName() + ".tmp");
+
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.wrap(content);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            if (level != Durability.NONE) {
+                channel.force(true);
+            }
+        }
+
+        moveAtomically(temp, target);
+
+        if (level == Durability.DATA_AND_DIRECTORY) {
+            forceDirectory(directory);
+        }
+    }
+
+    /**
+     * Renames a file over another, atomically if the file system allows it.
+     *
+     * @param source The file to rename.
+     * @param target The file to replace.
+     * @throws IOException If the file cannot be renamed.
+     */
+    static void moveAtomically(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Flushes a directory entry to disk so that a preceding rename survives a power loss.
+     *
+     * <p>Some platforms, such as Windows, cannot open a directory as a channel. The rename
+     * is still atomic there, so the failure is ignored.</p>
+     *
+     * @param directory The directory to flush.
+     */
+    static void forceDirectory(Path directory) {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // Directory flushing is not supported on this platform
+        }
+    }
+
+    /**
+     * Moves all further writes onto a background thread that merges bursts of
+     * mutations into a single commit.
+     *
+     * <p>Mutations reported through the {@code persist} methods return as soon as
+     * they are queued. Use {@link #flush()} or {@link #close()} to wait until they
+     * are on disk.</p>
+     *
+     * @param flushIntervalMillis How long the writer waits for more mutations before committing.
+     * @param maxBatchSize The maximum number of mutations merged into one commit.
+     */
+    public void enableGroupCommit(long flushIntervalMillis, int maxBatchSize) {
+        assert writer == null : "Group commit should only be enabled once";
+        writer = new GroupCommitWriter(this::commitBatch, flushIntervalMillis, maxBatchSize);
+    }
+
+    /**
+     * Returns the background writer, which also exposes the queue and latency metrics.
+     *
+     * @return The writer, or {@code null} if group commit is not enabled.
+     */
+    public GroupCommitWriter getGroupCommitWriter() {
+        return writer;
+    }
+
+    /**
+     * Blocks until every queued mutation has been durably written, reporting any that
+     * could not be. Does nothing if group commit is not enabled.
+     */
+    @Override
+    public void flush() {
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.flush();
         } catch (IOException e) {
             System.err.println("Error saving tasks: " + e.getMessage());
         }
     }
+
+    /**
+     * Writes every queued mutation and stops the background writer, reporting any
+     * mutation that could not be written. Does nothing if group commit is not enabled.
+     */
+    @Override
+    public void close() {
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.close();
+        } catch (IOException e) {
+            System.err.println("Error saving tasks: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Writes a batch of queued entries on the background writer thread.
+     *
+     * <p>Each entry only asks for the whole list to be saved, so the newest
+     * snapshot is encoded and written once for the batch. If an earlier batch
+     * already took that snapshot, there is nothing left to write. A task marked
+     * while its snapshot is being encoded queues another entry, so a later batch
+     * saves it again. Batches are always flushed to disk, since {@link #flush()}
+     * promises that queued mutations are durable.</p>
+     *
+     * @param batch The entries queued since the last commit, oldest first.
+     * @throws IOException If the file cannot be written.
+     */
+    protected void commitBatch(List<String> batch) throws IOException {
+        List<Task> snapshot = pendingSnapshot.getAndSet(null);
+        if (snapshot != null) {
+            writeBytes(encode(snapshot), durability == Durability.NONE ? Durability.DATA : durability);
+        }
+    }
+
+    /**
+     * Saves the whole task list, either directly or through the background writer.
+     * With the writer, only the O(1) snapshot of the list is taken on the calling thread,
+     * and the file is encoded on the writer thread.
+     *
+     * @param tasks The task list to save.
+     */
+    protected void persistAll(TaskList tasks) {
+        if (writer == null) {
+            save(tasks.snapshot());
+        } else {
+            pendingSnapshot.set(tasks.snapshot());
+            writer.submit(SAVE_ENTRY);
+        }
+        tasks.clearChanges();
+    }
+
+    /**
+     * Persists that the tasks at the given indices were deleted.
+     *
+     * @param tasks The task list after the tasks were removed.
+     * @param indices The 0-based indices of the removed tasks, in the order they were removed.
+     */
+    @Override
+    public void persistDeletes(TaskList tasks, List<Integer> indices) {
+        persistAll(tasks);
+    }
+
+    /**
+     * Returns the archive that completed tasks are moved to.
+     * It is kept next to the task file with an {@code .archive.gz} suffix.
+     *
+     * @return The archive.
+     */
+    @Override
+    public TaskArchive getArchive() {
+        if (archive == null) {
+            archive = new TaskArchive(Path.of(filePath + ".archive.gz"), Storage::parseTask);
+        }
+        return archive;
+    }
+
+    /**
+     * Persists the task that was just appended to the given list.
+     *
+     * <p>The plain file storage has no cheaper option than rewriting the whole file,
+     * subclasses such as {@link JournaledStorage} record only the change.</p>
+     *
+     * @param tasks The task list after the task was added.
+     * @param task The task that was added.
+     */
+    @Override
+    public void persistAdd(TaskList tasks, Task task) {
+        persistAll(tasks);
+    }
+
+    /**
+     * Persists that the task at the given index was marked as done.
+     *
+     * @param tasks The task list after the task was marked.
+     * @param index The 0-based index of the marked task.
+     */
+    @Override
+    public void persistMark(TaskList tasks, int index) {
+        persistAll(tasks);
+    }
+
+    /**
+     * Persists that the task at the given index was marked as not done.
+     *
+     * @param tasks The task list after the task was unmarked.
+     * @param index The 0-based index of the unmarked task.
+     */
+    @Override
+    public void persistUnmark(TaskList tasks, int index) {
+        persistAll(tasks);
+    }
+
+    /**
+     * Persists that the task at the given index was deleted.
+     *
+     * @param tasks The task list after the task was removed.
+     * @param index The 0-based index the task had before it was removed.
+     */
+    @Override
+    public void persistDelete(TaskList tasks, int index) {
+        persistAll(tasks);
+    }
 }
@@ -0,0 +1,118 @@
+package goldenknight.storage;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import goldenknight.task.Task;
+import goldenknight.task.TaskList;
+
+/**
+ * Persists the task list of the GoldenKnight application.
+ *
+ * <p>The application loads the tasks once and then reports every mutation through the
+ * {@code persist} methods, right after applying it to the {@link TaskList}. Each backend
+ * decides how much to write for a mutation, from rewriting a whole file to appending a
+ * single record. {@link StorageBackendType} creates a backend by name.</p>
+ */
+public interface StorageBackend {
+
+    /**
+     * Loads all stored tasks, creating an empty store if there is none yet.
+     *
+     * @return The tasks in list order.
+     */
+    ArrayList<Task> load();
+
+    /**
+     * Persists the task that was just appended to the given list.
+     *
+     * @param tasks The task list after the task was added.
+     * @param task The task that was added.
+     */
+    void persistAdd(TaskList tasks, Task task);
+
+    /**
+     * Persists that the task at the given index was marked as done.
+     *
+     * @param tasks The task list after the task was marked.
+     * @param index The 0-based index of the marked task.
+     */
+    void persistMark(TaskList tasks, int index);
+
+    /**
+     * Persists that the task at the given index was marked as not done.
+     *
+     * @param tasks The task list after the task was unmarked.
+     * @param index The 0-based index of the unmarked task.
+     */
+    void persistUnmark(TaskList tasks, int index);
+
+    /**
+     * Persists that the task at the given index was deleted.
+     *
+     * @param tasks The task list after the task was removed.
+     * @param index The 0-based index the task had before it was removed.
+     */
+    void persistDelete(TaskList tasks, int index);
+
+    /**
+     * Persists that the tasks at the given indices were deleted.
+     *
+     * @param tasks The task list after the tasks were removed.
+     * @param indices The 0-based indices of the removed tasks, in the order they were removed.
+     */
+    void persistDeletes(TaskList tasks, List<Integer> indices);
+
+    /**
+     * Blocks until every persisted mutation has been written.
+     */
+    void flush();
+
+    /**
+     * Writes every pending mutation and releases the backend's resources.
+     */
+    void close();
+
+    /**
+     * Returns the archive that completed tasks are moved to.
+     *
+     * @return The archive.
+     */
+    TaskArchive getArchive();
+
+    /**
+     * Moves every task that {@link TaskArchive#isArchivable} accepts from the list into the archive.
+     * To-dos have no date, so they are never archived.
+     *
+     * <p>The archive is written and flushed before the tasks are deleted from the store,
+     * so a crash in between can leave a task in both, but never in neither.</p>
+     *
+     * @param tasks The task list to archive from.
+     * @param cutoff The time before which finished deadlines and events are archived.
+     * @return The number of tasks archived.
+     * @throws IOException If the archive cannot be written, in which case no task is removed.
+     */
+    default int archiveDone(TaskList tasks, LocalDateTime cutoff) throws IOException {
+        List<Task> archived = new ArrayList<>();
+        List<Integer> indices = new ArrayList<>();
+        for (int i = tasks.size() - 1; i >= 0; i--) {
+            if (TaskArchive.isArchivable(tasks.get(i), cutoff)) {
+                archived.add(tasks.get(i));
+                indices.add(i);
+            }
+        }
+        if (archived.isEmpty()) {
+            return 0;
+        }
+        Collections.reverse(archived);
+        getArchive().append(archived, true);
+        for (int index : indices) {
+            tasks.delete(index);
+        }
+        persistDeletes(tasks, indices);
+        return archived.size();
+    }
+}
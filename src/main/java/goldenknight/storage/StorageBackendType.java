@@ -0,0 +1,53 @@
+package goldenknight.storage;
+
+/**
+ * Represents the {@link StorageBackend} implementations that can be selected by name.
+ */
+public enum StorageBackendType {
+    /** The text task file, rewritten in full on every mutation. See {@link Storage}. */
+    FILE,
+
+    /** The text task file, with only changed lines written. See {@link IncrementalStorage}. */
+    INCREMENTAL,
+
+    /** A task file snapshot plus an append-only journal. See {@link JournaledStorage}. */
+    JOURNAL,
+
+    /** A single-file, log-structured key-value store. See {@link KeyValueStorage}. */
+    KEY_VALUE;
+
+    /**
+     * Returns the {@code StorageBackendType} with the given name, ignoring case.
+     * Dashes may be used in place of underscores, as in {@code key-value}.
+     *
+     * @param name the name of the backend, e.g. "journal"
+     * @return the matching {@code StorageBackendType}
+     * @throws IllegalArgumentException if no backend has the given name
+     */
+    public static StorageBackendType fromName(String name) {
+        if (name == null) {
+            throw new IllegalArgumentException("Storage backend cannot be null");
+        }
+        return valueOf(name.trim().toUpperCase().replace('-', '_'));
+    }
+
+    /**
+     * Creates a backend of this type for the given file.
+     *
+     * @param filePath the path to the file where tasks are stored
+     * @param durability how far each write goes to survive a crash
+     * @return the new backend, which has not loaded anything yet
+     */
+    public StorageBackend create(String filePath, Durability durability) {
+        switch (this) {
+        case INCREMENTAL:
+            return new IncrementalStorage(filePath, durability, IncrementalStorage.DEFAULT_COMPACTION_THRESHOLD);
+        case JOURNAL:
+            return new JournaledStorage(filePath, durability);
+        case KEY_VALUE:
+            return new KeyValueStorage(filePath, durability);
+        default:
+            return new Storage(filePath, durability);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package goldenknight.storage;
+
+/**
+ * Represents the layout {@link Storage} writes the task file in.
+ *
+ * <p>Loading detects the layout from the file itself, so switching the format
+ * converts an existing file the next time it is saved.</p>
+ */
+public enum StorageFormat {
+    /**
+     * One {@code " | "} separated line per task, as produced by {@link goldenknight.task.Task#toFileFormat()},
+     * followed by a {@code #<id>} field once the task has an id.
+     */
+    TEXT,
+
+    /** The compact layout of {@link BinaryTaskCodec}, with dates stored as numbers instead of text. */
+    BINARY;
+
+    /**
+     * Returns the {@code StorageFormat} with the given name, ignoring case.
+     *
+     * @param name the name of the format, e.g. "binary"
+     * @return the matching {@code StorageFormat}
+     * @throws IllegalArgumentException if no format has the given name
+     */
+    public static StorageFormat fromName(String name) {
+        if (name == null) {
+            throw new IllegalArgumentException("Storage format cannot be null");
+        }
+        return valueOf(name.trim().toUpperCase());
+    }
+}
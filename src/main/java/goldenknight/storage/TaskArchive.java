@@ -0,0 +1,145 @@
+package goldenknight.storage;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import goldenknight.task.Deadline;
+import goldenknight.task.Event;
+import goldenknight.task.Task;
+
+/**
+ * A compressed file of completed tasks that have been moved out of the task file.
+ *
+ * <p>The archive is never loaded at startup. Each batch of archived tasks is added as its
+ * own gzip member holding the tasks in file format. Searching streams through the members
+ * one line at a time.</p>
+ *
+ * <p>A batch is appended to a copy of the archive, which then replaces it, so a crash while
+ * archiving leaves the old archive rather than one ending in a truncated member.</p>
+ */
+public class TaskArchive {
+
+    private final Path path;
+    private final Function<String[], Task> parser;
+
+    /**
+     * Constructs a TaskArchive stored at the given path.
+     *
+     * @param path The archive file.
+     * @param parser Turns the fields of one line into a task, as for the task file.
+     */
+    TaskArchive(Path path, Function<String[], Task> parser) {
+        this.path = path;
+        this.parser = parser;
+    }
+
+    /**
+     * Returns whether a task is done and old enough to be archived. Deadlines and events
+     * are old once their date is before the cutoff. To-dos have no date to tell their age
+     * by, so they are never archived and stay in the list until deleted.
+     *
+     * @param task The task to check.
+     * @param cutoff The time before which finished deadlines and events are archived.
+     * @return Whether the task should be archived.
+     */
+    public static boolean isArchivable(Task task, LocalDateTime cutoff) {
+        if (!task.isDone()) {
+            return false;
+        }
+        if (task instanceof Deadline) {
+            return ((Deadline) task).getByDateTime().isBefore(cutoff);
+        }
+        if (task instanceof Event) {
+            return ((Event) task).getToDateTime().isBefore(cutoff);
+        }
+        return false;
+    }
+
+    /**
+     * Appends the given tasks to the archive as one new compressed member.
+     *
+     * <p>The member is written to a copy of the archive, which is then renamed over it.</p>
+     *
+     * @param tasks The tasks to archive.
+     * @param isForced Whether to flush the archive to disk before returning.
+     * @throws IOException If the archive cannot be written, in which case it is left as it was.
+     */
+    void append(List<Task> tasks, boolean isForced) throws IOException {
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        if (Files.exists(path)) {
+            Files.copy(path, temp, StandardCopyOption.REPLACE_EXISTING);
+        } else {
+            Files.deleteIfExists(temp);
+        }
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            GZIPOutputStream gzip = new GZIPOutputStream(Channels.newOutputStream(channel), 1 << 16);
+            Writer writer = new OutputStreamWriter(gzip, StandardCharsets.UTF_8);
+            for (Task task : tasks) {
+                writer.write(Storage.formatLine(task));
+                writer.write('\n');
+            }
+            writer.flush();
+            gzip.finish();
+            if (isForced) {
+                channel.force(false);
+            }
+        }
+        Storage.moveAtomically(temp, path);
+    }
+
+    /**
+     * Finds the archived tasks whose description contains the given keyword.
+     *
+     * <p>A damaged archive, such as one cut short, still yields the tasks before the damage.</p>
+     *
+     * @param keyword The keyword to search for.
+     * @return The matching tasks, oldest archived first.
+     * @throws IOException If the archive cannot be opened.
+     */
+    public ArrayList<Task> find(String keyword) throws IOException {
+        ArrayList<Task> results = new ArrayList<>();
+        if (!Files.exists(path)) {
+            return results;
+        }
+        InputStream in = Files.newInputStream(path);
+        try (in) {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(
+                    new GZIPInputStream(in, 1 << 16), StandardCharsets.UTF_8));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.contains(keyword)) {
+                    continue;
+                }
+                try {
+                    Task task = parser.apply(TaskFileReader.split(line.trim()));
+                    if (task != null && task.getDescription().contains(keyword)) {
+                        results.add(task);
+                    }
+                } catch (Exception e) {
+                    System.err.println("⚠ Skipping corrupted archive line: " + line);
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("⚠ Skipping the rest of the damaged archive " + path + ": " + e.getMessage());
+        }
+        return results;
+    }
+}
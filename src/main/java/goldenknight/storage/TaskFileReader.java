@@ -0,0 +1,318 @@
+package goldenknight.storage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Function;
+
+import goldenknight.task.Task;
+
+/**
+ * Reads a task file from a buffer filled through its {@link java.nio.channels.FileChannel}.
+ *
+ * <p>Lines and {@code " | "} delimiters are found by scanning the raw bytes, and fields
+ * are decoded straight from them, without a {@link java.util.Scanner} or a regular
+ * expression. The result, including which lines are skipped as corrupted, matches
+ * the line-by-line loader in {@link Storage}. Files that are not valid {@link Storage#CHARSET}
+ * are rejected with a {@link CharacterCodingException} so the caller can fall back to that loader.</p>
+ */
+class TaskFileReader {
+
+    private static final String DELIMITER = " | ";
+    private static final byte SPACE = ' ';
+    private static final byte BAR = '|';
+
+    /** Number of chunks per pool thread, so that uneven chunks still keep every thread busy. */
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    private final Function<String[], Task> parser;
+    private final CharsetDecoder decoder;
+    private final List<String> warnings = new ArrayList<>();
+    private byte[] line = new byte[256];
+
+    /**
+     * Constructs a TaskFileReader that turns the fields of each line into a task.
+     *
+     * @param parser Turns the fields of one line into a task, returning {@code null}
+     *               for an unknown task type and throwing for a corrupted line.
+     */
+    TaskFileReader(Function<String[], Task> parser) {
+        this.parser = parser;
+        this.decoder = Storage.CHARSET.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPORT)
+                .onUnmappableCharacter(CodingErrorAction.REPORT);
+    }
+
+    /**
+     * Reads all tasks from the given file.
+     *
+     * @param path The task file.
+     * @return The tasks in file order.
+     * @throws CharacterCodingException If the file is not valid UTF-8.
+     * @throws IOException If the file cannot be read.
+     */
+    ArrayList<Task> read(Path path) throws IOException {
+        return read(path, null, Long.MAX_VALUE);
+    }
+
+    /**
+     * Reads all tasks from the given file, parsing newline-aligned chunks of it in parallel
+     * if the file is at least {@code thresholdBytes} long.
+     *
+     * <p>Each chunk is parsed by its own reader on the pool, and the results are joined in
+     * file order, so the positions of the tasks are the same as in a sequential read.</p>
+     *
+     * @param path The task file.
+     * @param pool The pool to parse chunks on, or {@code null} to always read sequentially.
+     * @param thresholdBytes The smallest file size that is read in parallel.
+     * @return The tasks in file order.
+     * @throws CharacterCodingException If the file is not valid UTF-8.
+     * @throws IOException If the file cannot be read.
+     */
+    ArrayList<Task> read(Path path, ForkJoinPool pool, long thresholdBytes) throws IOException {
+        ByteBuffer buffer = Storage.readAll(path);
+        int size = buffer.limit();
+        if (size == 0) {
+            return new ArrayList<>();
+        }
+        checkDecodable(buffer);
+        if (pool == null || pool.getParallelism() < 2 || size < thresholdBytes) {
+            ArrayList<Task> tasks = new ArrayList<>();
+            readRange(buffer, 0, size, tasks);
+            return tasks;
+        }
+        return readChunks(buffer, size, pool);
+    }
+
+    private ArrayList<Task> readChunks(ByteBuffer buffer, int size, ForkJoinPool pool) {
+        int chunkCount = pool.getParallelism() * CHUNKS_PER_THREAD;
+        int chunkSize = Math.max(1, size / chunkCount);
+        List<TaskFileReader> readers = new ArrayList<>();
+        List<ArrayList<Task>> results = new ArrayList<>();
+        List<ForkJoinTask<?>> jobs = new ArrayList<>();
+
+        int start = 0;
+        while (start < size) {
+            int end = nextLineStart(buffer, Math.min(size, start + chunkSize), size);
+            int from = start;
+            TaskFileReader reader = new TaskFileReader(parser);
+            ArrayList<Task> chunk = new ArrayList<>();
+            readers.add(reader);
+            results.add(chunk);
+            jobs.add(pool.submit(() -> {
+                reader.readRange(buffer, from, end, chunk);
+                return null;
+            }));
+            start = end;
+        }
+
+        int total = 0;
+        for (int i = 0; i < jobs.size(); i++) {
+            jobs.get(i).join();
+            total += results.get(i).size();
+            warnings.addAll(readers.get(i).getWarnings());
+        }
+        ArrayList<Task> tasks = new ArrayList<>(total);
+        for (ArrayList<Task> chunk : results) {
+            tasks.addAll(chunk);
+        }
+        return tasks;
+    }
+
+    /**
+     * Returns the index just after the first line break at or after {@code from}, or {@code size}.
+     */
+    private static int nextLineStart(ByteBuffer buffer, int from, int size) {
+        for (int i = from; i < size; i++) {
+            byte b = buffer.get(i);
+            if (b == '\n' || b == '\r') {
+                return i + 1;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Checks that the whole file decodes as UTF-8 before any line is parsed.
+     * The scanner-based loader stops reading at an undecodable byte, so a file containing
+     * one must be left to that loader entirely.
+     *
+     * @param buffer The file contents.
+     * @throws CharacterCodingException If the file is not valid UTF-8.
+     */
+    void checkDecodable(ByteBuffer buffer) throws CharacterCodingException {
+        for (int i = 0; i < buffer.limit(); i++) {
+            if (buffer.get(i) < 0) {
+                decoder.reset().decode(buffer.duplicate());
+                return;
+            }
+        }
+    }
+
+    /**
+     * Returns the warnings for skipped lines, in file order.
+     * They are collected instead of printed so that nothing is reported twice
+     * if the caller falls back to another loader.
+     *
+     * @return The warning messages.
+     */
+    List<String> getWarnings() {
+        return warnings;
+    }
+
+    /**
+     * Reads the tasks stored in the given byte range, which must start at the
+     * beginning of a line and end at the end of one.
+     *
+     * @param buffer The file contents.
+     * @param from The index of the first byte of the range.
+     * @param to The index after the last byte of the range.
+     * @param tasks The list the tasks are appended to.
+     * @throws CharacterCodingException If a line is not valid UTF-8.
+     */
+    void readRange(ByteBuffer buffer, int from, int to, List<Task> tasks) throws CharacterCodingException {
+        int start = from;
+        while (start < to) {
+            int end = start;
+            while (end < to) {
+                byte b = buffer.get(end);
+                if (b == '\n' || b == '\r') {
+                    break;
+                }
+                end++;
+            }
+            readLine(buffer, start, end, tasks);
+            start = end + 1;
+        }
+    }
+
+    private void readLine(ByteBuffer buffer, int start, int end, List<Task> tasks) throws CharacterCodingException {
+        int length = end - start;
+        if (line.length < length) {
+            line = new byte[Math.max(length, line.length * 2)];
+        }
+        boolean isAscii = true;
+        for (int i = 0; i < length; i++) {
+            byte b = buffer.get(start + i);
+            line[i] = b;
+            isAscii &= b >= 0;
+        }
+
+        if (!isAscii) {
+            readDecodedLine(length, tasks);
+            return;
+        }
+
+        int lo = 0;
+        int hi = length;
+        while (lo < hi && line[lo] <= SPACE) {
+            lo++;
+        }
+        while (hi > lo && line[hi - 1] <= SPACE) {
+            hi--;
+        }
+        if (lo == hi) {
+            return;
+        }
+        try {
+            addTask(splitBytes(lo, hi), tasks);
+        } catch (Exception e) {
+            warnings.add("⚠ Skipping corrupted line: " + new String(line, lo, hi - lo, StandardCharsets.ISO_8859_1));
+        }
+    }
+
+    /**
+     * Handles a line containing non-ASCII bytes. It is decoded as a whole, since
+     * characters such as U+2028 also end a line in {@link java.util.Scanner}.
+     */
+    private void readDecodedLine(int length, List<Task> tasks) throws CharacterCodingException {
+        CharBuffer chars = decoder.reset().decode(ByteBuffer.wrap(line, 0, length));
+        int start = 0;
+        for (int i = 0; i <= chars.length(); i++) {
+            if (i == chars.length() || isUnicodeLineSeparator(chars.charAt(i))) {
+                String text = chars.subSequence(start, i).toString().trim();
+                start = i + 1;
+                if (text.isEmpty()) {
+                    continue;
+                }
+                try {
+                    addTask(split(text), tasks);
+                } catch (Exception e) {
+                    warnings.add("⚠ Skipping corrupted line: " + text);
+                }
+            }
+        }
+    }
+
+    private static boolean isUnicodeLineSeparator(char c) {
+        return c == '\u2028' || c == '\u2029' || c == '\u0085';
+    }
+
+    private void addTask(String[] parts, List<Task> tasks) {
+        Task task = parser.apply(parts);
+        if (task != null) {
+            tasks.add(task);
+        } else {
+            warnings.add("⚠ Unknown task type: " + parts[0]);
+        }
+    }
+
+    /**
+     * Splits the ASCII bytes in {@code line[lo, hi)} at each {@code " | "}.
+     */
+    private String[] splitBytes(int lo, int hi) {
+        ArrayList<String> parts = new ArrayList<>(5);
+        int start = lo;
+        for (int i = lo; i + 2 < hi; i++) {
+            if (line[i] == SPACE && line[i + 1] == BAR && line[i + 2] == SPACE) {
+                parts.add(new String(line, start, i - start, StandardCharsets.ISO_8859_1));
+                i += 2;
+                start = i + 1;
+            }
+        }
+        parts.add(new String(line, start, hi - start, StandardCharsets.ISO_8859_1));
+        return trimTrailingEmpty(parts);
+    }
+
+    /**
+     * Splits a line at each {@code " | "}, with the same result as
+     * {@code line.split(" \\| ")} but without compiling a regular expression.
+     *
+     * @param line The line to split.
+     * @return The fields of the line.
+     */
+    static String[] split(String line) {
+        ArrayList<String> parts = new ArrayList<>(5);
+        int start = 0;
+        int match = line.indexOf(DELIMITER);
+        while (match >= 0) {
+            parts.add(line.substring(start, match));
+            start = match + DELIMITER.length();
+            match = line.indexOf(DELIMITER, start);
+        }
+        parts.add(line.substring(start));
+        return trimTrailingEmpty(parts);
+    }
+
+    /**
+     * Drops trailing empty fields, as {@link String#split(String)} does when a delimiter was found.
+     */
+    private static String[] trimTrailingEmpty(ArrayList<String> parts) {
+        int size = parts.size();
+        if (size > 1) {
+            while (size > 0 && parts.get(size - 1).isEmpty()) {
+                size--;
+            }
+        }
+        return parts.subList(0, size).toArray(new String[0]);
+    }
+}
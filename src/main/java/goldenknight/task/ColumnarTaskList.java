@@ -0,0 +1,596 @@
+package goldenknight.task;
+
+import java.io.ByteArrayOutputStream;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.RandomAccess;
+import java.util.Set;
+
+/**
+ * A {@link TaskList} that keeps its tasks as columns of primitives instead of as {@link Task} objects.
+ *
+ * <p>Each task is a row across parallel arrays: its type as a byte, its done flag as one bit of a
+ * bitset, the minutes since the epoch its deadline or event is due and its event starts, its id,
+ * and the id of its description in a {@link Utf8Arena}. A row takes about 30 bytes, where a task
+ * object with its dates and the indexes of a {@link TaskList} take several times that.</p>
+ *
+ * <p>Task objects are only made when a task is read, and are then kept through weak references,
+ * so that reading a task again gives the same object for as long as anyone holds it. The changed
+ * and deleted tasks are held until the changes are cleared, so marking a task, saving changes and
+ * finding a task's line in a file all work on the same objects as with a {@link TaskList}. The
+ * tasks given to the constructor are kept the same way, so they stay in memory only while the
+ * caller or a storage backend holds them. The incremental backend remembers every task it has
+ * written, so the columns save the most memory with the other backends.</p>
+ *
+ * <p>The list keeps the word index of a {@link TaskList}, but no time or event index. The time,
+ * overlap and free-slot queries scan the columns instead, which takes O(n) time but reads only
+ * arrays of longs. Deleting a task moves the later rows down one place in each column, and a
+ * {@link #snapshot()} copies the columns, both also in O(n) time.</p>
+ *
+ * <p>The methods are synchronized, so that a snapshot may be read by another thread, such as a
+ * background writer, while the list goes on changing. As with a {@link TaskList}, the list itself
+ * should be changed by one thread at a time.</p>
+ */
+public class ColumnarTaskList extends TaskList {
+
+    private static final TaskType[] TYPES = TaskType.values();
+
+    /** The due and start minute of a task that has no such time. */
+    private static final long NO_TIME = Long.MIN_VALUE;
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    /** The descriptions of the tasks in the list, and of tasks deleted while the list is in use. */
+    private final Utf8Arena descriptions = new Utf8Arena();
+
+    private Columns rows;
+
+    /** The task object last made for each row, if it may still be in use. */
+    private CachedTask[] cached;
+
+    /** The references to task objects that were collected, so that their rows can drop them. */
+    private final ReferenceQueue<Task> collected = new ReferenceQueue<>();
+
+    private final Set<Task> dirtyTasks = new LinkedHashSet<>();
+    private final List<Task> deletedTasks = new ArrayList<>();
+    private int nextId;
+    private final TokenIndex wordIndex = new TokenIndex();
+    private final int[] typeCounts = new int[TYPES.length];
+    private final int[] doneCounts = new int[TYPES.length];
+
+    /**
+     * Constructs a {@code ColumnarTaskList} with an existing list of tasks.
+     *
+     * @param tasks the list of tasks to initialize with
+     */
+    public ColumnarTaskList(ArrayList<Task> tasks) {
+        super();
+        assert tasks != null : "Task list provided to constructor should not be null";
+        nextId = assignIds(tasks);
+        rows = new Columns(Math.max(INITIAL_CAPACITY, tasks.size()));
+        cached = new CachedTask[rows.ids.length];
+        for (Task task : tasks) {
+            append(task);
+        }
+    }
+
+    /**
+     * Constructs an empty {@code ColumnarTaskList}.
+     */
+    public ColumnarTaskList() {
+        super();
+        rows = new Columns(INITIAL_CAPACITY);
+        cached = new CachedTask[INITIAL_CAPACITY];
+    }
+
+    @Override
+    public synchronized void add(Task task) {
+        assert task != null : "Task to add should not be null";
+        expungeCollected();
+        nextId = assignId(task, nextId);
+        append(task);
+        dirtyTasks.add(task);
+    }
+
+    /**
+     * Adds a task as a new last row, keeping the task as the object of that row.
+     */
+    private void append(Task task) {
+        int id = task.getId();
+        int descriptionId = descriptions.intern(task.getDescription());
+        long startMinutes = task instanceof Event ? ((Event) task).getFromEpochMinutes() : NO_TIME;
+        int row = rows.append(task.getType(), task.isDone(), TimeIndex.dueMinutes(task), startMinutes, id,
+                descriptionId);
+        if (row == cached.length) {
+            cached = Arrays.copyOf(cached, rows.ids.length);
+        }
+        wordIndex.add(id, descriptions.bytes(), descriptions.start(descriptionId), descriptions.end(descriptionId));
+        typeCounts[task.getType().ordinal()]++;
+        if (task.isDone()) {
+            doneCounts[task.getType().ordinal()]++;
+        }
+        task.join(this, descriptionId);
+        cached[row] = new CachedTask(task, collected);
+    }
+
+    @Override
+    public synchronized Task delete(int index) {
+        assert index >= 0 && index < rows.size : "Index for delete should be within bounds";
+        Objects.checkIndex(index, rows.size);
+        Task removed = taskAt(index);
+        int id = rows.ids[index];
+        int descriptionId = rows.descriptionIds[index];
+        wordIndex.remove(id, descriptions.bytes(), descriptions.start(descriptionId), descriptions.end(descriptionId));
+        typeCounts[rows.types[index]]--;
+        if (rows.isDone(index)) {
+            doneCounts[rows.types[index]]--;
+        }
+        rows.remove(index);
+        System.arraycopy(cached, index + 1, cached, index, rows.size - index);
+        cached[rows.size] = null;
+        removed.leave();
+        dirtyTasks.remove(removed);
+        deletedTasks.add(removed);
+        return removed;
+    }
+
+    /**
+     * Returns the task object of a row, making it if the last one made is no longer in use.
+     */
+    private Task taskAt(int row) {
+        expungeCollected();
+        CachedTask reference = cached[row];
+        Task task = reference == null ? null : reference.get();
+        if (task == null) {
+            task = rows.newTask(row, descriptions);
+            task.join(this, rows.descriptionIds[row]);
+            cached[row] = new CachedTask(task, collected);
+        }
+        return task;
+    }
+
+    /**
+     * Drops the references to task objects that have been collected.
+     */
+    private void expungeCollected() {
+        Reference<? extends Task> reference;
+        while ((reference = collected.poll()) != null) {
+            int row = rows.rowOf(((CachedTask) reference).id);
+            if (row >= 0 && cached[row] == reference) {
+                cached[row] = null;
+            }
+        }
+    }
+
+    @Override
+    String getDescription(int descriptionId) {
+        return descriptions.get(descriptionId);
+    }
+
+    @Override
+    void writeDescription(int descriptionId, ByteArrayOutputStream out) {
+        descriptions.writeTo(descriptionId, out);
+    }
+
+    /**
+     * Marks or unmarks a task in the list and brings its row and the counts up to date.
+     * A task that is not the object of a row in this list, for example because it was deleted
+     * since it found its list, is only marked.
+     *
+     * @param task the task
+     * @param isDone whether the task is now done
+     */
+    @Override
+    synchronized void changeStatus(Task task, boolean isDone) {
+        int row = task.getOwner() == this ? rows.rowOf(task.getId()) : -1;
+        if (row < 0 || cached[row] == null || cached[row].get() != task) {
+            task.setDone(isDone);
+            return;
+        }
+        boolean wasDone = task.setDone(isDone);
+        assert task.isDone() == isDone : "Task should be marked as asked";
+        if (isDone != wasDone) {
+            rows.setDone(row, isDone);
+            doneCounts[rows.types[row]] += isDone ? 1 : -1;
+        }
+        dirtyTasks.add(task);
+    }
+
+    @Override
+    public synchronized TaskStats getStats(LocalDateTime now) {
+        long nowMinutes = TaskDateTime.toEpochMinutes(now);
+        int overdue = 0;
+        for (int row = 0; row < rows.size; row++) {
+            long due = rows.dueMinutes[row];
+            if (due != NO_TIME && due < nowMinutes && !rows.isDone(row)) {
+                overdue++;
+            }
+        }
+        return new TaskStats(typeCounts.clone(), doneCounts.clone(), overdue);
+    }
+
+    @Override
+    public synchronized Task getNextDue(LocalDateTime now, boolean includeDone) {
+        long fromMinutes = TaskDateTime.toEpochMinutes(now) + 1;
+        int next = -1;
+        for (int row = 0; row < rows.size; row++) {
+            long due = rows.dueMinutes[row];
+            if (due != NO_TIME && due >= fromMinutes && (includeDone || !rows.isDone(row))
+                    && (next < 0 || due < rows.dueMinutes[next])) {
+                next = row;
+            }
+        }
+        return next < 0 ? null : taskAt(next);
+    }
+
+    @Override
+    public synchronized ArrayList<Task> getUpcoming(LocalDateTime now, int count) {
+        assert count >= 0 : "Number of upcoming tasks should not be negative";
+        long fromMinutes = TaskDateTime.toEpochMinutes(now) + 1;
+        // Keeps the soonest rows seen so far, with the latest of them at the head
+        PriorityQueue<Integer> soonest = new PriorityQueue<>(byDue().reversed());
+        for (int row = 0; row < rows.size; row++) {
+            long due = rows.dueMinutes[row];
+            if (due != NO_TIME && due >= fromMinutes && !rows.isDone(row)) {
+                soonest.add(row);
+                if (soonest.size() > count) {
+                    soonest.poll();
+                }
+            }
+        }
+        return tasksAt(new ArrayList<>(soonest), byDue());
+    }
+
+    @Override
+    public synchronized ArrayList<Task> getDueBetween(LocalDateTime from, LocalDateTime to) {
+        long fromMinutes = TaskDateTime.toEpochMinutes(from);
+        long toMinutes = TaskDateTime.toEpochMinutes(to);
+        ArrayList<Integer> matches = new ArrayList<>();
+        for (int row = 0; row < rows.size; row++) {
+            long due = rows.dueMinutes[row];
+            if (due != NO_TIME && due >= fromMinutes && due <= toMinutes) {
+                matches.add(row);
+            }
+        }
+        return tasksAt(matches, byDue());
+    }
+
+    @Override
+    public synchronized ArrayList<Event> getOverlapping(LocalDateTime from, LocalDateTime to) {
+        ArrayList<Integer> matches = eventsOverlapping(TaskDateTime.toEpochMinutes(from),
+                TaskDateTime.toEpochMinutes(to), true);
+        ArrayList<Event> events = new ArrayList<>(matches.size());
+        for (Task task : tasksAt(matches, byStart())) {
+            events.add((Event) task);
+        }
+        return events;
+    }
+
+    @Override
+    public synchronized LocalDateTime findFreeSlot(LocalDateTime from, LocalDateTime to, Duration length) {
+        assert !length.isNegative() : "Length of a free slot should not be negative";
+        long fromMinutes = TaskDateTime.toEpochMinutes(from);
+        long toMinutes = TaskDateTime.toEpochMinutes(to);
+        long minutes = length.toMinutes();
+        ArrayList<Integer> events = eventsOverlapping(fromMinutes, toMinutes, false);
+        events.sort(byStart());
+        // Moves a cursor past each event in start order, as IntervalIndex#freeSlot does
+        long cursor = fromMinutes;
+        for (int row : events) {
+            if (rows.eventEnd(row) <= cursor) {
+                continue;
+            }
+            if (rows.eventStart(row) - cursor >= minutes) {
+                return TaskDateTime.ofEpochMinutes(cursor);
+            }
+            cursor = Math.max(cursor, rows.eventEnd(row));
+        }
+        return toMinutes - cursor >= minutes ? TaskDateTime.ofEpochMinutes(cursor) : null;
+    }
+
+    /**
+     * Returns the rows of the events that overlap the span {@code [fromMinutes, toMinutes)}, in list order.
+     */
+    private ArrayList<Integer> eventsOverlapping(long fromMinutes, long toMinutes, boolean includeDone) {
+        ArrayList<Integer> matches = new ArrayList<>();
+        for (int row = 0; row < rows.size; row++) {
+            if (rows.types[row] == TaskType.EVENT.ordinal() && rows.eventStart(row) < toMinutes
+                    && rows.eventEnd(row) > fromMinutes && (includeDone || !rows.isDone(row))) {
+                matches.add(row);
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Orders rows by the minute they are due, and rows due at the same minute by their place in the list.
+     */
+    private Comparator<Integer> byDue() {
+        return Comparator.<Integer>comparingLong(row -> rows.dueMinutes[row]).thenComparingInt(row -> row);
+    }
+
+    /**
+     * Orders the rows of events by the minute they start, and then by their place in the list.
+     */
+    private Comparator<Integer> byStart() {
+        return Comparator.<Integer>comparingLong(rows::eventStart).thenComparingInt(row -> row);
+    }
+
+    private ArrayList<Task> tasksAt(ArrayList<Integer> matches, Comparator<Integer> order) {
+        matches.sort(order);
+        ArrayList<Task> tasks = new ArrayList<>(matches.size());
+        for (int row : matches) {
+            tasks.add(taskAt(row));
+        }
+        return tasks;
+    }
+
+    @Override
+    public synchronized Set<Task> getDirtyTasks() {
+        return dirtyTasks;
+    }
+
+    @Override
+    public synchronized List<Task> getDeletedTasks() {
+        return deletedTasks;
+    }
+
+    @Override
+    public synchronized void clearChanges() {
+        dirtyTasks.clear();
+        deletedTasks.clear();
+    }
+
+    @Override
+    public synchronized Task get(int index) {
+        assert index >= 0 && index < rows.size : "Index for get should be within bounds";
+        Objects.checkIndex(index, rows.size);
+        return taskAt(index);
+    }
+
+    @Override
+    public synchronized Task getById(int id) {
+        int row = rows.rowOf(id);
+        return row < 0 ? null : taskAt(row);
+    }
+
+    @Override
+    public synchronized int indexOf(int id) {
+        return rows.rowOf(id);
+    }
+
+    @Override
+    public synchronized int size() {
+        return rows.size;
+    }
+
+    @Override
+    public synchronized ArrayList<Task> getAll() {
+        ArrayList<Task> tasks = new ArrayList<>(rows.size);
+        for (int row = 0; row < rows.size; row++) {
+            tasks.add(taskAt(row));
+        }
+        return tasks;
+    }
+
+    /**
+     * Returns a read-only view of the tasks as they are now, made from a copy of the columns.
+     *
+     * <p>Reading a task from the view gives the same object as reading it from the list, while the
+     * task is still in the list. A task deleted since the view was made is read as a new object
+     * that belongs to no list.</p>
+     *
+     * @return the tasks in list order
+     */
+    @Override
+    public synchronized List<Task> snapshot() {
+        return new Snapshot(new Columns(rows));
+    }
+
+    private synchronized Task read(Columns copy, int index) {
+        int row = rows.rowOf(copy.ids[index]);
+        return row >= 0 ? taskAt(row) : copy.newTask(index, descriptions);
+    }
+
+    @Override
+    public synchronized ArrayList<Task> find(String keyword) {
+        assert keyword != null && !keyword.isBlank() : "Keyword for find should not be null or blank";
+        byte[] keywordBytes = Utf8Arena.encode(keyword);
+        int[] candidates = wordIndex.candidates(keywordBytes);
+        ArrayList<Task> results = new ArrayList<>();
+        if (candidates == null) {
+            for (int row = 0; row < rows.size; row++) {
+                if (descriptions.contains(rows.descriptionIds[row], keywordBytes)) {
+                    results.add(taskAt(row));
+                }
+            }
+            return results;
+        }
+        boolean isSingleWord = keyword.chars().noneMatch(Character::isWhitespace);
+        for (int id : candidates) {
+            int row = rows.rowOf(id);
+            if (isSingleWord || descriptions.contains(rows.descriptionIds[row], keywordBytes)) {
+                results.add(taskAt(row));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * The tasks of a list, or of a copy of it, as parallel arrays.
+     */
+    private static final class Columns {
+        private int size;
+        private byte[] types;
+
+        /** The done flags, one bit per row. */
+        private long[] doneBits;
+
+        /** The minute each deadline is due and each event ends, or {@link #NO_TIME}. */
+        private long[] dueMinutes;
+
+        /** The minute each event starts, or {@link #NO_TIME}. */
+        private long[] startMinutes;
+
+        /** The id of each task, increasing down the rows. */
+        private int[] ids;
+        private int[] descriptionIds;
+
+        Columns(int capacity) {
+            types = new byte[capacity];
+            doneBits = new long[(capacity + 63) >>> 6];
+            dueMinutes = new long[capacity];
+            startMinutes = new long[capacity];
+            ids = new int[capacity];
+            descriptionIds = new int[capacity];
+        }
+
+        /**
+         * Copies the rows of other columns, without room for more.
+         */
+        Columns(Columns other) {
+            size = other.size;
+            types = Arrays.copyOf(other.types, size);
+            doneBits = Arrays.copyOf(other.doneBits, (size + 63) >>> 6);
+            dueMinutes = Arrays.copyOf(other.dueMinutes, size);
+            startMinutes = Arrays.copyOf(other.startMinutes, size);
+            ids = Arrays.copyOf(other.ids, size);
+            descriptionIds = Arrays.copyOf(other.descriptionIds, size);
+        }
+
+        /**
+         * Adds a row after the last one.
+         *
+         * @return the index of the row
+         */
+        int append(TaskType type, boolean isDone, long due, long start, int id, int descriptionId) {
+            if (size == ids.length) {
+                int capacity = size * 2;
+                types = Arrays.copyOf(types, capacity);
+                doneBits = Arrays.copyOf(doneBits, (capacity + 63) >>> 6);
+                dueMinutes = Arrays.copyOf(dueMinutes, capacity);
+                startMinutes = Arrays.copyOf(startMinutes, capacity);
+                ids = Arrays.copyOf(ids, capacity);
+                descriptionIds = Arrays.copyOf(descriptionIds, capacity);
+            }
+            int row = size++;
+            types[row] = (byte) type.ordinal();
+            setDone(row, isDone);
+            dueMinutes[row] = due;
+            startMinutes[row] = start;
+            ids[row] = id;
+            descriptionIds[row] = descriptionId;
+            return row;
+        }
+
+        /**
+         * Removes a row, moving every later row up one place.
+         */
+        void remove(int row) {
+            int moved = size - row - 1;
+            System.arraycopy(types, row + 1, types, row, moved);
+            System.arraycopy(dueMinutes, row + 1, dueMinutes, row, moved);
+            System.arraycopy(startMinutes, row + 1, startMinutes, row, moved);
+            System.arraycopy(ids, row + 1, ids, row, moved);
+            System.arraycopy(descriptionIds, row + 1, descriptionIds, row, moved);
+            // Shifts the bits from the row on down by one, carrying the lowest bit of each next word
+            int last = (size - 1) >>> 6;
+            for (int word = row >>> 6; word <= last; word++) {
+                long bits = doneBits[word];
+                long kept = word == row >>> 6 ? (1L << row) - 1 : 0;
+                long carried = word < last ? doneBits[word + 1] << 63 : 0;
+                doneBits[word] = bits & kept | bits >>> 1 & ~kept | carried;
+            }
+            size--;
+        }
+
+        boolean isDone(int row) {
+            return (doneBits[row >>> 6] & 1L << row) != 0;
+        }
+
+        void setDone(int row, boolean isDone) {
+            if (isDone) {
+                doneBits[row >>> 6] |= 1L << row;
+            } else {
+                doneBits[row >>> 6] &= ~(1L << row);
+            }
+        }
+
+        /**
+         * Returns the row of the task with the given id, or -1 if there is none.
+         */
+        int rowOf(int id) {
+            int row = Arrays.binarySearch(ids, 0, size, id);
+            return row < 0 ? -1 : row;
+        }
+
+        long eventStart(int row) {
+            return Math.min(startMinutes[row], dueMinutes[row]);
+        }
+
+        long eventEnd(int row) {
+            return Math.max(startMinutes[row], dueMinutes[row]);
+        }
+
+        /**
+         * Makes a task object from a row, belonging to no list.
+         */
+        Task newTask(int row, Utf8Arena descriptions) {
+            String description = descriptions.get(descriptionIds[row]);
+            Task task = switch (TYPES[types[row]]) {
+            case DEADLINE -> new Deadline(description, dueMinutes[row]);
+            case EVENT -> new Event(description, startMinutes[row], dueMinutes[row]);
+            default -> new Todo(description);
+            };
+            task.setId(ids[row]);
+            task.setDone(isDone(row));
+            return task;
+        }
+    }
+
+    /**
+     * A weak reference to the task object of a row, which remembers the task's id so that the row
+     * can be found once the task is collected.
+     */
+    private static final class CachedTask extends WeakReference<Task> {
+        private final int id;
+
+        CachedTask(Task task, ReferenceQueue<Task> queue) {
+            super(task, queue);
+            this.id = task.getId();
+        }
+    }
+
+    /**
+     * The tasks of a copy of the columns, read through the list.
+     */
+    private final class Snapshot extends AbstractList<Task> implements RandomAccess {
+        private final Columns copy;
+
+        Snapshot(Columns copy) {
+            this.copy = copy;
+        }
+
+        @Override
+        public Task get(int index) {
+            Objects.checkIndex(index, copy.size);
+            return read(copy, index);
+        }
+
+        @Override
+        public int size() {
+            return copy.size;
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package goldenknight.task;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Supplier;
+
+/**
+ * A {@link TaskList} that may be used from several threads at once.
+ *
+ * <p>Changes to the list take the write lock of a {@link StampedLock}, including marking or
+ * unmarking a task in the list, whichever way it is marked. Each change that adds
+ * or deletes a task publishes a fresh {@link #snapshot()} of the list before releasing it. Since
+ * snapshots take O(1) time and never change, {@link #get(int)}, {@link #size()},
+ * {@link #snapshot()}, {@link #getAll()}, {@link #getById(int)} and {@link #indexOf(int)} read the
+ * latest one without taking any lock, and never wait for a writer.</p>
+ *
+ * <p>{@link #find(String)} and the time queries read the indexes, which writers change in place,
+ * so they take the read lock. Running them as optimistic reads and checking for a writer only at
+ * the end would let a search walk posting lists or sorted sets caught halfway through a change.
+ * {@link #getStats(LocalDateTime)}, which moves the overdue watermark, takes the write lock.</p>
+ *
+ * <p>Each method is atomic on its own. A caller that checks a position and then deletes it must
+ * still make sure no other thread deletes in between.</p>
+ */
+public class ConcurrentTaskList extends TaskList {
+
+    private final StampedLock lock = new StampedLock();
+
+    /** The tasks as of the last addition or deletion, read without locking. */
+    private volatile List<Task> view;
+
+    /**
+     * Constructs a {@code ConcurrentTaskList} with an existing list of tasks.
+     *
+     * @param tasks the list of tasks to initialize with
+     */
+    public ConcurrentTaskList(ArrayList<Task> tasks) {
+        super(tasks);
+        view = super.snapshot();
+    }
+
+    /**
+     * Constructs an empty {@code ConcurrentTaskList}.
+     */
+    public ConcurrentTaskList() {
+        super();
+        view = super.snapshot();
+    }
+
+    @Override
+    public void add(Task task) {
+        long stamp = lock.writeLock();
+        try {
+            super.add(task);
+            view = super.snapshot();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public Task delete(int index) {
+        long stamp = lock.writeLock();
+        try {
+            Task removed = super.delete(index);
+            view = super.snapshot();
+            return removed;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    void changeStatus(Task task, boolean isDone) {
+        long stamp = lock.writeLock();
+        try {
+            super.changeStatus(task, isDone);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public void clearChanges() {
+        long stamp = lock.writeLock();
+        try {
+            super.clearChanges();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Returns a copy of the tasks added or changed since the changes were last cleared.
+     *
+     * @return the changed tasks, in the order they first changed
+     */
+    @Override
+    public Set<Task> getDirtyTasks() {
+        return readLocked(() -> new LinkedHashSet<>(super.getDirtyTasks()));
+    }
+
+    /**
+     * Returns a copy of the tasks deleted since the changes were last cleared.
+     *
+     * @return the deleted tasks, in the order they were deleted
+     */
+    @Override
+    public List<Task> getDeletedTasks() {
+        return readLocked(() -> new ArrayList<>(super.getDeletedTasks()));
+    }
+
+    @Override
+    public Task get(int index) {
+        return view.get(index);
+    }
+
+    @Override
+    public int size() {
+        return view.size();
+    }
+
+    @Override
+    public ArrayList<Task> getAll() {
+        return new ArrayList<>(view);
+    }
+
+    @Override
+    public List<Task> snapshot() {
+        return view;
+    }
+
+    @Override
+    public Task getById(int id) {
+        List<Task> tasks = view;
+        int index = TaskSequence.indexOf(tasks, id);
+        return index < 0 ? null : tasks.get(index);
+    }
+
+    @Override
+    public int indexOf(int id) {
+        return TaskSequence.indexOf(view, id);
+    }
+
+    @Override
+    public ArrayList<Task> find(String keyword) {
+        return readLocked(() -> super.find(keyword));
+    }
+
+    @Override
+    public TaskStats getStats(LocalDateTime now) {
+        return write(() -> super.getStats(now));
+    }
+
+    @Override
+    public Task getNextDue(LocalDateTime now, boolean includeDone) {
+        return readLocked(() -> super.getNextDue(now, includeDone));
+    }
+
+    @Override
+    public ArrayList<Task> getUpcoming(LocalDateTime now, int count) {
+        return readLocked(() -> super.getUpcoming(now, count));
+    }
+
+    @Override
+    public ArrayList<Task> getDueBetween(LocalDateTime from, LocalDateTime to) {
+        return readLocked(() -> super.getDueBetween(from, to));
+    }
+
+    @Override
+    public ArrayList<Event> getOverlapping(LocalDateTime from, LocalDateTime to) {
+        return readLocked(() -> super.getOverlapping(from, to));
+    }
+
+    @Override
+    public LocalDateTime findFreeSlot(LocalDateTime from, LocalDateTime to, Duration length) {
+        return readLocked(() -> super.findFreeSlot(from, to, length));
+    }
+
+    private <T> T write(Supplier<T> writer) {
+        long stamp = lock.writeLock();
+        try {
+            return writer.get();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private <T> T readLocked(Supplier<T> reader) {
+        long stamp = lock.readLock();
+        try {
+            return reader.get();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+}
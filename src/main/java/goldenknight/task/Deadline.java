@@ -17,41 +17,70 @@ public class Deadline extends Task {
     public static final DateTimeFormatter OUTPUT_FORMAT =
             DateTimeFormatter.ofPattern("MMM d yyyy HH:mm");
 
-    /** The date and time by which the task must be completed. */
+    /** The date and time by which the task must be completed, in minutes since the epoch. */
+    private final long byEpochMinutes;
+
+    /** The deadline as a {@link LocalDateTime}, created the first time it is needed. */
     private LocalDateTime byDateTime;
 
     /**
      * Creates a new {@code Deadline} task.
+     * The deadline is validated straight away, but only decoded into a {@link LocalDateTime}
+     * when it is first displayed or queried.
      *
      * @param description Description of the deadline task.
      * @param by The deadline date and time, given as a string in {@link #INPUT_FORMAT}.
+     * @throws java.time.format.DateTimeParseException if {@code by} is not a valid date and time
      */
     public Deadline(String description, String by) {
         super(TaskType.DEADLINE, description);
-        this.byDateTime = LocalDateTime.parse(by, INPUT_FORMAT);
+        this.byEpochMinutes = TaskDateTime.parseEpochMinutes(by);
+    }
+
+    /**
+     * Creates a new {@code Deadline} task with an already parsed deadline.
+     *
+     * @param description Description of the deadline task.
+     * @param byDateTime The deadline date and time.
+     */
+    public Deadline(String description, LocalDateTime byDateTime) {
+        super(TaskType.DEADLINE, description);
+        assert byDateTime != null : "Deadline date should not be null";
+        this.byEpochMinutes = TaskDateTime.toEpochMinutes(byDateTime);
+        this.byDateTime = byDateTime;
+    }
+
+    /**
+     * Creates a new {@code Deadline} task from a deadline in minutes since the epoch.
+     *
+     * @param description Description of the deadline task.
+     * @param byEpochMinutes The deadline, as returned by {@link TaskDateTime#toEpochMinutes}.
+     */
+    Deadline(String description, long byEpochMinutes) {
+        super(TaskType.DEADLINE, description);
+        this.byEpochMinutes = byEpochMinutes;
     }
 
     /**
-     * Returns the string representation of this deadline task,
+     * Formats the string representation of this deadline task,
      * including its status icon, description, and formatted deadline.
      *
+     * @param isDone Whether to format the task as done.
      * @return String representation of the deadline task.
      */
     @Override
-    public String toString() {
-        return super.toString() + " (by: " + this.byDateTime.format(OUTPUT_FORMAT) + ")";
+    protected String formatString(boolean isDone) {
+        return super.formatString(isDone) + " (by: " + getByDateTime().format(OUTPUT_FORMAT) + ")";
     }
 
     /**
-     * Returns the string representation of this deadline task
-     * in the format used for saving to a file.
+     * Formats the due time of this deadline in the format used for saving to a file.
      *
-     * @return File format string of the deadline task.
+     * @return The file format field of the due time.
      */
     @Override
-    public String toFileFormat() {
-        return "D | " + (this.isDone ? "1" : "0") + " | "
-                + this.description + " | " + this.byDateTime.format(INPUT_FORMAT);
+    protected String formatFileFields() {
+        return " | " + TaskDateTime.formatEpochMinutes(this.byEpochMinutes);
     }
 
     /**
@@ -75,7 +104,14 @@ public class Deadline extends Task {
 
     // needed for reminder class
     public LocalDateTime getByDateTime() {
+        if (this.byDateTime == null) {
+            this.byDateTime = TaskDateTime.ofEpochMinutes(this.byEpochMinutes);
+        }
         return this.byDateTime;
     }
 
+    public long getByEpochMinutes() {
+        return this.byEpochMinutes;
+    }
+
 }
@@ -10,45 +10,80 @@ import java.time.format.DateTimeFormatter;
 public class Event extends Task {
     public static final DateTimeFormatter INPUT_FORMAT = DateTimeFormatter.ofPattern("d/M/yyyy HHmm");
     public static final DateTimeFormatter OUTPUT_FORMAT = DateTimeFormatter.ofPattern("MMM d yyyy HH:mm");
-    private final LocalDateTime fromDateTime;
-    private final LocalDateTime toDateTime;
+    private final long fromEpochMinutes;
+    private final long toEpochMinutes;
+
+    /** The start and end as {@link LocalDateTime}s, each created the first time it is needed. */
+    private LocalDateTime fromDateTime;
+    private LocalDateTime toDateTime;
 
     /**
      * Creates a new {@code Event} task.
+     * The times are validated straight away, but only decoded into {@link LocalDateTime}s
+     * when they are first displayed or queried.
      *
      * @param description Description of the event task.
      * @param from The start date and time of the event, given as a string in {@link #INPUT_FORMAT}.
      * @param to The end date and time of the event, given as a string in {@link #INPUT_FORMAT}.
+     * @throws java.time.format.DateTimeParseException if {@code from} or {@code to} is not a valid date and time
      */
     public Event(String description, String from, String to) {
         super(TaskType.EVENT, description);
-        this.fromDateTime = LocalDateTime.parse(from, INPUT_FORMAT);
-        this.toDateTime = LocalDateTime.parse(to, INPUT_FORMAT);
+        this.fromEpochMinutes = TaskDateTime.parseEpochMinutes(from);
+        this.toEpochMinutes = TaskDateTime.parseEpochMinutes(to);
+    }
+
+    /**
+     * Creates a new {@code Event} task with an already parsed start and end time.
+     *
+     * @param description Description of the event task.
+     * @param fromDateTime The start date and time of the event.
+     * @param toDateTime The end date and time of the event.
+     */
+    public Event(String description, LocalDateTime fromDateTime, LocalDateTime toDateTime) {
+        super(TaskType.EVENT, description);
+        assert fromDateTime != null && toDateTime != null : "Event dates should not be null";
+        this.fromEpochMinutes = TaskDateTime.toEpochMinutes(fromDateTime);
+        this.toEpochMinutes = TaskDateTime.toEpochMinutes(toDateTime);
+        this.fromDateTime = fromDateTime;
+        this.toDateTime = toDateTime;
     }
 
     /**
-     * Returns the string representation of this event task,
+     * Creates a new {@code Event} task from a start and end time in minutes since the epoch.
+     *
+     * @param description Description of the event task.
+     * @param fromEpochMinutes The start, as returned by {@link TaskDateTime#toEpochMinutes}.
+     * @param toEpochMinutes The end, as returned by {@link TaskDateTime#toEpochMinutes}.
+     */
+    Event(String description, long fromEpochMinutes, long toEpochMinutes) {
+        super(TaskType.EVENT, description);
+        this.fromEpochMinutes = fromEpochMinutes;
+        this.toEpochMinutes = toEpochMinutes;
+    }
+
+    /**
+     * Formats the string representation of this event task,
      * including its status icon, description, and formatted start and end times.
      *
+     * @param isDone Whether to format the task as done.
      * @return String representation of the event task.
      */
     @Override
-    public String toString() {
-        return super.toString() + " (from: " + this.fromDateTime.format(OUTPUT_FORMAT)
-                + " to: " + this.toDateTime.format(OUTPUT_FORMAT) + ")";
+    protected String formatString(boolean isDone) {
+        return super.formatString(isDone) + " (from: " + getFromDateTime().format(OUTPUT_FORMAT)
+                + " to: " + getToDateTime().format(OUTPUT_FORMAT) + ")";
     }
 
     /**
-     * Returns the string representation of this event task
-     * in the format used for saving to a file.
+     * Formats the start and end times of this event in the format used for saving to a file.
      *
-     * @return File format string of the event task.
+     * @return The file format fields of the start and end times.
      */
     @Override
-    public String toFileFormat() {
-        return "E | " + (this.isDone ? "1" : "0") + " | " + this.description
-                + " | " + this.fromDateTime.format(INPUT_FORMAT)
-                + " | " + this.toDateTime.format(INPUT_FORMAT);
+    protected String formatFileFields() {
+        return " | " + TaskDateTime.formatEpochMinutes(this.fromEpochMinutes)
+                + " | " + TaskDateTime.formatEpochMinutes(this.toEpochMinutes);
     }
 
     /**
@@ -70,9 +105,27 @@ public class Event extends Task {
         return e;
     }
 
+    public LocalDateTime getFromDateTime() {
+        if (this.fromDateTime == null) {
+            this.fromDateTime = TaskDateTime.ofEpochMinutes(this.fromEpochMinutes);
+        }
+        return this.fromDateTime;
+    }
+
     // needed for reminder class
     public LocalDateTime getToDateTime() {
+        if (this.toDateTime == null) {
+            this.toDateTime = TaskDateTime.ofEpochMinutes(this.toEpochMinutes);
+        }
         return this.toDateTime;
     }
 
+    public long getFromEpochMinutes() {
+        return this.fromEpochMinutes;
+    }
+
+    public long getToEpochMinutes() {
+        return this.toEpochMinutes;
+    }
+
 }
@@ -0,0 +1,281 @@
+package goldenknight.task;
+
+import java.util.ArrayList;
+
+/**
+ * An interval tree over the events of a task list, answering which events overlap a span of time.
+ *
+ * <p>The tree is a treap ordered by each event's start and then its id, and every node also keeps
+ * the latest end in its subtree. A query skips any subtree that ends before the span starts and,
+ * since the tree is ordered by start, everything to the right of an event that starts after the
+ * span ends. Updates take O(log n) expected time. Finding the k overlapping events takes
+ * O(k log n) expected time at most, since each event returned may cost a walk down the tree.
+ * Priorities are derived from the ids, so the shape of the tree does not depend on a random
+ * number generator.</p>
+ *
+ * <p>{@link #freeSlot} walks the events in start order and stops at the first gap that is long
+ * enough. It takes O((m + 1) log n) expected time, where m is the number of events that overlap
+ * the span before that gap, and needs no memory beyond the walk.</p>
+ *
+ * <p>Events are treated as half-open spans {@code [from, to)}, so an event ending at 1500 does
+ * not overlap one starting at 1500. An event whose end is before its start covers the span
+ * between the two.</p>
+ */
+final class IntervalIndex {
+
+    private Node root;
+    private int size;
+
+    /**
+     * Adds an event.
+     *
+     * @param id the id of the event in the task list
+     * @param event the event
+     */
+    void add(int id, Event event) {
+        root = insert(root, new Node(id, event));
+        size++;
+    }
+
+    /**
+     * Removes an event, doing nothing if it is not in the tree.
+     *
+     * @param id the id of the event in the task list
+     * @param event the event
+     */
+    void remove(int id, Event event) {
+        root = delete(root, new Node(id, event));
+    }
+
+    /**
+     * Returns the number of events in the tree.
+     *
+     * @return the number of events
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Returns the events that overlap the span {@code [fromMinutes, toMinutes)}, ordered by start.
+     *
+     * @param fromMinutes the start of the span in minutes since the epoch
+     * @param toMinutes the end of the span in minutes since the epoch
+     * @return the overlapping events
+     */
+    ArrayList<Event> overlapping(long fromMinutes, long toMinutes) {
+        ArrayList<Event> events = new ArrayList<>();
+        collect(root, fromMinutes, toMinutes, events);
+        return events;
+    }
+
+    /**
+     * Returns the start of the earliest gap of at least {@code length} minutes between events that
+     * are not done, within the span {@code [fromMinutes, toMinutes)}.
+     *
+     * @param fromMinutes the start of the span in minutes since the epoch
+     * @param toMinutes the end of the span in minutes since the epoch
+     * @param length the length of the gap in minutes
+     * @return the start of the gap in minutes since the epoch, or {@link Long#MIN_VALUE} if there is none
+     */
+    long freeSlot(long fromMinutes, long toMinutes, long length) {
+        SlotFinder finder = new SlotFinder(fromMinutes, toMinutes, length);
+        finder.visit(root);
+        if (finder.slot == Long.MIN_VALUE && toMinutes - finder.cursor >= length) {
+            return finder.cursor;
+        }
+        return finder.slot;
+    }
+
+    /**
+     * Mixes the bits of an id into a treap priority, so that ids added in order still give a balanced tree.
+     *
+     * @param id the id
+     * @return the priority
+     */
+    static int scramble(int id) {
+        int h = id * 0x9E3779B9;
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        h *= 0xC2B2AE35;
+        return h ^ h >>> 16;
+    }
+
+    private static long start(Event event) {
+        return Math.min(event.getFromEpochMinutes(), event.getToEpochMinutes());
+    }
+
+    private static long end(Event event) {
+        return Math.max(event.getFromEpochMinutes(), event.getToEpochMinutes());
+    }
+
+    private static void collect(Node node, long from, long to, ArrayList<Event> events) {
+        if (node == null || node.maxEnd <= from) {
+            return;
+        }
+        collect(node.left, from, to, events);
+        if (node.start >= to) {
+            return;
+        }
+        if (node.end > from) {
+            events.add(node.event);
+        }
+        collect(node.right, from, to, events);
+    }
+
+    private Node insert(Node node, Node added) {
+        if (node == null) {
+            return added;
+        }
+        if (added.compareTo(node) < 0) {
+            node.left = insert(node.left, added);
+            if (node.left.priority > node.priority) {
+                node = rotateRight(node);
+            }
+        } else {
+            node.right = insert(node.right, added);
+            if (node.right.priority > node.priority) {
+                node = rotateLeft(node);
+            }
+        }
+        node.update();
+        return node;
+    }
+
+    private Node delete(Node node, Node key) {
+        if (node == null) {
+            return null;
+        }
+        int order = key.compareTo(node);
+        if (order < 0) {
+            node.left = delete(node.left, key);
+        } else if (order > 0) {
+            node.right = delete(node.right, key);
+        } else {
+            size--;
+            return merge(node.left, node.right);
+        }
+        node.update();
+        return node;
+    }
+
+    /**
+     * Joins two treaps where every node of {@code left} comes before every node of {@code right}.
+     */
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            left.update();
+            return left;
+        }
+        right.left = merge(left, right.left);
+        right.update();
+        return right;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node left = node.left;
+        node.left = left.right;
+        left.right = node;
+        node.update();
+        left.update();
+        return left;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node right = node.right;
+        node.right = right.left;
+        right.left = node;
+        node.update();
+        right.update();
+        return right;
+    }
+
+    /**
+     * Walks the tree in start order, moving a cursor past each event that is not done, until
+     * the next event starts far enough after the cursor or starts after the span.
+     */
+    private static final class SlotFinder {
+        private final long to;
+        private final long length;
+        private long cursor;
+        private long slot = Long.MIN_VALUE;
+        private boolean isStopped;
+
+        SlotFinder(long from, long to, long length) {
+            this.cursor = from;
+            this.to = to;
+            this.length = length;
+        }
+
+        void visit(Node node) {
+            // A subtree ending by the cursor can neither move it nor leave a gap after it
+            if (node == null || isStopped || node.maxEnd <= cursor) {
+                return;
+            }
+            visit(node.left);
+            if (isStopped) {
+                return;
+            }
+            if (node.start >= to) {
+                isStopped = true;
+                return;
+            }
+            if (!node.event.isDone()) {
+                if (node.start - cursor >= length) {
+                    slot = cursor;
+                    isStopped = true;
+                    return;
+                }
+                cursor = Math.max(cursor, node.end);
+            }
+            visit(node.right);
+        }
+    }
+
+    /**
+     * One event in the tree, with the latest end of any event in its subtree.
+     */
+    private static final class Node implements Comparable<Node> {
+        private final long start;
+        private final long end;
+        private final int id;
+        private final int priority;
+        private final Event event;
+        private long maxEnd;
+        private Node left;
+        private Node right;
+
+        Node(int id, Event event) {
+            this.start = IntervalIndex.start(event);
+            this.end = IntervalIndex.end(event);
+            this.id = id;
+            this.event = event;
+            this.maxEnd = end;
+            this.priority = scramble(id);
+        }
+
+        void update() {
+            maxEnd = end;
+            if (left != null) {
+                maxEnd = Math.max(maxEnd, left.maxEnd);
+            }
+            if (right != null) {
+                maxEnd = Math.max(maxEnd, right.maxEnd);
+            }
+        }
+
+        @Override
+        public int compareTo(Node other) {
+            int byStart = Long.compare(start, other.start);
+            return byStart != 0 ? byStart : Integer.compare(id, other.id);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package goldenknight.task;
 
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 
@@ -17,26 +18,42 @@ public class Reminder {
      */
     public static String reminder(ArrayList<Task> tasks) {
         Task nextTask = null;
-        LocalDateTime now = LocalDateTime.now();
-        LocalDateTime nextTime = null;
+        // Task times are whole minutes, so a task is after now exactly when its second is after now's second
+        long nowSecond = LocalDateTime.now().toEpochSecond(ZoneOffset.UTC);
+        long nextTime = Long.MAX_VALUE;
 
         for (Task t : tasks) {
-            LocalDateTime taskTime = null;
+            long taskTime;
 
             if (t instanceof Deadline) {
-                taskTime = ((Deadline) t).getByDateTime();
+                taskTime = ((Deadline) t).getByEpochMinutes();
             } else if (t instanceof Event) {
-                taskTime = ((Event) t).getToDateTime();
+                taskTime = ((Event) t).getToEpochMinutes();
+            } else {
+                continue;
             }
 
-            if (taskTime != null && taskTime.isAfter(now)) {
-                if (nextTime == null || taskTime.isBefore(nextTime)) {
-                    nextTime = taskTime;
-                    nextTask = t;
-                }
+            if (taskTime * 60 > nowSecond && (nextTask == null || taskTime < nextTime)) {
+                nextTime = taskTime;
+                nextTask = t;
             }
         }
 
+        return describe(nextTask);
+    }
+
+    /**
+     * Returns a string message showing the next upcoming task that is not done yet.
+     * The task is looked up in the list's time index instead of scanning every task.
+     *
+     * @param tasks the task list
+     * @return the reminder message
+     */
+    public static String reminder(TaskList tasks) {
+        return describe(tasks.getNextDue(LocalDateTime.now(), false));
+    }
+
+    private static String describe(Task nextTask) {
         if (nextTask == null) {
             return "You have no upcoming tasks!";
         }
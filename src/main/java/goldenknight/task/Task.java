@@ -1,15 +1,46 @@
 package goldenknight.task;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
 /**
  * Represents a generic task in the GoldenKnight application.
  * A task has a description, a completion status, and a task type.
  *
  * Subclasses such as {@link Deadline} and {@link Event} extend this class
  * to represent more specific types of tasks.
+ *
+ * <p>A task is given a stable id when it first joins a {@link TaskList}. The id is saved
+ * with the task, so that storage and indexes can refer to the task no matter where it
+ * sits in the list.</p>
+ *
+ * <p>A task also knows the list it belongs to, and is marked or unmarked through it, so that
+ * the list's indexes and counts stay correct even when the task is marked directly.</p>
+ *
+ * <p>The strings a task is displayed and saved as are made once and kept, so listing or saving
+ * tasks that have not changed does no formatting. Every field but the done flag is fixed once
+ * the task is made, so each string is kept separately for a task that is done and one that is
+ * not, and marking a task drops the strings for its old status. A string made by one thread
+ * while another marks the task is still correct for the status it was made for.</p>
+ *
+ * <p>While a task is in a list, its description is kept as UTF-8 bytes in the list's
+ * {@link Utf8Arena} rather than as a string of its own. {@link #getDescription()} decodes it
+ * each time it is asked for, and {@link #writeFileFormat} copies the bytes without decoding them.
+ * A task that leaves its list takes its description back as a string.</p>
  */
 public class Task {
-    /** Description of the task. */
-    protected String description;
+    /** The id of a task that has not joined a task list yet. */
+    public static final int NO_ID = -1;
+
+    /** The done field of the file format, between the type and the description. */
+    private static final byte[] PENDING_FIELD = " | 0 | ".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] DONE_FIELD = " | 1 | ".getBytes(StandardCharsets.UTF_8);
+
+    /** Description of the task, or {@code null} while it is kept in the arena of the task's list. */
+    private String description;
+
+    /** The id of the description in the arena of the task's list, if it is kept there. */
+    private int descriptionId;
 
     /** Whether the task is completed. */
     protected boolean isDone;
@@ -17,6 +48,21 @@ public class Task {
     /** The type of task (e.g., ToDo, Deadline, Event). */
     protected TaskType type;
 
+    /** The stable id of the task, or {@link #NO_ID}. */
+    private int id = NO_ID;
+
+    /** The list the task belongs to, or {@code null}. Read without the list's lock when marking. */
+    private volatile TaskList owner;
+
+    /** Whether tasks keep the strings they are displayed and saved as. */
+    private static volatile boolean isStringCacheEnabled = false;
+
+    /** The display and file format strings, for when the task is not done and when it is, or {@code null}. */
+    private String pendingString;
+    private String doneString;
+    private String pendingFileFormat;
+    private String doneFileFormat;
+
     /**
      * Constructs a new {@code Task} with the given type and description.
      * By default, the task is not done.
@@ -36,16 +82,55 @@ public class Task {
      * Marks the task as completed.
      */
     public void markAsDone() {
-        this.isDone = true;
-        assert this.isDone : "Task should be marked as done";
+        if (owner != null) {
+            owner.changeStatus(this, true);
+        } else {
+            setDone(true);
+            assert this.isDone : "Task should be marked as done";
+        }
     }
 
     /**
      * Marks the task as not completed.
      */
     public void markAsNotDone() {
-        this.isDone = false;
-        assert !this.isDone : "Task should be marked as not done";
+        if (owner != null) {
+            owner.changeStatus(this, false);
+        } else {
+            setDone(false);
+            assert !this.isDone : "Task should be marked as not done";
+        }
+    }
+
+    /**
+     * Sets whether the task is done, without telling the list it belongs to.
+     *
+     * @param isDone whether the task is done
+     * @return whether the task was done before
+     */
+    boolean setDone(boolean isDone) {
+        boolean wasDone = this.isDone;
+        this.isDone = isDone;
+        if (isDone != wasDone) {
+            if (wasDone) {
+                doneString = null;
+                doneFileFormat = null;
+            } else {
+                pendingString = null;
+                pendingFileFormat = null;
+            }
+        }
+        return wasDone;
+    }
+
+    /**
+     * Sets whether tasks keep the strings they are displayed and saved as. It is off by default,
+     * since the strings of a large list take more memory than the tasks themselves.
+     *
+     * @param isEnabled whether to keep the strings
+     */
+    public static void setStringCacheEnabled(boolean isEnabled) {
+        isStringCacheEnabled = isEnabled;
     }
 
     /**
@@ -54,40 +139,187 @@ public class Task {
      * @return "X" if the task is done, otherwise " "
      */
     public String getStatusIcon() {
-        return this.isDone ? "X" : " ";
+        return statusIcon(this.isDone);
+    }
+
+    private static String statusIcon(boolean isDone) {
+        return isDone ? "X" : " ";
     }
 
+    /**
+     * Returns the description of the task, decoding it if it is kept in the arena of the task's list.
+     *
+     * @return the description
+     */
     public String getDescription() {
-        assert description != null : "Task description should not be null";
-        return this.description;
+        String text = description;
+        if (text == null) {
+            TaskList list = owner;
+            // A task deleted meanwhile has taken its description back before leaving the list
+            text = list != null ? list.getDescription(descriptionId) : description;
+        }
+        assert text != null : "Task description should not be null";
+        return text;
+    }
+
+    /**
+     * Returns the id of the description in the arena of the task's list.
+     */
+    int getDescriptionId() {
+        assert description == null : "Description should be kept in the arena";
+        return descriptionId;
     }
 
     public boolean isDone() {
         return this.isDone;
     }
 
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Sets the stable id of the task. This is done by {@link TaskList} when the task
+     * joins it, and by storage when the task is loaded with a saved id.
+     *
+     * @param id the id, which must not be negative
+     */
+    public void setId(int id) {
+        assert id >= 0 : "Task id should not be negative";
+        this.id = id;
+    }
+
+    TaskType getType() {
+        return type;
+    }
+
+    TaskList getOwner() {
+        return owner;
+    }
+
+    /**
+     * Sets the list the task belongs to, through which it is marked and unmarked, keeping the
+     * description in the list's arena.
+     *
+     * @param owner the list
+     * @param descriptionId the id of the description in the list's arena
+     */
+    void join(TaskList owner, int descriptionId) {
+        this.descriptionId = descriptionId;
+        this.description = null;
+        this.owner = owner;
+    }
+
+    /**
+     * Takes the description back as a string and leaves the list the task belongs to.
+     */
+    void leave() {
+        this.description = getDescription();
+        this.owner = null;
+    }
+
     /**
      * Returns a string representation of the task
      * including its type, status, and description.
+     * The string is made the first time it is needed for the task's status.
      *
      * @return a formatted string of the task
      */
     @Override
     public String toString() {
-        assert type != null : "Task type should not be null when generating string";
-        assert description != null : "Task description should not be null when generating string";
-        return "[" + this.type.getCode() + "][" + this.getStatusIcon() + "] " + this.description;
+        boolean isDoneNow = this.isDone;
+        if (!isStringCacheEnabled) {
+            return formatString(isDoneNow);
+        }
+        String cached = isDoneNow ? doneString : pendingString;
+        if (cached == null) {
+            cached = formatString(isDoneNow);
+            if (isDoneNow) {
+                doneString = cached;
+            } else {
+                pendingString = cached;
+            }
+        }
+        return cached;
     }
 
     /**
      * Returns the task in file storage format.
+     * The string is made the first time it is needed for the task's status.
      *
      * @return a string formatted for saving the task to a file
      */
     public String toFileFormat() {
+        boolean isDoneNow = this.isDone;
+        if (!isStringCacheEnabled) {
+            return formatFileFormat(isDoneNow);
+        }
+        String cached = isDoneNow ? doneFileFormat : pendingFileFormat;
+        if (cached == null) {
+            cached = formatFileFormat(isDoneNow);
+            if (isDoneNow) {
+                doneFileFormat = cached;
+            } else {
+                pendingFileFormat = cached;
+            }
+        }
+        return cached;
+    }
+
+    /**
+     * Formats the string representation of the task, including its type, status, and description.
+     * Subclasses add their own fields.
+     *
+     * @param isDone whether to format the task as done
+     * @return a formatted string of the task
+     */
+    protected String formatString(boolean isDone) {
+        assert type != null : "Task type should not be null when generating string";
+        return "[" + this.type.getCode() + "][" + statusIcon(isDone) + "] " + getDescription();
+    }
+
+    /**
+     * Formats the task in file storage format.
+     *
+     * @param isDone whether to format the task as done
+     * @return a string formatted for saving the task to a file
+     */
+    private String formatFileFormat(boolean isDone) {
         assert type != null : "Task type should not be null when saving to file";
-        assert description != null : "Task description should not be null when saving to file";
-        return this.type.getCode() + " | " + (this.isDone ? "1" : "0") + " | " + this.description;
+        return this.type.getCode() + " | " + (isDone ? "1" : "0") + " | " + getDescription() + formatFileFields();
+    }
+
+    /**
+     * Formats the fields saved after the description, each preceded by {@code " | "}.
+     * Subclasses add their own fields.
+     *
+     * @return the fields, or an empty string if there are none
+     */
+    protected String formatFileFields() {
+        return "";
+    }
+
+    /**
+     * Writes the task in file storage format as UTF-8, as {@link #toFileFormat()} would return it.
+     * A description kept in the arena of the task's list is copied as bytes, without decoding it.
+     *
+     * @param out the stream to write to
+     */
+    public void writeFileFormat(ByteArrayOutputStream out) {
+        if (isStringCacheEnabled) {
+            out.writeBytes(toFileFormat().getBytes(StandardCharsets.UTF_8));
+            return;
+        }
+        boolean isDoneNow = this.isDone;
+        out.writeBytes(type.getCode().getBytes(StandardCharsets.UTF_8));
+        out.writeBytes(isDoneNow ? DONE_FIELD : PENDING_FIELD);
+        TaskList list = description == null ? owner : null;
+        if (list != null) {
+            list.writeDescription(descriptionId, out);
+        } else {
+            out.writeBytes(getDescription().getBytes(StandardCharsets.UTF_8));
+        }
+        out.writeBytes(formatFileFields().getBytes(StandardCharsets.UTF_8));
     }
 
     /**
@@ -0,0 +1,196 @@
+package goldenknight.task;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Parses the date and time strings stored with {@link Deadline} and {@link Event} tasks.
+ *
+ * <p>Almost every stored date has the shape {@code d/M/yyyy HHmm} with plain digits.
+ * Those are decoded by hand, which avoids running a {@link DateTimeFormatter} for every
+ * task. Anything else, including dates the formatter would adjust or reject, is handed
+ * to the formatter, so the result is always exactly what
+ * {@code LocalDateTime.parse(text, Deadline.INPUT_FORMAT)} returns.</p>
+ */
+public final class TaskDateTime {
+
+    private static final long MINUTES_PER_DAY = 24 * 60;
+    private static final long DAYS_PER_ERA = 146_097;
+    private static final long DAYS_0000_TO_1970 = 719_468;
+
+    private TaskDateTime() {
+    }
+
+    /**
+     * Parses a date and time given in {@link Deadline#INPUT_FORMAT}.
+     *
+     * @param text the text to parse, e.g. {@code "2/10/2025 1800"}
+     * @return the parsed date and time
+     * @throws java.time.format.DateTimeParseException if the text cannot be parsed
+     */
+    public static LocalDateTime parse(String text) {
+        LocalDateTime parsed = parseDigits(text);
+        return parsed != null ? parsed : LocalDateTime.parse(text, Deadline.INPUT_FORMAT);
+    }
+
+    /**
+     * Returns the number of whole minutes between the epoch and the given date and time,
+     * both taken as UTC so that the value does not depend on the time zone.
+     *
+     * @param dateTime the date and time to convert
+     * @return the minutes since 1/1/1970 0000, negative for earlier dates
+     */
+    public static long toEpochMinutes(LocalDateTime dateTime) {
+        return Math.floorDiv(dateTime.toEpochSecond(ZoneOffset.UTC), 60);
+    }
+
+    /**
+     * Returns the date and time the given number of minutes after the epoch.
+     *
+     * @param epochMinutes the minutes since 1/1/1970 0000, as returned by {@link #toEpochMinutes}
+     * @return the date and time
+     */
+    public static LocalDateTime ofEpochMinutes(long epochMinutes) {
+        return LocalDateTime.ofEpochSecond(epochMinutes * 60, 0, ZoneOffset.UTC);
+    }
+
+    /**
+     * Parses a date and time given in {@link Deadline#INPUT_FORMAT} into minutes since the epoch,
+     * without creating a {@link LocalDateTime} for the common {@code d/M/yyyy HHmm} shape.
+     *
+     * @param text the text to parse, e.g. {@code "2/10/2025 1800"}
+     * @return the same value as {@code toEpochMinutes(parse(text))}
+     * @throws java.time.format.DateTimeParseException if the text cannot be parsed
+     */
+    public static long parseEpochMinutes(String text) {
+        int secondSlash = checkDigits(text);
+        if (secondSlash < 0) {
+            return toEpochMinutes(LocalDateTime.parse(text, Deadline.INPUT_FORMAT));
+        }
+        int firstSlash = text.indexOf('/');
+        long days = daysFromCivil(digits(text, secondSlash + 1, secondSlash + 5),
+                digits(text, firstSlash + 1, secondSlash), digits(text, 0, firstSlash));
+        return days * MINUTES_PER_DAY + digits(text, secondSlash + 6, secondSlash + 8) * 60
+                + digits(text, secondSlash + 8, text.length());
+    }
+
+    /**
+     * Formats minutes since the epoch in {@link Deadline#INPUT_FORMAT}, without creating a
+     * {@link LocalDateTime} for years 1 to 9999.
+     *
+     * @param epochMinutes the minutes since 1/1/1970 0000
+     * @return the same text as {@code ofEpochMinutes(epochMinutes).format(Deadline.INPUT_FORMAT)}
+     */
+    public static String formatEpochMinutes(long epochMinutes) {
+        long days = Math.floorDiv(epochMinutes, MINUTES_PER_DAY);
+        int minuteOfDay = (int) Math.floorMod(epochMinutes, MINUTES_PER_DAY);
+        // Civil-from-days conversion over 400-year eras, as in java.time.LocalDate.ofEpochDay
+        long shifted = days + DAYS_0000_TO_1970;
+        long era = Math.floorDiv(shifted, DAYS_PER_ERA);
+        long dayOfEra = shifted - era * DAYS_PER_ERA;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long shiftedMonth = (5 * dayOfYear + 2) / 153;
+        int day = (int) (dayOfYear - (153 * shiftedMonth + 2) / 5 + 1);
+        int month = (int) (shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9);
+        long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+        if (year < 1 || year > 9999) {
+            return ofEpochMinutes(epochMinutes).format(Deadline.INPUT_FORMAT);
+        }
+
+        StringBuilder sb = new StringBuilder(15);
+        sb.append(day).append('/').append(month).append('/');
+        appendPadded(sb, (int) year, 4);
+        sb.append(' ');
+        appendPadded(sb, minuteOfDay / 60, 2);
+        appendPadded(sb, minuteOfDay % 60, 2);
+        return sb.toString();
+    }
+
+    private static void appendPadded(StringBuilder sb, int value, int width) {
+        for (int limit = 10; width > 1; width--, limit *= 10) {
+            if (value < limit) {
+                sb.append('0');
+            }
+        }
+        sb.append(value);
+    }
+
+    /**
+     * Returns the number of days from 1/1/1970 to the given date, which must be valid.
+     */
+    private static long daysFromCivil(int year, int month, int day) {
+        long y = month <= 2 ? year - 1 : year;
+        long era = Math.floorDiv(y, 400);
+        long yearOfEra = y - era * 400;
+        long dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * DAYS_PER_ERA + dayOfEra - DAYS_0000_TO_1970;
+    }
+
+    /**
+     * Decodes text of the exact shape {@code d/M/yyyy HHmm} with in-range fields.
+     *
+     * @param text the text to decode
+     * @return the decoded date and time, or {@code null} if the text needs the formatter
+     */
+    private static LocalDateTime parseDigits(String text) {
+        int secondSlash = checkDigits(text);
+        if (secondSlash < 0) {
+            return null;
+        }
+        int firstSlash = text.indexOf('/');
+        return LocalDateTime.of(digits(text, secondSlash + 1, secondSlash + 5),
+                digits(text, firstSlash + 1, secondSlash), digits(text, 0, firstSlash),
+                digits(text, secondSlash + 6, secondSlash + 8), digits(text, secondSlash + 8, text.length()));
+    }
+
+    /**
+     * Checks that text has the exact shape {@code d/M/yyyy HHmm} with in-range fields.
+     *
+     * @param text the text to check
+     * @return the index of the second slash, or -1 if the text needs the formatter
+     */
+    private static int checkDigits(String text) {
+        int length = text.length();
+        int firstSlash = text.indexOf('/');
+        if (firstSlash < 1 || firstSlash > 2) {
+            return -1;
+        }
+        int secondSlash = text.indexOf('/', firstSlash + 1);
+        if (secondSlash - firstSlash < 2 || secondSlash - firstSlash > 3
+                || length != secondSlash + 10 || text.charAt(secondSlash + 5) != ' ') {
+            return -1;
+        }
+
+        int day = digits(text, 0, firstSlash);
+        int month = digits(text, firstSlash + 1, secondSlash);
+        int year = digits(text, secondSlash + 1, secondSlash + 5);
+        int hour = digits(text, secondSlash + 6, secondSlash + 8);
+        int minute = digits(text, secondSlash + 8, length);
+        if (day < 1 || month < 1 || month > 12 || year < 1 || hour < 0 || hour > 23 || minute < 0 || minute > 59) {
+            return -1;
+        }
+        if (day > 28 && day > YearMonth.of(year, month).lengthOfMonth()) {
+            return -1;
+        }
+        return secondSlash;
+    }
+
+    /**
+     * Returns the value of the ASCII digits in the given range, or -1 if any character is not a digit.
+     */
+    private static int digits(String text, int from, int to) {
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+}
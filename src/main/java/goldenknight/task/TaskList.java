@@ -1,14 +1,80 @@
 package goldenknight.task;
 
+import java.io.ByteArrayOutputStream;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Represents a list of {@link Task} objects in the GoldenKnight application.
  * Provides methods to add, delete, access, and retrieve tasks.
+ *
+ * <p>The list also remembers which tasks were added, changed or deleted since
+ * the last time the changes were cleared, so that storage can write only those.</p>
+ *
+ * <p>Each task is given a stable id when it joins the list, unless it already carries one
+ * that is larger than every id handed out so far, as tasks loaded from storage do. Ids
+ * therefore increase along the list, and a task can be found by its id through a hash map.
+ * The id of a deleted task may be handed out again after the list is rebuilt, but never
+ * while the list is in use. Positions, as used by {@link #get(int)} and {@link #delete(int)},
+ * work as before. The tasks are held in a {@link TaskSequence}, so reading or deleting the
+ * task at a position takes O(log n) time instead of moving every later task.</p>
+ *
+ * <p>The words of each task's description are kept in a {@link TokenIndex} so that
+ * {@link #find(String)} does not have to scan every task. Deadlines and events are also kept
+ * in a {@link TimeIndex} ordered by the time they are due, for
+ * {@link #getNextDue(LocalDateTime, boolean)}, and events in an {@link IntervalIndex} for
+ * overlap and free-slot queries.</p>
+ *
+ * <p>The number of tasks of each type, and of those that are done, is counted as tasks are added,
+ * deleted, marked and unmarked, so {@link #getStats(LocalDateTime)} takes O(1) time apart from
+ * the tasks that fell overdue since it was last asked. A task is marked and unmarked through the
+ * list it belongs to, so the counts and indexes stay correct even if the task is marked directly
+ * through {@link Task#markAsDone()}. A task belongs to one list at a time.</p>
+ *
+ * <p>The descriptions of the tasks in the list are kept as UTF-8 bytes in a {@link Utf8Arena}
+ * instead of as strings, whether the tasks were loaded or added later. Equal descriptions share
+ * their bytes, so a description repeated across the list, such as a recurring chore, is kept in
+ * memory once. The word index and {@link #find(String)} match against the bytes, so neither makes
+ * strings of the descriptions.</p>
  */
 public class TaskList {
-    /** The internal list storing the tasks. */
-    private ArrayList<Task> tasks;
+    /** The tasks in list order. */
+    private final TaskSequence tasks;
+
+    /** The descriptions of the tasks in the list, and of tasks deleted while the list is in use. */
+    private final Utf8Arena descriptions = new Utf8Arena();
+
+    /** Tasks added or changed since the changes were last cleared, in the order they changed. */
+    private final Set<Task> dirtyTasks = new LinkedHashSet<>();
+
+    /** Tasks deleted since the changes were last cleared. */
+    private final List<Task> deletedTasks = new ArrayList<>();
+
+    /** The id the next task added is given, unless it carries a larger one. */
+    private int nextId;
+
+    /** Every task in the list, by id. */
+    private final Map<Integer, Task> byId = new HashMap<>();
+
+    /** The words of every task's description, mapped to the ids of the tasks. */
+    private final TokenIndex wordIndex = new TokenIndex();
+
+    /** The deadlines and events, ordered by the time they are due. */
+    private final TimeIndex timeIndex = new TimeIndex();
+
+    /** The events, as spans of time. */
+    private final IntervalIndex eventIndex = new IntervalIndex();
+
+    /** The number of tasks of each type, and of those that are done, by {@link TaskType} ordinal. */
+    private final int[] typeCounts = new int[TaskType.values().length];
+    private final int[] doneCounts = new int[TaskType.values().length];
 
     /**
      * Constructs a {@code TaskList} with an existing list of tasks.
@@ -17,14 +83,18 @@ public class TaskList {
      */
     public TaskList(ArrayList<Task> tasks) {
         assert tasks != null : "Task list provided to constructor should not be null";
-        this.tasks = tasks;
+        nextId = assignIds(tasks);
+        this.tasks = new TaskSequence(tasks);
+        for (Task task : tasks) {
+            indexTask(task);
+        }
     }
 
     /**
      * Constructs an empty {@code TaskList}.
      */
     public TaskList() {
-        this.tasks = new ArrayList<>();
+        this.tasks = new TaskSequence();
         assert this.tasks != null : "Tasks list should be initialized";
     }
 
@@ -35,8 +105,11 @@ public class TaskList {
      */
     public void add(Task task) {
         assert task != null : "Task to add should not be null";
+        nextId = assignId(task, nextId);
         tasks.add(task);
-        assert tasks.contains(task) : "Task should be added to the list";
+        indexTask(task);
+        dirtyTasks.add(task);
+        assert tasks.get(tasks.size() - 1) == task : "Task should be added to the list";
     }
 
     /**
@@ -50,9 +123,240 @@ public class TaskList {
         assert index >= 0 && index < tasks.size() : "Index for delete should be within bounds";
         Task removed = tasks.remove(index);
         assert removed != null : "Deleted task should not be null";
+        int id = removed.getId();
+        int descriptionId = removed.getDescriptionId();
+        wordIndex.remove(id, descriptions.bytes(), descriptions.start(descriptionId), descriptions.end(descriptionId));
+        timeIndex.remove(id, removed);
+        if (removed instanceof Event) {
+            eventIndex.remove(id, (Event) removed);
+        }
+        byId.remove(id);
+        typeCounts[removed.getType().ordinal()]--;
+        if (removed.isDone()) {
+            doneCounts[removed.getType().ordinal()]--;
+        }
+        if (removed.getOwner() == this) {
+            removed.leave();
+        }
+        dirtyTasks.remove(removed);
+        deletedTasks.add(removed);
         return removed;
     }
 
+    /**
+     * Gives ids to tasks about to form a list, in the same way {@link #add(Task)} does.
+     * A task keeps its id if the id is larger than that of every task before it.
+     *
+     * @param tasks the tasks, in list order
+     * @return the id the next task added would be given
+     */
+    public static int assignIds(List<Task> tasks) {
+        int next = 0;
+        for (Task task : tasks) {
+            next = assignId(task, next);
+        }
+        return next;
+    }
+
+    /**
+     * Gives an id to a task joining a list whose next id is {@code next}.
+     *
+     * @return the id the next task added would be given
+     */
+    static int assignId(Task task, int next) {
+        if (task.getId() < next) {
+            task.setId(next);
+        }
+        return task.getId() + 1;
+    }
+
+    private void indexTask(Task task) {
+        int id = task.getId();
+        int descriptionId = descriptions.intern(task.getDescription());
+        byId.put(id, task);
+        wordIndex.add(id, descriptions.bytes(), descriptions.start(descriptionId), descriptions.end(descriptionId));
+        timeIndex.add(id, task);
+        if (task instanceof Event) {
+            eventIndex.add(id, (Event) task);
+        }
+        typeCounts[task.getType().ordinal()]++;
+        if (task.isDone()) {
+            doneCounts[task.getType().ordinal()]++;
+        }
+        task.join(this, descriptionId);
+    }
+
+    /**
+     * Returns the description with the given id in the arena of this list.
+     */
+    String getDescription(int descriptionId) {
+        return descriptions.get(descriptionId);
+    }
+
+    /**
+     * Writes the UTF-8 bytes of the description with the given id in the arena of this list.
+     */
+    void writeDescription(int descriptionId, ByteArrayOutputStream out) {
+        descriptions.writeTo(descriptionId, out);
+    }
+
+    /**
+     * Marks or unmarks a task in the list and brings the indexes and counts up to date.
+     * Called by the task itself, however it was marked.
+     *
+     * <p>The task may have been deleted since it found its list, for example by another thread.
+     * It is then only marked, and neither the indexes nor the counts are touched.</p>
+     *
+     * @param task the task
+     * @param isDone whether the task is now done
+     */
+    void changeStatus(Task task, boolean isDone) {
+        if (task.getOwner() != this || byId.get(task.getId()) != task) {
+            task.setDone(isDone);
+            return;
+        }
+        boolean wasDone = task.setDone(isDone);
+        assert task.isDone() == isDone : "Task should be marked as asked";
+        timeIndex.update(task.getId(), task);
+        if (task.isDone() != wasDone) {
+            doneCounts[task.getType().ordinal()] += task.isDone() ? 1 : -1;
+        }
+        dirtyTasks.add(task);
+    }
+
+    /**
+     * Marks the task at the specified index as done.
+     *
+     * @param index the index of the task to mark (0-based)
+     * @return the marked task
+     */
+    public Task markAsDone(int index) {
+        Task task = get(index);
+        task.markAsDone();
+        return task;
+    }
+
+    /**
+     * Marks the task at the specified index as not done.
+     *
+     * @param index the index of the task to unmark (0-based)
+     * @return the unmarked task
+     */
+    public Task markAsNotDone(int index) {
+        Task task = get(index);
+        task.markAsNotDone();
+        return task;
+    }
+
+    /**
+     * Returns the number of tasks in the list, of those done and overdue, and of each type.
+     * Overdue tasks are the deadlines and events not done whose due time is before the given time.
+     *
+     * @param now the current time
+     * @return the counts
+     */
+    public TaskStats getStats(LocalDateTime now) {
+        long nowMinutes = Math.floorDiv(now.toEpochSecond(ZoneOffset.UTC), 60);
+        return new TaskStats(typeCounts.clone(), doneCounts.clone(), timeIndex.countOverdue(nowMinutes));
+    }
+
+    /**
+     * Returns the deadline or event due soonest after the given time. A deadline is due at its
+     * {@code /by} time and an event at its {@code /to} time. Of several tasks due at the same
+     * minute, the one earliest in the list is returned.
+     *
+     * <p>Tasks should be marked through this list for done tasks to be skipped reliably.</p>
+     *
+     * @param now the time the task must be due after
+     * @param includeDone whether tasks that are done may be returned
+     * @return the next task due, or {@code null} if there is none
+     */
+    public Task getNextDue(LocalDateTime now, boolean includeDone) {
+        long nowMinutes = Math.floorDiv(now.toEpochSecond(ZoneOffset.UTC), 60);
+        return timeIndex.next(nowMinutes + 1, includeDone);
+    }
+
+    /**
+     * Returns the deadlines and events that are not done and are due after the given time,
+     * soonest first, looked up in the time index.
+     *
+     * @param now the time the tasks must be due after
+     * @param count the largest number of tasks to return
+     * @return up to {@code count} tasks, in the order they are due
+     */
+    public ArrayList<Task> getUpcoming(LocalDateTime now, int count) {
+        assert count >= 0 : "Number of upcoming tasks should not be negative";
+        long nowMinutes = Math.floorDiv(now.toEpochSecond(ZoneOffset.UTC), 60);
+        return timeIndex.upcoming(nowMinutes + 1, count);
+    }
+
+    /**
+     * Returns the deadlines and events, done or not, due between the given times inclusive,
+     * in the order they are due.
+     *
+     * @param from the start of the window
+     * @param to the end of the window
+     * @return the tasks due in the window
+     */
+    public ArrayList<Task> getDueBetween(LocalDateTime from, LocalDateTime to) {
+        return timeIndex.between(TaskDateTime.toEpochMinutes(from), TaskDateTime.toEpochMinutes(to));
+    }
+
+    /**
+     * Returns the events, done or not, that overlap the given span of time, ordered by start.
+     * An event ending exactly when the span starts, or starting exactly when it ends, does not overlap it.
+     *
+     * @param from the start of the span
+     * @param to the end of the span
+     * @return the overlapping events
+     */
+    public ArrayList<Event> getOverlapping(LocalDateTime from, LocalDateTime to) {
+        return eventIndex.overlapping(TaskDateTime.toEpochMinutes(from), TaskDateTime.toEpochMinutes(to));
+    }
+
+    /**
+     * Returns the start of the earliest free slot of the given length within a window,
+     * where a slot is free if no event that is not done overlaps it.
+     *
+     * @param from the start of the window
+     * @param to the end of the window
+     * @param length the length of the slot, in whole minutes
+     * @return the start of the slot, or {@code null} if no slot fits in the window
+     */
+    public LocalDateTime findFreeSlot(LocalDateTime from, LocalDateTime to, Duration length) {
+        assert !length.isNegative() : "Length of a free slot should not be negative";
+        long start = eventIndex.freeSlot(TaskDateTime.toEpochMinutes(from), TaskDateTime.toEpochMinutes(to),
+                length.toMinutes());
+        return start == Long.MIN_VALUE ? null : TaskDateTime.ofEpochMinutes(start);
+    }
+
+    /**
+     * Returns the tasks added or changed since the changes were last cleared,
+     * excluding tasks that have since been deleted.
+     *
+     * @return the changed tasks, in the order they first changed
+     */
+    public Set<Task> getDirtyTasks() {
+        return dirtyTasks;
+    }
+
+    /**
+     * Returns the tasks deleted since the changes were last cleared.
+     *
+     * @return the deleted tasks, in the order they were deleted
+     */
+    public List<Task> getDeletedTasks() {
+        return deletedTasks;
+    }
+
+    /**
+     * Forgets all changes, typically once they have been saved.
+     */
+    public void clearChanges() {
+        dirtyTasks.clear();
+        deletedTasks.clear();
+    }
+
     /**
      * Retrieves the task at the specified index.
      *
@@ -67,6 +371,26 @@ public class TaskList {
         return retrieved;
     }
 
+    /**
+     * Returns the task with the given id.
+     *
+     * @param id the id of the task
+     * @return the task, or {@code null} if no task in the list has that id
+     */
+    public Task getById(int id) {
+        return byId.get(id);
+    }
+
+    /**
+     * Returns the position of the task with the given id.
+     *
+     * @param id the id of the task
+     * @return the index of the task (0-based), or -1 if no task in the list has that id
+     */
+    public int indexOf(int id) {
+        return tasks.indexOf(id);
+    }
+
     /**
      * Returns the number of tasks in the list.
      *
@@ -78,17 +402,33 @@ public class TaskList {
     }
 
     /**
-     * Returns the entire list of tasks.
+     * Returns a copy of the entire list of tasks.
+     * Readers that do not change the list should use {@link #snapshot()} instead.
      *
      * @return an {@link ArrayList} containing all tasks
      */
     public ArrayList<Task> getAll() {
         assert tasks != null : "Tasks list should not be null when getting all tasks";
-        return new ArrayList<>(tasks);
+        return tasks.toList();
+    }
+
+    /**
+     * Returns a read-only view of the tasks as they are now, in O(1) time instead of copying them.
+     *
+     * <p>Tasks added to or deleted from this list afterwards do not show in the view, so readers
+     * such as storage can go through a consistent list while the list goes on changing. The view
+     * holds the same task objects as the list, so a task marked afterwards shows as marked.</p>
+     *
+     * @return the tasks in list order
+     */
+    public List<Task> snapshot() {
+        return tasks.snapshot();
     }
 
     /**
      * Searches for tasks that contain the specified keyword in their description.
+     * Only the tasks posted under words containing the keyword are looked at, unless every word
+     * of the keyword is shorter than three characters, in which case every task is scanned.
      *
      * @param keyword the keyword to search for in the task descriptions
      * @return an {@code ArrayList<Task>} containing all tasks whose descriptions
@@ -96,10 +436,16 @@ public class TaskList {
      */
     public ArrayList<Task> find(String keyword) {
         assert keyword != null && !keyword.isBlank() : "Keyword for find should not be null or blank";
-        ArrayList<Task> results = new ArrayList<>();
-        for (Task task : tasks) {
-            assert task != null : "Task in list should not be null";
-            if (task.getDescription().contains(keyword)) {
+        byte[] keywordBytes = Utf8Arena.encode(keyword);
+        int[] candidates = wordIndex.candidates(keywordBytes);
+        if (candidates == null) {
+            return tasks.filter(task -> descriptions.contains(task.getDescriptionId(), keywordBytes));
+        }
+        boolean isSingleWord = keyword.chars().noneMatch(Character::isWhitespace);
+        ArrayList<Task> results = new ArrayList<>(candidates.length);
+        for (int id : candidates) {
+            Task task = byId.get(id);
+            if (isSingleWord || descriptions.contains(task.getDescriptionId(), keywordBytes)) {
                 results.add(task);
             }
         }
@@ -0,0 +1,344 @@
+package goldenknight.task;
+
+import java.util.AbstractList;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Predicate;
+
+/**
+ * The tasks of a task list in list order, kept in a balanced tree so that reading, appending
+ * and deleting the task at any position take O(log n) expected time.
+ *
+ * <p>The tree is a treap whose in-order walk gives the tasks in list order. Every node counts
+ * the tasks in its subtree, so the task at a position is found by walking down and comparing the
+ * position with the size of each left subtree. Ids increase along the list, which makes the tree
+ * a search tree over ids as well, and the position of an id is found by the same walk. Priorities
+ * are derived from the ids with {@link IntervalIndex#scramble(int)}.</p>
+ *
+ * <p>A {@link #snapshot()} takes O(1) time and shares the tree instead of copying it. Every node is
+ * stamped with the version of the sequence that created it, and taking a snapshot starts a new
+ * version. A change then copies the nodes it would modify if they belong to an older version, which
+ * is at most O(log n) nodes per change, and modifies its own nodes in place. A snapshot therefore
+ * keeps seeing the tasks it was taken with while the sequence goes on changing, and a sequence
+ * that is never snapshotted never copies.</p>
+ */
+final class TaskSequence {
+
+    private Node root;
+
+    /** The version that changes may modify in place. Older nodes may be shared with a snapshot. */
+    private int version;
+
+    /**
+     * Constructs an empty sequence.
+     */
+    TaskSequence() {
+    }
+
+    /**
+     * Constructs a sequence holding the given tasks, in O(n) time.
+     *
+     * @param tasks the tasks in list order, with increasing ids
+     */
+    TaskSequence(List<Task> tasks) {
+        // Builds the treap left to right, keeping its right spine on a stack
+        ArrayDeque<Node> spine = new ArrayDeque<>();
+        for (Task task : tasks) {
+            Node node = new Node(task, version);
+            Node last = null;
+            while (!spine.isEmpty() && spine.peek().priority < node.priority) {
+                last = spine.pop();
+                last.update();
+            }
+            node.left = last;
+            if (!spine.isEmpty()) {
+                assert spine.peek().id < node.id : "Ids should increase along the list";
+                spine.peek().right = node;
+            }
+            spine.push(node);
+        }
+        Node last = null;
+        while (!spine.isEmpty()) {
+            last = spine.pop();
+            last.update();
+        }
+        root = last;
+    }
+
+    /**
+     * Returns the number of tasks.
+     *
+     * @return the number of tasks
+     */
+    int size() {
+        return size(root);
+    }
+
+    /**
+     * Adds a task at the end.
+     *
+     * @param task the task, whose id must be larger than that of every task already added
+     */
+    void add(Task task) {
+        root = merge(root, new Node(task, version));
+    }
+
+    /**
+     * Returns the task at the given position.
+     *
+     * @param index the position (0-based), which must be within bounds
+     * @return the task
+     */
+    Task get(int index) {
+        return get(root, index);
+    }
+
+    private static Task get(Node node, int index) {
+        while (true) {
+            int leftSize = size(node.left);
+            if (index < leftSize) {
+                node = node.left;
+            } else if (index > leftSize) {
+                index -= leftSize + 1;
+                node = node.right;
+            } else {
+                return node.task;
+            }
+        }
+    }
+
+    /**
+     * Removes the task at the given position.
+     *
+     * @param index the position (0-based), which must be within bounds
+     * @return the removed task
+     */
+    Task remove(int index) {
+        Task removed = get(index);
+        root = remove(root, index);
+        return removed;
+    }
+
+    /**
+     * Returns the position of the task with the given id.
+     *
+     * @param id the id of the task
+     * @return the position (0-based), or -1 if no task has that id
+     */
+    int indexOf(int id) {
+        return indexOf(root, id);
+    }
+
+    /**
+     * Returns the position of the task with the given id in a view returned by {@link #snapshot()}.
+     * Since the view never changes, this needs no lock even while the sequence goes on changing.
+     *
+     * @param snapshot the view
+     * @param id the id of the task
+     * @return the position (0-based), or -1 if no task in the view has that id
+     */
+    static int indexOf(List<Task> snapshot, int id) {
+        assert snapshot instanceof Snapshot : "List should be a snapshot of a sequence";
+        return indexOf(((Snapshot) snapshot).root, id);
+    }
+
+    private static int indexOf(Node root, int id) {
+        Node node = root;
+        int before = 0;
+        while (node != null) {
+            if (id < node.id) {
+                node = node.left;
+            } else if (id > node.id) {
+                before += size(node.left) + 1;
+                node = node.right;
+            } else {
+                return before + size(node.left);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the tasks in list order.
+     *
+     * @return a new list of the tasks
+     */
+    ArrayList<Task> toList() {
+        return new ArrayList<>(new Snapshot(root));
+    }
+
+    /**
+     * Returns the tasks that satisfy a condition, in list order, without taking a snapshot.
+     *
+     * @param condition the condition to test each task with
+     * @return a new list of the matching tasks
+     */
+    ArrayList<Task> filter(Predicate<Task> condition) {
+        ArrayList<Task> matches = new ArrayList<>();
+        filter(root, condition, matches);
+        return matches;
+    }
+
+    private static void filter(Node node, Predicate<Task> condition, ArrayList<Task> matches) {
+        while (node != null) {
+            filter(node.left, condition, matches);
+            if (condition.test(node.task)) {
+                matches.add(node.task);
+            }
+            node = node.right;
+        }
+    }
+
+    /**
+     * Returns a read-only view of the tasks as they are now, in O(1) time.
+     * Later changes to the sequence do not show in the view.
+     *
+     * @return the view, whose {@code get} takes O(log n) time and whose iteration takes O(1) time per task
+     */
+    List<Task> snapshot() {
+        Snapshot snapshot = new Snapshot(root);
+        version++;
+        return snapshot;
+    }
+
+    /**
+     * Returns the node itself if this version may modify it, or a copy that it may modify otherwise.
+     */
+    private Node own(Node node) {
+        return node.version == version ? node : new Node(node, version);
+    }
+
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private Node remove(Node node, int index) {
+        int leftSize = size(node.left);
+        if (index == leftSize) {
+            return merge(node.left, node.right);
+        }
+        node = own(node);
+        if (index < leftSize) {
+            node.left = remove(node.left, index);
+        } else {
+            node.right = remove(node.right, index - leftSize - 1);
+        }
+        node.size--;
+        return node;
+    }
+
+    /**
+     * Joins two treaps where every node of {@code left} comes before every node of {@code right}.
+     */
+    private Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left = own(left);
+            left.right = merge(left.right, right);
+            left.update();
+            return left;
+        }
+        right = own(right);
+        right.left = merge(left, right.left);
+        right.update();
+        return right;
+    }
+
+    /**
+     * A read-only view of the tree under a root that no change modifies any more.
+     */
+    private static final class Snapshot extends AbstractList<Task> {
+        private final Node root;
+        private final int size;
+
+        Snapshot(Node root) {
+            this.root = root;
+            this.size = TaskSequence.size(root);
+        }
+
+        @Override
+        public Task get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+            }
+            return TaskSequence.get(root, index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public Iterator<Task> iterator() {
+            return new Iterator<>() {
+                private final ArrayDeque<Node> path = new ArrayDeque<>();
+                private Node next = root;
+
+                @Override
+                public boolean hasNext() {
+                    return next != null || !path.isEmpty();
+                }
+
+                @Override
+                public Task next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    while (next != null) {
+                        path.push(next);
+                        next = next.left;
+                    }
+                    Node node = path.pop();
+                    next = node.right;
+                    return node.task;
+                }
+            };
+        }
+    }
+
+    /**
+     * One task in the tree, with the number of tasks in its subtree and the version that created it.
+     */
+    private static final class Node {
+        private final int id;
+        private final int priority;
+        private final Task task;
+        private final int version;
+        private int size = 1;
+        private Node left;
+        private Node right;
+
+        Node(Task task, int version) {
+            this.id = task.getId();
+            this.priority = IntervalIndex.scramble(id);
+            this.task = task;
+            this.version = version;
+        }
+
+        /**
+         * Copies a node of an older version into the given version.
+         */
+        Node(Node node, int version) {
+            this.id = node.id;
+            this.priority = node.priority;
+            this.task = node.task;
+            this.version = version;
+            this.size = node.size;
+            this.left = node.left;
+            this.right = node.right;
+        }
+
+        void update() {
+            size = 1 + TaskSequence.size(left) + TaskSequence.size(right);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package goldenknight.task;
+
+/**
+ * The counts of tasks in a {@link TaskList} at one moment: how many there are, how many are
+ * done, how many are overdue, and how many there are of each {@link TaskType}.
+ *
+ * <p>The counts are kept up to date by the list as tasks are added, deleted, marked and unmarked,
+ * so taking them does not go through the tasks.</p>
+ */
+public final class TaskStats {
+
+    private final int[] counts;
+    private final int[] doneCounts;
+    private final int overdue;
+
+    /**
+     * Constructs the counts from copies of the list's counters.
+     *
+     * @param counts the number of tasks of each type, by ordinal
+     * @param doneCounts the number of tasks of each type that are done, by ordinal
+     * @param overdue the number of deadlines and events not done and due before now
+     */
+    TaskStats(int[] counts, int[] doneCounts, int overdue) {
+        assert counts.length == TaskType.values().length : "There should be a count for each task type";
+        this.counts = counts;
+        this.doneCounts = doneCounts;
+        this.overdue = overdue;
+    }
+
+    public int getTotal() {
+        int total = 0;
+        for (int count : counts) {
+            total += count;
+        }
+        return total;
+    }
+
+    public int getDone() {
+        int done = 0;
+        for (int count : doneCounts) {
+            done += count;
+        }
+        return done;
+    }
+
+    public int getPending() {
+        return getTotal() - getDone();
+    }
+
+    public int getOverdue() {
+        return overdue;
+    }
+
+    /**
+     * Returns the number of tasks of the given type.
+     *
+     * @param type the task type
+     * @return the number of tasks of that type, done or not
+     */
+    public int getCount(TaskType type) {
+        return counts[type.ordinal()];
+    }
+
+    /**
+     * Returns the number of tasks of the given type that are done.
+     *
+     * @param type the task type
+     * @return the number of done tasks of that type
+     */
+    public int getDoneCount(TaskType type) {
+        return doneCounts[type.ordinal()];
+    }
+}
@@ -0,0 +1,211 @@
+package goldenknight.task;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.TreeSet;
+
+/**
+ * Keeps the deadlines and events of a task list ordered by the time they are due.
+ *
+ * <p>A deadline is due at its {@code /by} time and an event at its {@code /to} time. Tasks due at
+ * the same minute are ordered by their ids, which follow the order of the list. Tasks that are not
+ * done and tasks that are done are kept apart, so that looking up the next pending task never has
+ * to step over finished ones.</p>
+ *
+ * <p>The number of pending tasks that are overdue is kept against a watermark: the minute the
+ * count was last brought up to date. Adding or removing a pending task due before the watermark
+ * adjusts the count, and {@link #countOverdue(long)} only has to count the tasks that fell due
+ * since the watermark, so asking again and again as time passes costs O(log n) plus the number
+ * of tasks that became overdue in between.</p>
+ */
+final class TimeIndex {
+
+    private final TreeSet<Entry> pending = new TreeSet<>();
+    private final TreeSet<Entry> done = new TreeSet<>();
+
+    /** The number of pending tasks due before {@link #overdueBefore}. */
+    private int overdue;
+    private long overdueBefore = Long.MIN_VALUE;
+
+    /**
+     * Returns the minute a task is due, or {@link Long#MIN_VALUE} if it has no time.
+     *
+     * @param task the task
+     * @return the minutes since the epoch of its {@code /by} or {@code /to} time
+     */
+    static long dueMinutes(Task task) {
+        if (task instanceof Deadline) {
+            return ((Deadline) task).getByEpochMinutes();
+        } else if (task instanceof Event) {
+            return ((Event) task).getToEpochMinutes();
+        }
+        return Long.MIN_VALUE;
+    }
+
+    /**
+     * Adds a task, doing nothing if it has no time.
+     *
+     * @param id the id of the task
+     * @param task the task
+     */
+    void add(int id, Task task) {
+        long due = dueMinutes(task);
+        if (due != Long.MIN_VALUE) {
+            (task.isDone() ? done : pending).add(new Entry(due, id, task));
+            if (!task.isDone() && due < overdueBefore) {
+                overdue++;
+            }
+        }
+    }
+
+    /**
+     * Removes a task, doing nothing if it has no time.
+     *
+     * @param id the id of the task
+     * @param task the task
+     */
+    void remove(int id, Task task) {
+        long due = dueMinutes(task);
+        if (due != Long.MIN_VALUE) {
+            Entry entry = new Entry(due, id, task);
+            if (pending.remove(entry)) {
+                if (due < overdueBefore) {
+                    overdue--;
+                }
+            } else {
+                done.remove(entry);
+            }
+        }
+    }
+
+    /**
+     * Moves a task to the set matching its current completion status.
+     *
+     * @param id the id of the task
+     * @param task the task, after it was marked or unmarked
+     */
+    void update(int id, Task task) {
+        remove(id, task);
+        add(id, task);
+    }
+
+    /**
+     * Returns the number of tasks that are not done and are due before the given minute.
+     *
+     * @param nowMinutes the current minute since the epoch
+     * @return the number of overdue tasks
+     */
+    int countOverdue(long nowMinutes) {
+        if (nowMinutes < overdueBefore) {
+            // The clock went back, so the count starts over
+            overdue = 0;
+            overdueBefore = Long.MIN_VALUE;
+        }
+        overdue += pending.subSet(new Entry(overdueBefore, Integer.MIN_VALUE, null), true,
+                new Entry(nowMinutes, Integer.MIN_VALUE, null), false).size();
+        overdueBefore = nowMinutes;
+        return overdue;
+    }
+
+    /**
+     * Returns the first task due at or after the given minute.
+     * Of several tasks due at the same minute, the one earliest in the list is returned.
+     *
+     * @param fromMinutes the earliest minute since the epoch to consider
+     * @param includeDone whether tasks that are done may be returned
+     * @return the task, or {@code null} if there is none
+     */
+    Task next(long fromMinutes, boolean includeDone) {
+        Entry from = new Entry(fromMinutes, Integer.MIN_VALUE, null);
+        Entry next = pending.ceiling(from);
+        assert next == null || !next.task.isDone() : "Pending tasks should not be done";
+        if (includeDone) {
+            Entry nextDone = done.ceiling(from);
+            if (next == null || nextDone != null && nextDone.compareTo(next) < 0) {
+                next = nextDone;
+            }
+        }
+        return next == null ? null : next.task;
+    }
+
+    /**
+     * Returns up to {@code limit} tasks that are not done, due at or after the given minute,
+     * in the order they are due.
+     *
+     * @param fromMinutes the earliest minute since the epoch to consider
+     * @param limit the largest number of tasks to return
+     * @return the tasks
+     */
+    ArrayList<Task> upcoming(long fromMinutes, int limit) {
+        ArrayList<Task> tasks = new ArrayList<>(Math.min(limit, pending.size()));
+        for (Entry entry : pending.tailSet(new Entry(fromMinutes, Integer.MIN_VALUE, null))) {
+            if (tasks.size() == limit) {
+                break;
+            }
+            assert !entry.task.isDone() : "Pending tasks should not be done";
+            tasks.add(entry.task);
+        }
+        return tasks;
+    }
+
+    /**
+     * Returns every task, done or not, due between the given minutes inclusive, in the order they are due.
+     *
+     * @param fromMinutes the earliest minute since the epoch
+     * @param toMinutes the latest minute since the epoch
+     * @return the tasks
+     */
+    ArrayList<Task> between(long fromMinutes, long toMinutes) {
+        ArrayList<Task> tasks = new ArrayList<>();
+        if (fromMinutes > toMinutes) {
+            return tasks;
+        }
+        Entry from = new Entry(fromMinutes, Integer.MIN_VALUE, null);
+        Entry to = new Entry(toMinutes, Integer.MAX_VALUE, null);
+        Iterator<Entry> pendingEntries = pending.subSet(from, true, to, true).iterator();
+        Iterator<Entry> doneEntries = done.subSet(from, true, to, true).iterator();
+        Entry nextPending = pendingEntries.hasNext() ? pendingEntries.next() : null;
+        Entry nextDone = doneEntries.hasNext() ? doneEntries.next() : null;
+        while (nextPending != null || nextDone != null) {
+            if (nextDone == null || nextPending != null && nextPending.compareTo(nextDone) < 0) {
+                tasks.add(nextPending.task);
+                nextPending = pendingEntries.hasNext() ? pendingEntries.next() : null;
+            } else {
+                tasks.add(nextDone.task);
+                nextDone = doneEntries.hasNext() ? doneEntries.next() : null;
+            }
+        }
+        return tasks;
+    }
+
+    /**
+     * A task together with the minute it is due and its id, ordered by minute and then id.
+     */
+    private static final class Entry implements Comparable<Entry> {
+        private final long due;
+        private final int id;
+        private final Task task;
+
+        Entry(long due, int id, Task task) {
+            this.due = due;
+            this.id = id;
+            this.task = task;
+        }
+
+        @Override
+        public int compareTo(Entry other) {
+            int byTime = Long.compare(due, other.due);
+            return byTime != 0 ? byTime : Integer.compare(id, other.id);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Entry && compareTo((Entry) other) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(due) * 31 + id;
+        }
+    }
+}
@@ -0,0 +1,344 @@
+package goldenknight.task;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * An inverted index from the words of task descriptions to the ids of the tasks containing them.
+ *
+ * <p>Descriptions and keywords are read as UTF-8 bytes, so the descriptions kept in a
+ * {@link Utf8Arena} are indexed and matched without being decoded. A word is a maximal run of
+ * bytes that do not encode whitespace. Ids are handed out in increasing order as tasks are added,
+ * so every posting list is kept sorted by simply appending to it.</p>
+ *
+ * <p>Any occurrence of a keyword without whitespace lies inside a single word, so the tasks whose
+ * descriptions contain such a keyword are exactly the tasks posted under the words that contain it.
+ * A keyword with whitespace is looked up by each of its words, and the tasks found for all of them
+ * are then checked against the whole keyword by the caller.</p>
+ *
+ * <p>The distinct words are kept in an arena of their own, and the words that contain a keyword
+ * are found through a second index from each trigram, a run of three bytes, to the words it occurs
+ * in. Intersecting the posting lists of the keyword's trigrams leaves only the words that may
+ * contain it, which are then checked byte by byte. Since no UTF-8 character starts inside another,
+ * a word contains the bytes of a keyword exactly when it contains the keyword. A keyword whose words
+ * are all shorter than three bytes has no trigrams to narrow the search with, and may match most of
+ * the vocabulary, so the index gives no candidates for it and the caller scans the tasks instead.</p>
+ *
+ * <p>A word whose last task is removed stays in the vocabulary, with no tasks, until the removed
+ * words outnumber the others, when the vocabulary is rebuilt without them.</p>
+ */
+final class TokenIndex {
+
+    private static final int TRIGRAM_LENGTH = 3;
+
+    /** Minimum number of removed words kept before the vocabulary is rebuilt. */
+    private static final int MIN_COMPACTION_WORDS = 1024;
+
+    /** The distinct words, whose ids in the arena are their word ids. */
+    private Utf8Arena vocabulary = new Utf8Arena();
+
+    /** The ids of the tasks each word occurs in, by word id. */
+    private final ArrayList<Postings> wordTasks = new ArrayList<>();
+    private final Map<Integer, Postings> trigrams = new HashMap<>();
+    private int removedWords;
+
+    /**
+     * Records the words of a task's description under the task's id.
+     * Ids must be added in increasing order.
+     *
+     * @param id the id of the task
+     * @param description the array holding the UTF-8 bytes of the description
+     * @param from the start of the description
+     * @param to the end of the description
+     */
+    void add(int id, byte[] description, int from, int to) {
+        int i = from;
+        while ((i = skipWhitespace(description, i, to)) < to) {
+            int wordEnd = wordEnd(description, i, to);
+            int wordId = vocabulary.intern(description, i, wordEnd);
+            if (wordId == wordTasks.size()) {
+                wordTasks.add(new Postings());
+                indexTrigrams(wordId);
+            } else if (wordTasks.get(wordId).size == 0) {
+                removedWords--;
+            }
+            wordTasks.get(wordId).add(id);
+            i = wordEnd;
+        }
+    }
+
+    /**
+     * Removes a task's id from the posting lists of the words of its description.
+     *
+     * @param id the id of the task
+     * @param description the array holding the UTF-8 bytes of the description when the task was added
+     * @param from the start of the description
+     * @param to the end of the description
+     */
+    void remove(int id, byte[] description, int from, int to) {
+        int i = from;
+        while ((i = skipWhitespace(description, i, to)) < to) {
+            int wordEnd = wordEnd(description, i, to);
+            int wordId = vocabulary.find(description, i, wordEnd);
+            if (wordId >= 0 && wordTasks.get(wordId).remove(id) && wordTasks.get(wordId).size == 0) {
+                removedWords++;
+            }
+            i = wordEnd;
+        }
+        if (removedWords >= Math.max(MIN_COMPACTION_WORDS, wordCount())) {
+            rebuildVocabulary();
+        }
+    }
+
+    private void indexTrigrams(int wordId) {
+        for (int trigram : trigrams(vocabulary.bytes(), vocabulary.start(wordId), vocabulary.end(wordId))) {
+            trigrams.computeIfAbsent(trigram, t -> new Postings()).add(wordId);
+        }
+    }
+
+    /**
+     * Builds the vocabulary again from the words that still have tasks, so that removed words stop
+     * taking up space.
+     */
+    private void rebuildVocabulary() {
+        Utf8Arena old = vocabulary;
+        ArrayList<Postings> oldTasks = new ArrayList<>(wordTasks);
+        vocabulary = new Utf8Arena();
+        wordTasks.clear();
+        trigrams.clear();
+        for (int oldId = 0; oldId < oldTasks.size(); oldId++) {
+            if (oldTasks.get(oldId).size > 0) {
+                int wordId = vocabulary.intern(old.bytes(), old.start(oldId), old.end(oldId));
+                wordTasks.add(oldTasks.get(oldId));
+                indexTrigrams(wordId);
+            }
+        }
+        removedWords = 0;
+    }
+
+    /**
+     * Returns the ids of the tasks whose descriptions may contain the keyword, in increasing order.
+     * If the keyword has no whitespace, every returned task does contain it.
+     *
+     * @param keyword the UTF-8 bytes of the keyword, which must not be blank
+     * @return the sorted, distinct candidate ids, or {@code null} if every word of the keyword is
+     *         shorter than three bytes and the tasks should be scanned instead
+     */
+    int[] candidates(byte[] keyword) {
+        int[] ids = null;
+        boolean hasWord = false;
+        int i = 0;
+        while ((i = skipWhitespace(keyword, i, keyword.length)) < keyword.length) {
+            int wordEnd = wordEnd(keyword, i, keyword.length);
+            hasWord = true;
+            if (wordEnd - i >= TRIGRAM_LENGTH) {
+                int[] tasks = union(wordsContaining(Arrays.copyOfRange(keyword, i, wordEnd)));
+                ids = ids == null ? tasks : intersect(ids, tasks);
+            }
+            i = wordEnd;
+        }
+        assert hasWord : "Keyword should not be blank";
+        return ids;
+    }
+
+    /**
+     * Returns the posting lists of the words that contain the given bytes, which hold no whitespace
+     * and are at least three bytes long.
+     */
+    private ArrayList<Postings> wordsContaining(byte[] part) {
+        assert part.length >= TRIGRAM_LENGTH : "Text should have a trigram";
+        ArrayList<Postings> matches = new ArrayList<>();
+        for (int wordId : wordsWithTrigramsOf(part)) {
+            Postings tasks = wordTasks.get(wordId);
+            if (tasks.size > 0 && vocabulary.contains(wordId, part)) {
+                matches.add(tasks);
+            }
+        }
+        return matches;
+    }
+
+    private static int[] intersect(int[] a, int[] b) {
+        int[] ids = new int[Math.min(a.length, b.length)];
+        int size = 0;
+        int i = 0;
+        int j = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                ids[size++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(ids, size);
+    }
+
+    /**
+     * Returns the ids of the words containing every trigram of the given bytes.
+     */
+    private int[] wordsWithTrigramsOf(byte[] part) {
+        int[] keys = trigrams(part, 0, part.length);
+        Postings[] lists = new Postings[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            lists[i] = trigrams.get(keys[i]);
+            if (lists[i] == null) {
+                return new int[0];
+            }
+        }
+        Arrays.sort(lists, (a, b) -> Integer.compare(a.size, b.size));
+        int[] ids = Arrays.copyOf(lists[0].ids, lists[0].size);
+        int size = ids.length;
+        for (int i = 1; i < lists.length && size > 0; i++) {
+            int kept = 0;
+            int from = 0;
+            for (int j = 0; j < size; j++) {
+                int index = Arrays.binarySearch(lists[i].ids, from, lists[i].size, ids[j]);
+                if (index >= 0) {
+                    ids[kept++] = ids[j];
+                    from = index + 1;
+                } else {
+                    from = -index - 1;
+                }
+            }
+            size = kept;
+        }
+        return Arrays.copyOf(ids, size);
+    }
+
+    /**
+     * Merges the task posting lists of the given words into one sorted list without duplicates.
+     */
+    private static int[] union(ArrayList<Postings> matches) {
+        if (matches.size() == 1) {
+            Postings list = matches.get(0);
+            return Arrays.copyOf(list.ids, list.size);
+        }
+        int total = 0;
+        for (Postings list : matches) {
+            total += list.size;
+        }
+        int[] ids = new int[total];
+        int size = 0;
+        for (Postings list : matches) {
+            System.arraycopy(list.ids, 0, ids, size, list.size);
+            size += list.size;
+        }
+        Arrays.sort(ids);
+        int distinct = 0;
+        for (int i = 0; i < size; i++) {
+            if (distinct == 0 || ids[distinct - 1] != ids[i]) {
+                ids[distinct++] = ids[i];
+            }
+        }
+        return Arrays.copyOf(ids, distinct);
+    }
+
+    /**
+     * Returns the number of distinct words in the index that occur in some task.
+     *
+     * @return the vocabulary size
+     */
+    int wordCount() {
+        return vocabulary.size() - removedWords;
+    }
+
+    /**
+     * Returns the index of the first byte at or after {@code from} that does not encode whitespace.
+     */
+    private static int skipWhitespace(byte[] text, int from, int to) {
+        int i = from;
+        int length;
+        while (i < to && (length = whitespaceLength(text, i, to)) > 0) {
+            i += length;
+        }
+        return i;
+    }
+
+    /**
+     * Returns the index after the word starting at {@code from}.
+     */
+    private static int wordEnd(byte[] text, int from, int to) {
+        int i = from;
+        while (i < to && whitespaceLength(text, i, to) == 0) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Returns the number of bytes of the whitespace character at an index, or 0 if the character
+     * there is not whitespace as {@link Character#isWhitespace(int)} defines it. Apart from ASCII,
+     * all such characters take three bytes in UTF-8.
+     */
+    private static int whitespaceLength(byte[] text, int i, int to) {
+        byte b = text[i];
+        if (b >= 0) {
+            return Character.isWhitespace(b) ? 1 : 0;
+        }
+        if ((b & 0xF0) != 0xE0 || i + 2 >= to) {
+            return 0;
+        }
+        int codePoint = (b & 0x0F) << 12 | (text[i + 1] & 0x3F) << 6 | text[i + 2] & 0x3F;
+        return Character.isWhitespace(codePoint) ? 3 : 0;
+    }
+
+    /**
+     * Returns the distinct trigrams of a word, each packed into an int as three bytes.
+     *
+     * @param word the array holding the UTF-8 bytes of the word
+     * @param from the start of the word
+     * @param to the end of the word
+     * @return the sorted trigrams, or none if the word is shorter than three bytes
+     */
+    static int[] trigrams(byte[] word, int from, int to) {
+        int count = Math.max(0, to - from - TRIGRAM_LENGTH + 1);
+        int[] keys = new int[count];
+        for (int i = 0; i < count; i++) {
+            int at = from + i;
+            keys[i] = (word[at] & 0xFF) << 16 | (word[at + 1] & 0xFF) << 8 | word[at + 2] & 0xFF;
+        }
+        Arrays.sort(keys);
+        int distinct = 0;
+        for (int i = 0; i < count; i++) {
+            if (distinct == 0 || keys[distinct - 1] != keys[i]) {
+                keys[distinct++] = keys[i];
+            }
+        }
+        return Arrays.copyOf(keys, distinct);
+    }
+
+    /**
+     * A growable, sorted list of ids.
+     */
+    private static final class Postings {
+        private int[] ids = new int[2];
+        private int size;
+
+        void add(int id) {
+            if (size > 0 && ids[size - 1] == id) {
+                // The same word again in one description
+                return;
+            }
+            assert size == 0 || ids[size - 1] < id : "Ids should be added in increasing order";
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+
+        boolean remove(int id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index < 0) {
+                return false;
+            }
+            System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+            size--;
+            return true;
+        }
+    }
+}
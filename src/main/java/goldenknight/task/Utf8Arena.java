@@ -0,0 +1,291 @@
+package goldenknight.task;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * A store of distinct strings, each kept once as a slice of UTF-8 bytes in one shared array.
+ *
+ * <p>Interning a string returns the id of its slice, adding the slice only if no equal one is
+ * stored yet, so equal strings share their bytes. Slices are found again through an open-addressing
+ * table of ids keyed by the hash of their bytes, which holds no objects per string. A slice is
+ * never moved or removed once added, so its id stays valid as long as the arena.</p>
+ *
+ * <p>Slices are laid out back to back in the order they were added, so the end of each is all
+ * that needs to be kept. Characters that cannot be encoded, such as a lone surrogate, are stored
+ * as {@code ?}, as {@link String#getBytes} does.</p>
+ *
+ * <p>Only one thread may intern at a time. Other threads may read slices whose ids were published
+ * to them safely, since the arrays are only replaced by filled copies through volatile fields.</p>
+ */
+final class Utf8Arena {
+
+    private static final int EMPTY = -1;
+
+    private volatile byte[] bytes = new byte[1024];
+    private int used;
+
+    /** The end of each slice in {@link #bytes}, by id. */
+    private volatile int[] ends = new int[64];
+    private int[] hashes = new int[64];
+    private int count;
+
+    /** The id of the slice in each slot, or {@link #EMPTY}. The length is a power of two. */
+    private int[] table = newTable(128);
+
+    /**
+     * Returns the id of the given string, adding it if no equal string is stored yet.
+     *
+     * @param text the string
+     * @return the id of its slice
+     */
+    int intern(String text) {
+        // Encode straight into the free space, which is taken only if the string is new
+        ensureCapacity(used + text.length() * 3);
+        int end = encode(text, bytes, used);
+        return internTail(end);
+    }
+
+    /**
+     * Returns the id of the given UTF-8 bytes, adding them if no equal slice is stored yet.
+     *
+     * @param source the array holding the bytes
+     * @param from the index of the first byte
+     * @param to the index after the last byte
+     * @return the id of the slice
+     */
+    int intern(byte[] source, int from, int to) {
+        ensureCapacity(used + to - from);
+        System.arraycopy(source, from, bytes, used, to - from);
+        return internTail(used + to - from);
+    }
+
+    /**
+     * Returns the id of the given UTF-8 bytes without adding them.
+     *
+     * @param source the array holding the bytes
+     * @param from the index of the first byte
+     * @param to the index after the last byte
+     * @return the id of the equal slice, or -1 if there is none
+     */
+    int find(byte[] source, int from, int to) {
+        return table[probe(source, from, to, hash(source, from, to))];
+    }
+
+    /**
+     * Returns the slot of the table that holds the slice equal to the given bytes, or the empty
+     * slot where it would go.
+     */
+    private int probe(byte[] source, int from, int to, int hash) {
+        byte[] data = bytes;
+        int mask = table.length - 1;
+        int slot = hash & mask;
+        while (table[slot] != EMPTY) {
+            int id = table[slot];
+            if (hashes[id] == hash && Arrays.equals(data, start(id), ends[id], source, from, to)) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Looks up the bytes written after the last slice, keeping them as a new slice if they are not stored yet.
+     */
+    private int internTail(int end) {
+        int hash = hash(bytes, used, end);
+        int slot = probe(bytes, used, end, hash);
+        if (table[slot] != EMPTY) {
+            return table[slot];
+        }
+        if (count == ends.length) {
+            ends = Arrays.copyOf(ends, count * 2);
+            hashes = Arrays.copyOf(hashes, count * 2);
+        }
+        int id = count;
+        ends[id] = end;
+        hashes[id] = hash;
+        table[slot] = id;
+        used = end;
+        count++;
+        if (count * 2 > table.length) {
+            rehash(table.length * 2);
+        }
+        return id;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(capacity, bytes.length * 2));
+        }
+    }
+
+    private void rehash(int capacity) {
+        int[] grown = newTable(capacity);
+        int mask = capacity - 1;
+        for (int id = 0; id < count; id++) {
+            int slot = hashes[id] & mask;
+            while (grown[slot] != EMPTY) {
+                slot = (slot + 1) & mask;
+            }
+            grown[slot] = id;
+        }
+        table = grown;
+    }
+
+    private static int[] newTable(int capacity) {
+        int[] table = new int[capacity];
+        Arrays.fill(table, EMPTY);
+        return table;
+    }
+
+    private static int hash(byte[] data, int from, int to) {
+        int h = 1;
+        for (int i = from; i < to; i++) {
+            h = 31 * h + data[i];
+        }
+        return h ^ h >>> 16;
+    }
+
+    /**
+     * Encodes a string as UTF-8 into an array with room for three bytes per character.
+     *
+     * @return the index after the last byte written
+     */
+    private static int encode(String text, byte[] data, int at) {
+        int length = text.length();
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                data[at++] = (byte) c;
+            } else if (c < 0x800) {
+                data[at++] = (byte) (0xC0 | c >> 6);
+                data[at++] = (byte) (0x80 | c & 0x3F);
+            } else if (Character.isHighSurrogate(c) && i + 1 < length
+                    && Character.isLowSurrogate(text.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, text.charAt(++i));
+                data[at++] = (byte) (0xF0 | codePoint >> 18);
+                data[at++] = (byte) (0x80 | codePoint >> 12 & 0x3F);
+                data[at++] = (byte) (0x80 | codePoint >> 6 & 0x3F);
+                data[at++] = (byte) (0x80 | codePoint & 0x3F);
+            } else if (Character.isSurrogate(c)) {
+                data[at++] = '?';
+            } else {
+                data[at++] = (byte) (0xE0 | c >> 12);
+                data[at++] = (byte) (0x80 | c >> 6 & 0x3F);
+                data[at++] = (byte) (0x80 | c & 0x3F);
+            }
+        }
+        return at;
+    }
+
+    /**
+     * Encodes a string as UTF-8 in the same way the arena stores it.
+     *
+     * @param text the string
+     * @return its bytes
+     */
+    static byte[] encode(String text) {
+        byte[] data = new byte[text.length() * 3];
+        return Arrays.copyOf(data, encode(text, data, 0));
+    }
+
+    /**
+     * Returns the string with the given id, decoded from its slice.
+     *
+     * @param id the id
+     * @return the string
+     */
+    String get(int id) {
+        byte[] data = bytes;
+        int start = start(id);
+        return new String(data, start, ends[id] - start, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns the array the slices are kept in. Slices already added stay at the same place in
+     * any array returned later.
+     *
+     * @return the array, which must not be changed
+     */
+    byte[] bytes() {
+        return bytes;
+    }
+
+    /**
+     * Returns the index of the first byte of a slice in {@link #bytes()}.
+     *
+     * @param id the id of the slice
+     * @return the start of the slice
+     */
+    int start(int id) {
+        return id == 0 ? 0 : ends[id - 1];
+    }
+
+    /**
+     * Returns the index after the last byte of a slice in {@link #bytes()}.
+     *
+     * @param id the id of the slice
+     * @return the end of the slice
+     */
+    int end(int id) {
+        return ends[id];
+    }
+
+    /**
+     * Returns whether a slice contains the given UTF-8 bytes. Since no UTF-8 character starts
+     * inside another, this is the same as the strings containing one another.
+     *
+     * @param id the id of the slice
+     * @param part the bytes to look for
+     * @return {@code true} if the slice contains them
+     */
+    boolean contains(int id, byte[] part) {
+        return indexOf(bytes(), start(id), end(id), part) >= 0;
+    }
+
+    /**
+     * Returns where the given bytes first occur within a range of an array.
+     *
+     * @param data the array
+     * @param from the start of the range
+     * @param to the end of the range
+     * @param part the bytes to look for
+     * @return the index of the first occurrence, or -1 if there is none
+     */
+    static int indexOf(byte[] data, int from, int to, byte[] part) {
+        if (part.length == 0) {
+            return from;
+        }
+        byte first = part[0];
+        for (int i = from; i <= to - part.length; i++) {
+            if (data[i] == first && Arrays.equals(data, i, i + part.length, part, 0, part.length)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Writes the bytes of a slice.
+     *
+     * @param id the id of the slice
+     * @param out the stream to write to
+     */
+    void writeTo(int id, ByteArrayOutputStream out) {
+        byte[] data = bytes;
+        int start = start(id);
+        out.write(data, start, ends[id] - start);
+    }
+
+    /**
+     * Returns the number of distinct strings stored.
+     *
+     * @return the number of slices
+     */
+    int size() {
+        return count;
+    }
+}
@@ -1,11 +1,23 @@
 package goldenknight.ui;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Iterator;
+import java.util.List;
+
 import goldenknight.exception.DukeException;
+import goldenknight.parser.CommandLine;
+import goldenknight.parser.Option;
+import goldenknight.parser.Parser;
 import goldenknight.task.Deadline;
 import goldenknight.task.Event;
 import goldenknight.task.Reminder;
 import goldenknight.task.Task;
+import goldenknight.task.TaskDateTime;
 import goldenknight.task.TaskList;
+import goldenknight.task.TaskStats;
+import goldenknight.task.TaskType;
 import goldenknight.task.Todo;
 
 
@@ -16,6 +28,9 @@ import goldenknight.task.Todo;
 public class Ui {
     private static final String LINE = "_______________________________________";
 
+    /** The number of tasks {@code list} shows on a page unless given another size. */
+    public static final int DEFAULT_PAGE_SIZE = 50;
+
     public String getWelcomeMessage() {
         return LINE + "\nHello! I'm the Golden Knight HEEHEEHEEHAA!\n"
                 + "What can I do for you?\n" + LINE;
@@ -25,16 +40,135 @@ public class Ui {
         return LINE + "\nBye. Hope to see you again soon!\n" + LINE;
     }
 
+    /**
+     * Returns the first page of the task list, of {@value #DEFAULT_PAGE_SIZE} tasks. The page ends
+     * with its number and, if there are more pages, the command that shows the next one.
+     *
+     * @param tasks the task list
+     * @return the formatted page
+     */
     public String getTaskListString(TaskList tasks) {
+        return getTaskListString(tasks, 1, DEFAULT_PAGE_SIZE);
+    }
+
+    /**
+     * Returns one page of the task list for the {@code list [page] [size]} command.
+     *
+     * @param tasks the task list
+     * @param args the page number, starting from 1, optionally followed by the page size
+     * @return the formatted page
+     * @throws DukeException if the page or size is not a positive number, or the page is past the end
+     */
+    public String listTasksString(TaskList tasks, String args) throws DukeException {
+        return listTasksString(tasks, Parser.parseArguments(args == null ? "" : args));
+    }
+
+    /**
+     * Returns one page of the task list, from the words of a {@code list} command line.
+     *
+     * @param tasks the task list
+     * @param line the arguments of the list command
+     * @return the formatted page
+     * @throws DukeException if the page or size is not a positive number, or the page is past the end
+     */
+    public String listTasksString(TaskList tasks, CommandLine line) throws DukeException {
+        String usage = "The list command takes a page number and a page size, e.g. list 2 20.";
+        int wordCount = line.getWordCount();
+        if (wordCount > 2) {
+            throw new DukeException(usage);
+        }
+        int page = wordCount > 0 ? parsePositive(line.getWord(0), usage) : 1;
+        int size = wordCount > 1 ? parsePositive(line.getWord(1), usage) : DEFAULT_PAGE_SIZE;
+        int pageCount = pageCount(tasks.size(), size);
+        if (page > pageCount) {
+            throw new DukeException("There is no page " + page + ". Your list has " + pageCount
+                    + (pageCount == 1 ? " page" : " pages") + " of " + size + " tasks.");
+        }
+        return getTaskListString(tasks, page, size);
+    }
+
+    /**
+     * Formats one page of the task list. Only the tasks on the page are formatted, so the cost
+     * depends on the page size and not on the length of the list. Unless the list is empty, the
+     * page ends with its number, so a list cut short by paging never looks like the whole list.
+     *
+     * @param tasks the task list
+     * @param page the page number, starting from 1
+     * @param size the number of tasks on a page
+     * @return the formatted page
+     */
+    private String getTaskListString(TaskList tasks, int page, int size) {
+        List<Task> snapshot = tasks.snapshot();
+        int pageCount = pageCount(snapshot.size(), size);
+        int from = (int) Math.min((long) (page - 1) * size, snapshot.size());
+        int to = (int) Math.min((long) from + size, snapshot.size());
+
         StringBuilder sb = new StringBuilder();
         sb.append(LINE).append("\nHere are the tasks in your list:\n");
-        for (int i = 0; i < tasks.size(); i++) {
-            sb.append(i + 1).append(". ").append(tasks.get(i)).append("\n");
+        Iterator<String> rows = taskRows(snapshot, from, to);
+        while (rows.hasNext()) {
+            sb.append(rows.next()).append("\n");
+        }
+        if (!snapshot.isEmpty()) {
+            sb.append("Page ").append(page).append(" of ").append(pageCount).append(" (tasks ")
+                    .append(from + 1).append("-").append(to).append(" of ").append(snapshot.size()).append(")");
+            if (page < pageCount) {
+                sb.append(". Type list ").append(page + 1);
+                if (size != DEFAULT_PAGE_SIZE) {
+                    sb.append(" ").append(size);
+                }
+                sb.append(" for more");
+            }
+            sb.append(".\n");
         }
         sb.append(LINE);
         return sb.toString();
     }
 
+    /**
+     * Returns the rows of the tasks from position {@code from} up to, but not including, {@code to},
+     * numbered from 1 as in the list. Each row is formatted only when the iterator reaches it, so a
+     * caller that writes the rows out as it goes holds one row at a time.
+     *
+     * @param tasks the tasks, usually a {@link TaskList#snapshot()}
+     * @param from the position of the first task (0-based)
+     * @param to the position after the last task
+     * @return the rows, e.g. {@code 3. [T][ ] Read book}
+     */
+    public Iterator<String> taskRows(List<Task> tasks, int from, int to) {
+        Iterator<Task> page = tasks.subList(from, to).iterator();
+        return new Iterator<>() {
+            private int number = from + 1;
+
+            @Override
+            public boolean hasNext() {
+                return page.hasNext();
+            }
+
+            @Override
+            public String next() {
+                Task task = page.next();
+                return number++ + ". " + task;
+            }
+        };
+    }
+
+    private static int pageCount(int taskCount, int size) {
+        return Math.max(1, (int) ((taskCount + (long) size - 1) / size));
+    }
+
+    private static int parsePositive(String text, String usage) throws DukeException {
+        try {
+            int value = Integer.parseInt(text);
+            if (value > 0) {
+                return value;
+            }
+        } catch (NumberFormatException e) {
+            // Reported below
+        }
+        throw new DukeException(usage);
+    }
+
     /**
      * Adds a new {@link Todo} task to the given task list.
      *
@@ -71,14 +205,31 @@ public class Ui {
      * @throws DukeException if the input is {@code null}, blank, or incorrectly formatted
      */
     public String addDeadlineString(TaskList tasks, String input) throws DukeException {
-        if (input == null || input.isBlank() || !input.contains("/by")) {
+        if (input == null || input.isBlank()) {
+            throw new DukeException("The deadline command must include a description and /by.");
+        }
+        return addDeadlineString(tasks, Parser.parseArguments(input, Option.BY));
+    }
+
+    /**
+     * Adds a new {@link Deadline} task to the given task list, from a command line whose
+     * {@link Option#BY} option has been read.
+     *
+     * @param tasks the list of tasks to which the new deadline will be added
+     * @param line the arguments of the deadline command
+     * @return a formatted confirmation message with the added task and total task count
+     * @throws DukeException if the description or due date is missing
+     */
+    public String addDeadlineString(TaskList tasks, CommandLine line) throws DukeException {
+        if (!line.hasOption(Option.BY)) {
             throw new DukeException("The deadline command must include a description and /by.");
         }
-        String[] parts = input.split(" /by ", 2);
-        if (parts.length < 2 || parts[0].isBlank() || parts[1].isBlank()) {
+        String description = line.getDescription();
+        String by = line.getOption(Option.BY);
+        if (description.isEmpty() || by.isEmpty()) {
             throw new DukeException("The description and date of a deadline cannot be empty.");
         }
-        Task task = new Deadline(parts[0], parts[1]);
+        Task task = new Deadline(description, by);
         tasks.add(task);
         return formatAddedTaskMessage(task, tasks.size());
     }
@@ -99,16 +250,42 @@ public class Ui {
      * @throws DukeException if the input is {@code null}, blank, or incorrectly formatted
      */
     public String addEventString(TaskList tasks, String input) throws DukeException {
-        if (input == null || input.isBlank() || !input.contains("/from") || !input.contains("/to")) {
+        if (input == null || input.isBlank()) {
             throw new DukeException("The event command must include /from and /to.");
         }
-        String[] parts = input.split(" /from | /to ", 3);
-        if (parts.length < 3 || parts[0].isBlank() || parts[1].isBlank() || parts[2].isBlank()) {
+        return addEventString(tasks, Parser.parseArguments(input, Option.FROM, Option.TO));
+    }
+
+    /**
+     * Adds a new {@link Event} task to the given task list, from a command line whose
+     * {@link Option#FROM} and {@link Option#TO} options have been read.
+     *
+     * @param tasks the list of tasks to which the new event will be added
+     * @param line the arguments of the event command
+     * @return a formatted confirmation message with the added task and total task count
+     * @throws DukeException if the description, start time or end time is missing
+     */
+    public String addEventString(TaskList tasks, CommandLine line) throws DukeException {
+        if (!line.hasOption(Option.FROM) || !line.hasOption(Option.TO)) {
+            throw new DukeException("The event command must include /from and /to.");
+        }
+        String description = line.getDescription();
+        String from = line.getOption(Option.FROM);
+        String to = line.getOption(Option.TO);
+        if (description.isEmpty() || from.isEmpty() || to.isEmpty()) {
             throw new DukeException("The description, start time, and end time of an event cannot be empty.");
         }
-        Task task = new Event(parts[0], parts[1], parts[2]);
+        Event task = new Event(description, from, to);
         tasks.add(task);
-        return formatAddedTaskMessage(task, tasks.size());
+        StringBuilder warning = new StringBuilder();
+        for (Event other : tasks.getOverlapping(task.getFromDateTime(), task.getToDateTime())) {
+            if (other != task && !other.isDone()) {
+                warning.append(warning.length() == 0 ? "Warning: this event overlaps with:\n" : "")
+                        .append("  ").append(other).append("\n");
+            }
+        }
+        return LINE + "\nGot it. I've added this task:\n  "
+                + task + "\nNow you have " + tasks.size() + " tasks in the list.\n" + warning + LINE;
     }
 
     /**
@@ -137,8 +314,7 @@ public class Ui {
      */
     public String markTaskString(TaskList tasks, int index) throws DukeException {
         checkIndex(tasks, index);
-        Task task = tasks.get(index);
-        task.markAsDone();
+        Task task = tasks.markAsDone(index);
         return LINE + "\nNice! I've marked this task as done:\n  " + task + "\n" + LINE;
     }
 
@@ -152,8 +328,7 @@ public class Ui {
      */
     public String unmarkTaskString(TaskList tasks, int index) throws DukeException {
         checkIndex(tasks, index);
-        Task task = tasks.get(index);
-        task.markAsNotDone();
+        Task task = tasks.markAsNotDone(index);
         return LINE + "\nOK! I've marked this task as not done yet:\n  " + task + "\n" + LINE;
     }
 
@@ -197,31 +372,273 @@ public class Ui {
         if (keyword == null || keyword.isBlank()) {
             throw new DukeException("The find command requires a keyword.");
         }
-        StringBuilder sb = new StringBuilder();
-        sb.append(LINE).append("\nHere are the matching tasks in your list:\n");
+        return formatTasks("Here are the matching tasks in your list:", tasks.find(keyword),
+                "No matching tasks found.");
+    }
+
+    /**
+     * Returns the next deadlines and events that are not done yet, soonest first.
+     *
+     * @param tasks the task list
+     * @param args the number of tasks to show
+     * @return a formatted string of upcoming tasks
+     * @throws DukeException if the number is missing or not a positive integer
+     */
+    public String upcomingTasksString(TaskList tasks, String args) throws DukeException {
+        int count;
+        try {
+            count = Integer.parseInt(args == null ? "" : args.trim());
+        } catch (NumberFormatException e) {
+            count = 0;
+        }
+        if (count < 1) {
+            throw new DukeException("The upcoming command requires a number of tasks, e.g. upcoming 5.");
+        }
+        return formatTasks("Here are your upcoming tasks:", tasks.getUpcoming(LocalDateTime.now(), count),
+                "You have no upcoming tasks!");
+    }
+
+    /**
+     * Returns the deadlines and events due in a window, done or not, in the order they are due.
+     *
+     * <p>Each end of the window is a date in d/M/yyyy format, optionally followed by a time in
+     * HHmm format. A start without a time begins at 0000 and an end without a time runs to 2359.</p>
+     *
+     * @param tasks the task list
+     * @param args the start and end of the window, e.g. {@code 1/10/2025 7/10/2025 1200}
+     * @return a formatted string of the tasks due in the window
+     * @throws DukeException if the window is missing, malformed or ends before it starts
+     */
+    public String dueTasksString(TaskList tasks, String args) throws DukeException {
+        return dueTasksString(tasks, Parser.parseArguments(args == null ? "" : args));
+    }
+
+    /**
+     * Returns the deadlines and events due in a window, from the words of a {@code due} command line.
+     *
+     * @param tasks the task list
+     * @param line the arguments of the due command
+     * @return a formatted string of the tasks due in the window
+     * @throws DukeException if the window is missing, malformed or ends before it starts
+     */
+    public String dueTasksString(TaskList tasks, CommandLine line) throws DukeException {
+        LocalDateTime[] window = parseWindow(line, 0, false,
+                "The due command requires a start and an end date, e.g. due 1/10/2025 7/10/2025.");
+        return formatTasks("Here are the tasks due in that window:", tasks.getDueBetween(window[0], window[1]),
+                "No tasks are due in that window.");
+    }
+
+    /**
+     * Returns the earliest free slot of a given length within a window, where a slot is free
+     * if no event that is not done overlaps it.
+     *
+     * <p>The length is given in hours and minutes, e.g. {@code 2h}, {@code 45m} or {@code 1h30m}.
+     * The window is given as for {@link #dueTasksString(TaskList, String)}, except that an end
+     * without a time runs to the end of that day.</p>
+     *
+     * @param tasks the task list
+     * @param args the length of the slot followed by the window, e.g. {@code 2h 1/10/2025 7/10/2025}
+     * @return a message with the free slot, or one saying that there is none
+     * @throws DukeException if the length or window is missing or malformed
+     */
+    public String freeSlotString(TaskList tasks, String args) throws DukeException {
+        return freeSlotString(tasks, Parser.parseArguments(args == null ? "" : args));
+    }
+
+    /**
+     * Returns the earliest free slot of a given length within a window, from the words of a
+     * {@code freeslot} command line.
+     *
+     * @param tasks the task list
+     * @param line the arguments of the freeslot command
+     * @return a message with the free slot, or one saying that there is none
+     * @throws DukeException if the length or window is missing or malformed
+     */
+    public String freeSlotString(TaskList tasks, CommandLine line) throws DukeException {
+        String usage = "The freeslot command requires a length and a window, e.g. freeslot 2h 1/10/2025 7/10/2025.";
+        if (line.getWordCount() < 2) {
+            throw new DukeException(usage);
+        }
+        String lengthText = line.getWord(0);
+        Duration length = parseLength(lengthText);
+        LocalDateTime[] window = parseWindow(line, 1, true, usage);
+        LocalDateTime slot = tasks.findFreeSlot(window[0], window[1], length);
+        if (slot == null) {
+            return LINE + "\nThere is no free slot of " + lengthText + " in that window.\n" + LINE;
+        }
+        return LINE + "\nThe earliest free slot of " + lengthText + " is from "
+                + slot.format(Deadline.OUTPUT_FORMAT) + " to " + slot.plus(length).format(Deadline.OUTPUT_FORMAT)
+                + ".\n" + LINE;
+    }
+
+    /**
+     * Parses a length of up to 4 digits of hours followed by up to 5 digits of minutes, either of
+     * which may be left out, e.g. {@code 2h}, {@code 45m} or {@code 1h30m}.
+     */
+    private static Duration parseLength(String text) throws DukeException {
+        int i = 0;
+        long hours = 0;
+        long minutes = 0;
+        int digits = countDigits(text, i);
+        if (digits >= 1 && digits <= 4 && isUnit(text, i + digits, 'h')) {
+            hours = Long.parseLong(text, i, i + digits, 10);
+            i += digits + 1;
+            digits = countDigits(text, i);
+        }
+        if (digits >= 1 && digits <= 5 && isUnit(text, i + digits, 'm')) {
+            minutes = Long.parseLong(text, i, i + digits, 10);
+            i += digits + 1;
+        }
+        if (i == 0 || i != text.length()) {
+            throw new DukeException("Invalid length: " + text + ". Please use hours and minutes, e.g. 1h30m.");
+        }
+        if (hours == 0 && minutes == 0) {
+            throw new DukeException("The length of a free slot must be at least one minute.");
+        }
+        return Duration.ofHours(hours).plusMinutes(minutes);
+    }
+
+    private static int countDigits(String text, int from) {
+        int i = from;
+        while (i < text.length() && text.charAt(i) >= '0' && text.charAt(i) <= '9') {
+            i++;
+        }
+        return i - from;
+    }
+
+    private static boolean isUnit(String text, int index, char unit) {
+        return index < text.length() && Character.toLowerCase(text.charAt(index)) == unit;
+    }
+
+    /**
+     * Parses a window given as two dates, each optionally followed by a time, from the words of a
+     * command line. A word containing {@code /} is a date, and any other word is the time of the
+     * date before it.
+     *
+     * @param line the command line
+     * @param first the position of the first word of the window
+     * @param isEndExclusive whether an end without a time means the start of the next day rather than 2359
+     * @param usage the message to report if there are not exactly two dates
+     * @return the start and end of the window
+     * @throws DukeException if the window is malformed or ends before it starts
+     */
+    private static LocalDateTime[] parseWindow(CommandLine line, int first, boolean isEndExclusive, String usage)
+            throws DukeException {
+        String[] dates = new String[2];
+        String[] times = new String[2];
         int count = 0;
-        for (Task t : tasks.getAll()) {
-            if (t.getDescription().contains(keyword)) {
-                count++;
-                sb.append(count).append(". ").append(t).append("\n");
+        for (int i = first; i < line.getWordCount(); i++) {
+            String word = line.getWord(i);
+            if (word.indexOf('/') >= 0 && count < 2) {
+                dates[count++] = word;
+            } else if (word.indexOf('/') < 0 && count > 0 && times[count - 1] == null) {
+                times[count - 1] = word;
+            } else {
+                throw new DukeException(usage);
             }
         }
-        if (count == 0) {
-            sb.append("No matching tasks found.\n");
+        if (count != 2) {
+            throw new DukeException(usage);
+        }
+        LocalDateTime from = parseBound(dates[0], times[0], "0000");
+        LocalDateTime to = times[1] != null || !isEndExclusive
+                ? parseBound(dates[1], times[1], "2359")
+                : parseBound(dates[1], null, "0000").plusDays(1);
+        if (to.isBefore(from)) {
+            throw new DukeException("The end of the window cannot be before its start.");
+        }
+        return new LocalDateTime[] {from, to};
+    }
+
+    private static LocalDateTime parseBound(String date, String time, String defaultTime) throws DukeException {
+        try {
+            return TaskDateTime.parse(date + " " + (time == null ? defaultTime : time));
+        } catch (DateTimeParseException e) {
+            String bound = time == null ? date : date + " " + time;
+            throw new DukeException("Invalid date: " + bound + ". Please use d/M/yyyy or d/M/yyyy HHmm.");
+        }
+    }
+
+    /**
+     * Formats tasks as a numbered list in the same layout as {@link #getTaskListString(TaskList)}.
+     *
+     * @param header the line shown above the tasks
+     * @param tasks the tasks to show
+     * @param emptyMessage the line shown instead when there are no tasks
+     * @return the formatted list
+     */
+    private String formatTasks(String header, List<Task> tasks, String emptyMessage) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(LINE).append("\n").append(header).append("\n");
+        int number = 1;
+        for (Task task : tasks) {
+            sb.append(number++).append(". ").append(task).append("\n");
+        }
+        if (tasks.isEmpty()) {
+            sb.append(emptyMessage).append("\n");
         }
         sb.append(LINE);
         return sb.toString();
     }
 
     /**
-     * Returns a message showing the next upcoming task (deadline or event).
+     * Returns the number of tasks in the list: in total, done, pending, overdue and of each type.
+     * The counts are kept by the task list, so no task is rendered.
+     *
+     * @param tasks the task list
+     * @return a formatted string of the counts
+     */
+    public String getStatsString(TaskList tasks) {
+        TaskStats stats = tasks.getStats(LocalDateTime.now());
+        return LINE + "\nHere are the numbers for your list:\n"
+                + "Total: " + stats.getTotal() + " (" + stats.getDone() + " done, "
+                + stats.getPending() + " pending)\n"
+                + "Overdue: " + stats.getOverdue() + "\n"
+                + "Todos: " + stats.getCount(TaskType.TODO) + " (" + stats.getDoneCount(TaskType.TODO) + " done)\n"
+                + "Deadlines: " + stats.getCount(TaskType.DEADLINE)
+                + " (" + stats.getDoneCount(TaskType.DEADLINE) + " done)\n"
+                + "Events: " + stats.getCount(TaskType.EVENT) + " (" + stats.getDoneCount(TaskType.EVENT) + " done)\n"
+                + LINE;
+    }
+
+    /**
+     * Returns a message reporting how many completed tasks were moved to the archive.
+     *
+     * @param count the number of tasks archived
+     * @param days the age in days after which finished deadlines and events were archived
+     * @param remaining the number of tasks left in the list
+     * @return a confirmation message
+     */
+    public String archiveTasksString(int count, int days, int remaining) {
+        return LINE + "\nArchived " + count + " completed task" + (count == 1 ? "" : "s")
+                + " (deadlines and events older than " + days + " days).\n"
+                + "Now you have " + remaining + " tasks in the list.\n" + LINE;
+    }
+
+    /**
+     * Returns the archived tasks that matched an {@code archive find} search.
+     *
+     * @param keyword the keyword that was searched for
+     * @param matches the matching archived tasks
+     * @return a formatted string of matching archived tasks
+     * @throws DukeException if the keyword is null or blank
+     */
+    public String findArchivedTasksString(String keyword, List<Task> matches) throws DukeException {
+        if (keyword == null || keyword.isBlank()) {
+            throw new DukeException("The archive find command requires a keyword.");
+        }
+        return formatTasks("Here are the matching tasks in your archive:", matches,
+                "No matching archived tasks found.");
+    }
+
+    /**
+     * Returns a message showing the next upcoming task (deadline or event) that is not done yet.
      *
      * @param tasks the TaskList containing all tasks
      * @return a reminder string
      */
     public String getNextTaskReminder(TaskList tasks) {
-        // Assuming TaskList has a method getAll() that returns ArrayList<Task>
-        return LINE + "\n" + Reminder.reminder(tasks.getAll()) + "\n" + LINE;
+        return LINE + "\n" + Reminder.reminder(tasks) + "\n" + LINE;
     }
 
     /**
@@ -234,8 +651,9 @@ public class Ui {
         sb.append(LINE).append("\n");
         sb.append("Here are all the available commands:\n\n");
         
-        sb.append("LIST - View all your tasks\n");
-        sb.append("   Format: list\n\n");
+        sb.append("LIST - View your tasks, a page at a time\n");
+        sb.append("   Format: list [page] [size]\n");
+        sb.append("   Example: list 2 20\n\n");
         
         sb.append("TODO - Add a simple task\n");
         sb.append("   Format: todo <description>\n");
@@ -265,6 +683,25 @@ public class Ui {
         sb.append("   Format: find <keyword>\n");
         sb.append("   Example: find meeting\n\n");
         
+        sb.append("UPCOMING - Show the next deadlines and events that are not done\n");
+        sb.append("   Format: upcoming <count>\n");
+        sb.append("   Example: upcoming 5\n\n");
+
+        sb.append("DUE - Show the deadlines and events due between two dates\n");
+        sb.append("   Format: due <from> <to>\n");
+        sb.append("   Example: due 1/10/2025 7/10/2025 1200\n\n");
+
+        sb.append("FREESLOT - Find the earliest time free of events\n");
+        sb.append("   Format: freeslot <length> <from> <to>\n");
+        sb.append("   Example: freeslot 1h30m 1/10/2025 0900 1/10/2025 1800\n\n");
+
+        sb.append("STATS - Count your tasks: done, pending, overdue and of each type\n");
+        sb.append("   Format: stats\n\n");
+
+        sb.append("ARCHIVE - Move finished deadlines and events older than [days] out of your list\n");
+        sb.append("   Format: archive [days] or archive find <keyword>\n");
+        sb.append("   Example: archive 30\n\n");
+
         sb.append("HELP - Show this help message\n");
         sb.append("   Format: help\n\n");
         
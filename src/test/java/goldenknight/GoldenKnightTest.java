@@ -55,6 +55,21 @@ class GoldenKnightTest {
         assertTrue(deleteResponse.contains("Finish homework"));
     }
 
+    @Test
+    void getResponse_shouldRunTypedCommands() {
+        String addResponse = goldenKnight.getResponse("deadline Submit report /by 10/9/2025 2359");
+        assertTrue(addResponse.contains("I've added this task"));
+        // The task file is shared between tests, so the new task is numbered by the count after adding it
+        String count = addResponse.substring(addResponse.indexOf("Now you have ") + "Now you have ".length());
+        int number = Integer.parseInt(count.substring(0, count.indexOf(' ')));
+
+        assertTrue(goldenKnight.getResponse("MARK " + number).contains("[D][X] Submit report"));
+        assertTrue(goldenKnight.getResponse("delete " + number).contains("I've removed this task"));
+        assertTrue(goldenKnight.getResponse("mark two").startsWith("Error:"));
+        assertTrue(goldenKnight.getResponse("event Meeting /from 5/9/2025 1000").startsWith("Error:"));
+        assertTrue(goldenKnight.getResponse("fly away").startsWith("I don't understand"));
+    }
+
     @Test
     void addDeadline_shouldReturnCorrectMessage() {
         String response = goldenKnight.addDeadline("Submit report /by 10/9/2025 2359");
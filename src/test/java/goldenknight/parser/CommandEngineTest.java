@@ -0,0 +1,55 @@
+package goldenknight.parser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import goldenknight.exception.DukeException;
+
+class CommandEngineTest {
+
+    private CommandEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        engine = new CommandEngine();
+        engine.register("echo", CommandLine::getArguments);
+        engine.register("deadline", line -> line.getDescription() + "|" + line.getOption(Option.BY), Option.BY);
+        engine.register("fail", line -> {
+            throw new DukeException("failed");
+        });
+    }
+
+    @Test
+    void execute_shouldDispatchIgnoringCase() {
+        assertEquals("hello world", engine.execute("echo hello world"));
+        assertEquals("hi", engine.execute("  EcHo hi"));
+        assertEquals("return book|2/10/2025 1800", engine.execute("Deadline return book /by 2/10/2025 1800"));
+    }
+
+    @Test
+    void execute_unknownOrFailingCommand_shouldReturnMessage() {
+        assertEquals(CommandEngine.UNKNOWN_COMMAND, engine.execute("ech hello"));
+        assertEquals(CommandEngine.UNKNOWN_COMMAND, engine.execute("echoes"));
+        assertEquals("Error: failed", engine.execute("fail"));
+        assertEquals("Error: OOPS!!! You entered an empty command.", engine.execute(" "));
+    }
+
+    @Test
+    void register_manyCommands_shouldKeepEveryOne() {
+        for (int i = 0; i < 100; i++) {
+            String response = "command " + i;
+            engine.register("cmd" + i, line -> response);
+        }
+        engine.register("ECHO", line -> "replaced");
+        for (int i = 0; i < 100; i++) {
+            assertEquals("command " + i, engine.execute("CMD" + i));
+        }
+        assertEquals("replaced", engine.execute("echo hello"));
+        assertTrue(engine.hasCommand("Deadline"));
+        assertFalse(engine.hasCommand("cmd100"));
+    }
+}
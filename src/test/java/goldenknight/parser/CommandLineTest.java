@@ -0,0 +1,86 @@
+package goldenknight.parser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import goldenknight.exception.DukeException;
+
+class CommandLineTest {
+
+    @Test
+    void tokenize_shouldSplitKeywordAndTrimmedArguments() throws DukeException {
+        CommandLine line = Parser.tokenize("  todo   read book  ");
+        assertEquals("todo", line.getKeyword());
+        assertEquals("read book", line.getArguments());
+        assertTrue(line.isKeyword("TODO"));
+        assertFalse(line.isKeyword("to"));
+
+        CommandLine single = Parser.tokenize("list");
+        assertEquals("list", single.getKeyword());
+        assertEquals("", single.getArguments());
+    }
+
+    @Test
+    void tokenize_blankInput_shouldThrow() {
+        DukeException e = assertThrows(DukeException.class, () -> Parser.tokenize("   "));
+        assertEquals("OOPS!!! You entered an empty command.", e.getMessage());
+    }
+
+    @Test
+    void parseArguments_shouldReadOptionsInAnyOrder() {
+        CommandLine line = Parser.parseArguments("Team meeting  /from 6/9/2025 1000 /to 6/9/2025 1100",
+                Option.FROM, Option.TO);
+        assertEquals("Team meeting", line.getDescription());
+        assertEquals("6/9/2025 1000", line.getOption(Option.FROM));
+        assertEquals("6/9/2025 1100", line.getOption(Option.TO));
+
+        CommandLine reversed = Parser.parseArguments("Team meeting /to 6/9/2025 1100 /from 6/9/2025 1000",
+                Option.FROM, Option.TO);
+        assertEquals("Team meeting", reversed.getDescription());
+        assertEquals("6/9/2025 1000", reversed.getOption(Option.FROM));
+        assertEquals("6/9/2025 1100", reversed.getOption(Option.TO));
+    }
+
+    @Test
+    void parseArguments_optionsNotStandingAlone_shouldStayInText() {
+        CommandLine line = Parser.parseArguments("fix a/b /bypass /by 1/1/2025 1200", Option.BY);
+        assertEquals("fix a/b /bypass", line.getDescription());
+        assertEquals("1/1/2025 1200", line.getOption(Option.BY));
+
+        CommandLine untaken = Parser.parseArguments("read /by the lake", Option.FROM);
+        assertEquals("read /by the lake", untaken.getDescription());
+        assertFalse(untaken.hasOption(Option.BY));
+        assertNull(untaken.getOption(Option.BY));
+    }
+
+    @Test
+    void parseArguments_missingValues_shouldBeEmpty() {
+        CommandLine line = Parser.parseArguments("/by", Option.BY);
+        assertTrue(line.hasOption(Option.BY));
+        assertEquals("", line.getDescription());
+        assertEquals("", line.getOption(Option.BY));
+
+        CommandLine repeated = Parser.parseArguments("a /by b /by c", Option.BY);
+        assertEquals("a", repeated.getDescription());
+        assertEquals("b /by c", repeated.getOption(Option.BY));
+    }
+
+    @Test
+    void getWord_shouldSplitArgumentsOnWhitespace() throws DukeException {
+        CommandLine line = Parser.tokenize("freeslot  1h30m\t1/10/2025 0900   2/10/2025 ");
+        assertEquals(4, line.getWordCount());
+        assertEquals("1h30m", line.getWord(0));
+        assertEquals("1/10/2025", line.getWord(1));
+        assertEquals("0900", line.getWord(2));
+        assertEquals("2/10/2025", line.getWord(3));
+        assertThrows(IndexOutOfBoundsException.class, () -> line.getWord(4));
+
+        assertEquals(0, Parser.tokenize("list").getWordCount());
+        assertEquals(0, Parser.parseArguments("   ").getWordCount());
+    }
+}
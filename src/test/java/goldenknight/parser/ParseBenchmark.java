@@ -0,0 +1,115 @@
+package goldenknight.parser;
+
+import java.lang.management.ManagementFactory;
+import java.util.function.ToIntFunction;
+
+/**
+ * Compares dispatching typed commands the way {@code MainWindow} used to, splitting the input,
+ * lowercasing the keyword, switching on it and splitting deadlines and events by regular
+ * expressions, with running them through a {@link CommandEngine}.
+ *
+ * <p>Both read the description and the {@code /by}, {@code /from} and {@code /to} values of each
+ * command as strings, and report the commands parsed per second and the bytes allocated per command.</p>
+ *
+ * <p>Run with {@code gradlew benchmark -Pbench=goldenknight.parser.ParseBenchmark}.</p>
+ */
+public class ParseBenchmark {
+
+    private static final String[] INPUTS = {
+        "todo read book",
+        "deadline return book /by 2/10/2025 1800",
+        "event project meeting /from 6/9/2025 1000 /to 6/9/2025 1100",
+        "mark 2",
+        "list",
+        "Find book",
+        "delete 3",
+        "upcoming 5",
+    };
+    private static final int COMMANDS = 2_000_000;
+    private static final int WARMUP_RUNS = 3;
+    private static final int MEASURED_RUNS = 5;
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    /** Keeps the parsed parts reachable so that they are not optimised away. */
+    private static long sink;
+
+    public static void main(String[] args) {
+        CommandEngine engine = createEngine();
+        System.out.printf("%10s %16s %16s%n", "parser", "commands/s", "bytes/command");
+        measure("split", ParseBenchmark::parseBySplitting);
+        measure("engine", input -> engine.execute(input).length());
+        System.out.println(sink == 0 ? "" : "(checksum " + sink + ")");
+    }
+
+    /**
+     * Parses a command the way {@code MainWindow} and {@code Ui} did before the engine.
+     */
+    private static int parseBySplitting(String input) {
+        String[] parts = input.split(" ", 2);
+        String command = parts[0].toLowerCase();
+        String rest = parts.length > 1 ? parts[1] : "";
+        switch (command) {
+        case "deadline":
+            String[] deadline = rest.split(" /by ", 2);
+            return deadline[0].length() + deadline[1].length();
+        case "event":
+            String[] event = rest.split(" /from | /to ", 3);
+            return event[0].length() + event[1].length() + event[2].length();
+        case "mark":
+        case "delete":
+        case "upcoming":
+            return Integer.parseInt(rest);
+        case "todo":
+        case "list":
+        case "find":
+            return rest.length();
+        default:
+            return -1;
+        }
+    }
+
+    private static CommandEngine createEngine() {
+        CommandEngine engine = new CommandEngine();
+        engine.register("deadline", line -> respond(line.getDescription().length()
+                + line.getOption(Option.BY).length()), Option.BY);
+        engine.register("event", line -> respond(line.getDescription().length()
+                + line.getOption(Option.FROM).length() + line.getOption(Option.TO).length()), Option.FROM, Option.TO);
+        CommandEngine.Handler number = line -> respond(Integer.parseInt(line.getArguments()));
+        engine.register("mark", number);
+        engine.register("delete", number);
+        engine.register("upcoming", number);
+        CommandEngine.Handler text = line -> respond(line.getArguments().length());
+        engine.register("todo", text);
+        engine.register("list", text);
+        engine.register("find", text);
+        return engine;
+    }
+
+    private static String respond(int value) {
+        sink += value;
+        return "";
+    }
+
+    private static void measure(String name, ToIntFunction<String> parser) {
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            run(parser);
+        }
+        long allocated = THREADS.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_RUNS; i++) {
+            run(parser);
+        }
+        long elapsed = System.nanoTime() - start;
+        allocated = THREADS.getCurrentThreadAllocatedBytes() - allocated;
+        long commands = (long) COMMANDS * MEASURED_RUNS;
+        System.out.printf("%10s %16.0f %16.1f%n", name, commands / (elapsed / 1e9), (double) allocated / commands);
+    }
+
+    private static void run(ToIntFunction<String> parser) {
+        for (int i = 0; i < COMMANDS; i++) {
+            sink += parser.applyAsInt(INPUTS[i % INPUTS.length]);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package goldenknight.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import goldenknight.task.Deadline;
+import goldenknight.task.Event;
+import goldenknight.task.Task;
+import goldenknight.task.Todo;
+
+class BinaryTaskCodecTest {
+
+    private static final String TEST_FILE = "test_binary_tasks.bin";
+
+    @AfterEach
+    void tearDown() {
+        new File(TEST_FILE).delete();
+    }
+
+    private static List<Task> sampleTasks() {
+        List<Task> tasks = new ArrayList<>();
+        tasks.add(new Todo("read book"));
+        tasks.add(new Deadline("return book", "2/9/2025 1800"));
+        tasks.add(new Event("café meeting ☕", "31/12/1969 2330", "1/1/1970 0030"));
+        tasks.add(new Deadline("ancient", "1/1/0001 0000"));
+        tasks.add(new Event("backwards", "5/5/2025 1200", "4/5/2025 0900"));
+        tasks.get(1).markAsDone();
+        tasks.get(2).markAsDone();
+        return tasks;
+    }
+
+    @Test
+    void encodeAndDecode_allTaskTypes_shouldRoundTrip() throws Exception {
+        List<Task> tasks = sampleTasks();
+        List<Task> decoded = new ArrayList<>();
+        BinaryTaskCodec.decode(ByteBuffer.wrap(BinaryTaskCodec.encode(tasks)), decoded);
+
+        assertEquals(tasks.size(), decoded.size());
+        for (int i = 0; i < tasks.size(); i++) {
+            assertEquals(tasks.get(i).toFileFormat(), decoded.get(i).toFileFormat());
+        }
+    }
+
+    @Test
+    void encode_tasks_shouldBeSmallerThanTextFormat() {
+        List<Task> tasks = sampleTasks();
+        int textLength = 0;
+        for (Task task : tasks) {
+            textLength += (task.toFileFormat() + System.lineSeparator()).getBytes().length;
+        }
+        assertTrue(BinaryTaskCodec.encode(tasks).length < textLength);
+    }
+
+    @Test
+    void isBinary_textAndBinaryFiles_shouldDetectHeader() throws Exception {
+        Files.write(Path.of(TEST_FILE), BinaryTaskCodec.encode(List.of()));
+        assertTrue(BinaryTaskCodec.isBinary(Path.of(TEST_FILE)));
+
+        Files.writeString(Path.of(TEST_FILE), "T | 0 | read book\n");
+        assertFalse(BinaryTaskCodec.isBinary(Path.of(TEST_FILE)));
+
+        Files.write(Path.of(TEST_FILE), new byte[] {(byte) 0x89});
+        assertFalse(BinaryTaskCodec.isBinary(Path.of(TEST_FILE)));
+    }
+
+    @Test
+    void decode_truncatedFile_shouldKeepTasksBeforeDamage() {
+        byte[] encoded = BinaryTaskCodec.encode(sampleTasks());
+        List<Task> decoded = new ArrayList<>();
+        ByteBuffer truncated = ByteBuffer.wrap(Arrays.copyOf(encoded, encoded.length - 3));
+
+        assertThrows(IOException.class, () -> BinaryTaskCodec.decode(truncated, decoded));
+        assertEquals(4, decoded.size());
+    }
+
+    @Test
+    void decode_corruptedDescriptionLength_shouldKeepTasksBeforeDamage() {
+        byte[] encoded = BinaryTaskCodec.encode(List.of(new Todo("read book")));
+        // A second task whose description length is a ten-byte varint with the sign bit set
+        byte[] corrupted = Arrays.copyOf(encoded, encoded.length + 13);
+        corrupted[5] = 2;
+        int i = encoded.length;
+        corrupted[i++] = 0;
+        corrupted[i++] = 'T';
+        for (int j = 0; j < 9; j++) {
+            corrupted[i++] = (byte) 0xFF;
+        }
+        corrupted[i++] = 0x01;
+        corrupted[i] = 'x';
+        List<Task> decoded = new ArrayList<>();
+
+        IOException e = assertThrows(IOException.class,
+                () -> BinaryTaskCodec.decode(ByteBuffer.wrap(corrupted), decoded));
+        assertTrue(e.getMessage().contains("Corrupted description length"));
+        assertEquals(1, decoded.size());
+        assertEquals("read book", decoded.get(0).getDescription());
+    }
+
+    @Test
+    void decodeTask_lengthBeyondBuffer_shouldThrowIoException() {
+        byte[] encoded = BinaryTaskCodec.encodeTask(new Todo("read book"));
+        encoded[1] = 0x7F;
+        assertThrows(IOException.class,
+                () -> BinaryTaskCodec.decodeTask(ByteBuffer.wrap(encoded), new byte[256]));
+    }
+
+    @Test
+    void decode_unknownVersion_shouldThrow() {
+        byte[] encoded = BinaryTaskCodec.encode(sampleTasks());
+        encoded[4] = (byte) (BinaryTaskCodec.VERSION + 1);
+        assertThrows(IOException.class,
+                () -> BinaryTaskCodec.decode(ByteBuffer.wrap(encoded), new ArrayList<>()));
+    }
+}
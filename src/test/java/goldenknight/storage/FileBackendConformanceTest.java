@@ -0,0 +1,9 @@
+package goldenknight.storage;
+
+class FileBackendConformanceTest extends StorageBackendConformanceTest {
+
+    @Override
+    StorageBackendType type() {
+        return StorageBackendType.FILE;
+    }
+}
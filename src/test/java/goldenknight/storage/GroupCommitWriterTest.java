@@ -0,0 +1,174 @@
+package goldenknight.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import goldenknight.task.Task;
+import goldenknight.task.TaskList;
+import goldenknight.task.Todo;
+
+class GroupCommitWriterTest {
+
+    private static final String TEST_FILE = "test_group_commit_tasks.txt";
+
+    private final List<List<String>> batches = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        new File(TEST_FILE).delete();
+        new File(TEST_FILE + ".journal").delete();
+    }
+
+    private synchronized void record(List<String> batch) {
+        batches.add(new ArrayList<>(batch));
+    }
+
+    private synchronized int committedEntries() {
+        return batches.stream().mapToInt(List::size).sum();
+    }
+
+    @Test
+    void flush_burstOfEntries_mergedIntoFewCommits() throws IOException {
+        GroupCommitWriter writer = new GroupCommitWriter(this::record, 1000, 1000);
+        for (int i = 0; i < 100; i++) {
+            writer.submit("entry " + i);
+        }
+        writer.flush();
+
+        assertEquals(100, committedEntries());
+        assertTrue(batches.size() < 100, "Burst should be merged into fewer commits");
+        assertEquals("entry 0", batches.get(0).get(0));
+        assertEquals(0, writer.getQueueDepth());
+        assertEquals(100, writer.getCommittedEntries());
+        writer.close();
+    }
+
+    @Test
+    void flush_maxBatchSize_limitsEntriesPerCommit() throws IOException {
+        GroupCommitWriter writer = new GroupCommitWriter(this::record, 1000, 10);
+        for (int i = 0; i < 35; i++) {
+            writer.submit("entry " + i);
+        }
+        writer.flush();
+
+        assertEquals(35, committedEntries());
+        for (List<String> batch : batches) {
+            assertTrue(batch.size() <= 10);
+        }
+        writer.close();
+    }
+
+    @Test
+    void close_commitsPendingEntriesAndRejectsNewOnes() throws IOException {
+        GroupCommitWriter writer = new GroupCommitWriter(this::record, 60_000, 1000);
+        writer.submit("entry");
+        writer.close();
+
+        assertEquals(1, committedEntries());
+        assertThrows(IllegalStateException.class, () -> writer.submit("late entry"));
+    }
+
+    @Test
+    void flush_failingSink_shouldThrowOnceAndKeepWriting() throws IOException {
+        AtomicInteger calls = new AtomicInteger();
+        GroupCommitWriter writer = new GroupCommitWriter(batch -> {
+            if (calls.getAndIncrement() == 0) {
+                throw new IOException("disk full");
+            }
+            record(batch);
+        }, 0, 1000);
+        writer.submit("lost entry");
+        IOException e = assertThrows(IOException.class, writer::flush);
+        assertEquals("disk full", e.getMessage());
+        assertEquals(1, writer.getFailedCommits());
+
+        writer.submit("entry");
+        writer.flush();
+        writer.close();
+        assertEquals(1, committedEntries());
+    }
+
+    @Test
+    void close_rightAfterFlush_shouldCommitInsteadOfReportingStoppedWriter() throws IOException {
+        for (int i = 0; i < 500; i++) {
+            GroupCommitWriter writer = new GroupCommitWriter(this::record, 0, 1000);
+            writer.submit("entry " + i);
+            writer.flush();
+            writer.close();
+        }
+        assertEquals(500, committedEntries());
+    }
+
+    @Test
+    void close_sinkThrowingRuntimeException_shouldThrowInsteadOfHanging() {
+        GroupCommitWriter writer = new GroupCommitWriter(batch -> {
+            throw new IllegalStateException("broken sink");
+        }, 60_000, 1000);
+        writer.submit("entry");
+
+        IOException e = assertThrows(IOException.class, writer::close);
+        assertTrue(e.getCause() instanceof IllegalStateException);
+        assertThrows(IllegalStateException.class, () -> writer.submit("late entry"));
+    }
+
+    @Test
+    void flush_sinkThrowingError_shouldNotHang() {
+        GroupCommitWriter writer = new GroupCommitWriter(batch -> {
+            throw new AssertionError("writer thread dies");
+        }, 0, 1000);
+        writer.submit("entry");
+
+        assertThrows(IOException.class, writer::flush);
+        assertThrows(IOException.class, writer::flush);
+        assertThrows(IOException.class, writer::close);
+    }
+
+    @Test
+    void storage_groupCommit_savesLatestSnapshot() {
+        Storage storage = new Storage(TEST_FILE);
+        storage.enableGroupCommit(5, 64);
+        TaskList tasks = new TaskList(storage.load());
+        for (int i = 0; i < 20; i++) {
+            Task task = new Todo("Todo " + i);
+            tasks.add(task);
+            storage.persistAdd(tasks, task);
+        }
+        tasks.get(3).markAsDone();
+        storage.persistMark(tasks, 3);
+        storage.close();
+
+        ArrayList<Task> loaded = new Storage(TEST_FILE).load();
+        assertEquals(20, loaded.size());
+        assertEquals("T | 1 | Todo 3", loaded.get(3).toFileFormat());
+    }
+
+    @Test
+    void journaledStorage_groupCommit_appendsAllRecords() {
+        JournaledStorage storage = new JournaledStorage(TEST_FILE);
+        storage.enableGroupCommit(5, 64);
+        TaskList tasks = new TaskList(storage.load());
+        for (int i = 0; i < 20; i++) {
+            Task task = new Todo("Todo " + i);
+            tasks.add(task);
+            storage.persistAdd(tasks, task);
+        }
+        tasks.delete(0);
+        storage.persistDelete(tasks, 0);
+        storage.flush();
+
+        ArrayList<Task> loaded = new JournaledStorage(TEST_FILE).load();
+        assertEquals(19, loaded.size());
+        assertEquals("T | 0 | Todo 1", loaded.get(0).toFileFormat());
+        storage.close();
+    }
+}
@@ -0,0 +1,9 @@
+package goldenknight.storage;
+
+class IncrementalBackendConformanceTest extends StorageBackendConformanceTest {
+
+    @Override
+    StorageBackendType type() {
+        return StorageBackendType.INCREMENTAL;
+    }
+}
@@ -0,0 +1,55 @@
+package goldenknight.storage;
+
+import java.io.File;
+import java.util.ArrayList;
+
+import goldenknight.task.Task;
+import goldenknight.task.TaskList;
+
+/**
+ * Compares the cost of saving a single mark with a full rewrite and with {@link IncrementalStorage}.
+ *
+ * <p>Run with {@code gradlew benchmark -Pbench=goldenknight.storage.IncrementalStorageBenchmark}.</p>
+ */
+public class IncrementalStorageBenchmark {
+
+    private static final String BENCH_FILE = "bench_incremental_tasks.txt";
+    private static final int[] SIZES = {100, 10_000, 100_000};
+    private static final int WARMUP_SAVES = 20;
+    private static final int MEASURED_SAVES = 200;
+
+    public static void main(String[] args) {
+        System.out.printf("%-12s %10s %14s%n", "storage", "tasks", "ms/mark");
+        for (int size : SIZES) {
+            ArrayList<Task> generated = StorageBenchmark.generateTasks(size);
+            new Storage(BENCH_FILE).save(generated);
+            System.out.printf("%-12s %10d %14.3f%n", "full", size, timeMarks(new Storage(BENCH_FILE)));
+            System.out.printf("%-12s %10d %14.3f%n", "incremental", size,
+                    timeMarks(new IncrementalStorage(BENCH_FILE)));
+        }
+        new File(BENCH_FILE).delete();
+    }
+
+    private static double timeMarks(Storage storage) {
+        TaskList tasks = new TaskList(storage.load());
+        for (int i = 0; i < WARMUP_SAVES; i++) {
+            mark(storage, tasks, i);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_SAVES; i++) {
+            mark(storage, tasks, i);
+        }
+        return (System.nanoTime() - start) / 1e6 / MEASURED_SAVES;
+    }
+
+    private static void mark(Storage storage, TaskList tasks, int i) {
+        int index = i * 7 % tasks.size();
+        if (tasks.get(index).isDone()) {
+            tasks.markAsNotDone(index);
+            storage.persistUnmark(tasks, index);
+        } else {
+            tasks.markAsDone(index);
+            storage.persistMark(tasks, index);
+        }
+    }
+}
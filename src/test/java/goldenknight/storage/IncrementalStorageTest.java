@@ -0,0 +1,120 @@
+package goldenknight.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import goldenknight.task.Deadline;
+import goldenknight.task.Task;
+import goldenknight.task.TaskList;
+import goldenknight.task.Todo;
+
+class IncrementalStorageTest {
+
+    private static final String TEST_FILE = "test_incremental_tasks.txt";
+
+    private IncrementalStorage storage;
+    private TaskList tasks;
+
+    @BeforeEach
+    void setUp() {
+        storage = new IncrementalStorage(TEST_FILE);
+        tasks = new TaskList(storage.load());
+    }
+
+    @AfterEach
+    void tearDown() {
+        new File(TEST_FILE).delete();
+    }
+
+    private void add(Task task) {
+        tasks.add(task);
+        storage.persistAdd(tasks, task);
+    }
+
+    private void assertReloadsAs(TaskList expected) {
+        ArrayList<Task> loaded = new IncrementalStorage(TEST_FILE).load();
+        assertEquals(expected.size(), loaded.size());
+        for (int i = 0; i < loaded.size(); i++) {
+            assertEquals(expected.get(i).toFileFormat(), loaded.get(i).toFileFormat());
+        }
+    }
+
+    @Test
+    void persistMark_shouldPatchLineInPlace() throws Exception {
+        add(new Todo("Todo 1"));
+        add(new Deadline("Deadline 1", "2/9/2025 1800"));
+        long length = new File(TEST_FILE).length();
+
+        tasks.markAsDone(0);
+        storage.persistMark(tasks, 0);
+
+        assertEquals(length, new File(TEST_FILE).length());
+        assertTrue(Files.readString(Path.of(TEST_FILE)).startsWith("T | 1 | Todo 1"));
+        assertReloadsAs(tasks);
+    }
+
+    @Test
+    void persistDelete_shouldBlankLineUntilCompaction() {
+        for (int i = 0; i < 10; i++) {
+            add(new Todo("Todo " + i));
+        }
+        long length = new File(TEST_FILE).length();
+
+        tasks.delete(3);
+        storage.persistDelete(tasks, 3);
+        assertEquals(length, new File(TEST_FILE).length());
+        assertTrue(storage.getTombstoneRatio() > 0);
+        assertReloadsAs(tasks);
+
+        for (int i = 0; i < 5; i++) {
+            tasks.delete(0);
+            storage.persistDelete(tasks, 0);
+        }
+        assertTrue(new File(TEST_FILE).length() < length, "File should be compacted");
+        assertEquals(0.0, storage.getTombstoneRatio());
+        assertReloadsAs(tasks);
+    }
+
+    @Test
+    void load_afterTombstones_shouldKeepSavingIncrementally() {
+        add(new Todo("Todo 1"));
+        add(new Todo("Todo 2"));
+        add(new Todo("Todo 3"));
+        tasks.delete(1);
+        storage.persistDelete(tasks, 1);
+
+        storage = new IncrementalStorage(TEST_FILE);
+        tasks = new TaskList(storage.load());
+        long length = new File(TEST_FILE).length();
+        tasks.markAsDone(1);
+        storage.persistMark(tasks, 1);
+
+        assertEquals(length, new File(TEST_FILE).length());
+        assertReloadsAs(tasks);
+    }
+
+    @Test
+    void load_fileWithCorruptedLines_shouldRewriteOnNextSave() throws Exception {
+        FileWriter fw = new FileWriter(TEST_FILE);
+        fw.write("T | 0 | Todo 1\nINVALID LINE\nT | 0 | Todo 2");
+        fw.close();
+        storage = new IncrementalStorage(TEST_FILE);
+        tasks = new TaskList(storage.load());
+
+        tasks.markAsDone(1);
+        storage.persistMark(tasks, 1);
+
+        assertEquals("T | 0 | Todo 1 | #0" + System.lineSeparator() + "T | 1 | Todo 2 | #1" + System.lineSeparator(),
+                Files.readString(Path.of(TEST_FILE)));
+    }
+}
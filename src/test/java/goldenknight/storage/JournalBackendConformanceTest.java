@@ -0,0 +1,9 @@
+package goldenknight.storage;
+
+class JournalBackendConformanceTest extends StorageBackendConformanceTest {
+
+    @Override
+    StorageBackendType type() {
+        return StorageBackendType.JOURNAL;
+    }
+}
@@ -0,0 +1,168 @@
+package goldenknight.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import goldenknight.task.Deadline;
+import goldenknight.task.Task;
+import goldenknight.task.TaskList;
+import goldenknight.task.Todo;
+
+class JournaledStorageTest {
+
+    private static final String TEST_FILE = "test_journaled_tasks.txt";
+    private static final String JOURNAL_FILE = TEST_FILE + ".journal";
+
+    private JournaledStorage storage;
+    private TaskList tasks;
+
+    @BeforeEach
+    void setUp() {
+        storage = new JournaledStorage(TEST_FILE);
+        tasks = new TaskList(storage.load());
+    }
+
+    @AfterEach
+    void tearDown() {
+        new File(TEST_FILE).delete();
+        new File(JOURNAL_FILE).delete();
+    }
+
+    private void add(Task task) {
+        tasks.add(task);
+        storage.persistAdd(tasks, task);
+    }
+
+    @Test
+    void persist_mutations_areReplayedOnLoad() {
+        add(new Todo("Todo 1"));
+        add(new Deadline("Deadline 1", "2/9/2025 1800"));
+        add(new Todo("Todo 2"));
+        tasks.get(1).markAsDone();
+        storage.persistMark(tasks, 1);
+        tasks.delete(0);
+        storage.persistDelete(tasks, 0);
+
+        ArrayList<Task> loaded = new JournaledStorage(TEST_FILE).load();
+
+        assertEquals(2, loaded.size());
+        assertEquals("D | 1 | Deadline 1 | 2/9/2025 1800", loaded.get(0).toFileFormat());
+        assertEquals("T | 0 | Todo 2", loaded.get(1).toFileFormat());
+    }
+
+    @Test
+    void persist_doesNotRewriteSnapshot() {
+        add(new Todo("Todo 1"));
+        tasks.get(0).markAsDone();
+        storage.persistMark(tasks, 0);
+        tasks.get(0).markAsNotDone();
+        storage.persistUnmark(tasks, 0);
+
+        assertEquals(0, new File(TEST_FILE).length());
+        assertEquals("T | 0 | Todo 1", new JournaledStorage(TEST_FILE).load().get(0).toFileFormat());
+    }
+
+    @Test
+    void load_tornRecord_shouldSkipRecord() throws Exception {
+        add(new Todo("Todo 1"));
+        try (FileWriter fw = new FileWriter(JOURNAL_FILE, true)) {
+            fw.write("M");
+        }
+
+        ArrayList<Task> loaded = new JournaledStorage(TEST_FILE).load();
+        assertEquals(1, loaded.size());
+        assertEquals("T | 0 | Todo 1", loaded.get(0).toFileFormat());
+    }
+
+    @Test
+    void load_afterCheckpoint_shouldNotReplayTwice() {
+        add(new Todo("Todo 1"));
+
+        // The first load folds the journal into the snapshot
+        assertEquals(1, new JournaledStorage(TEST_FILE).load().size());
+        assertTrue(new File(TEST_FILE).length() > 0);
+        assertEquals(1, new JournaledStorage(TEST_FILE).load().size());
+    }
+
+    @Test
+    void load_staleJournal_shouldBeIgnored() throws Exception {
+        add(new Todo("Todo 1"));
+        // Simulate a crash after the snapshot was written but before the journal was reset
+        try (FileWriter fw = new FileWriter(TEST_FILE)) {
+            fw.write("T | 0 | Todo 1" + System.lineSeparator());
+        }
+
+        ArrayList<Task> loaded = new JournaledStorage(TEST_FILE).load();
+        assertEquals(1, loaded.size());
+    }
+
+    @Test
+    void load_recordTornInsideCharacter_shouldKeepEarlierRecordsAndJournal() throws Exception {
+        add(new Todo("Todo 1"));
+        add(new Todo("Todo 2"));
+        add(new Todo("Todo 3"));
+        // The first byte of a two-byte character, as a crash in the middle of an append would leave it
+        Files.write(Path.of(JOURNAL_FILE), "00000000 A T | 0 | caf".getBytes(StandardCharsets.UTF_8),
+                StandardOpenOption.APPEND);
+        Files.write(Path.of(JOURNAL_FILE), new byte[] {(byte) 0xC3}, StandardOpenOption.APPEND);
+
+        JournaledStorage reloaded = new JournaledStorage(TEST_FILE);
+        TaskList reloadedTasks = new TaskList(reloaded.load());
+        assertEquals(3, reloadedTasks.size());
+
+        Task task = new Todo("Todo 4");
+        reloadedTasks.add(task);
+        reloaded.persistAdd(reloadedTasks, task);
+        assertEquals(4, new JournaledStorage(TEST_FILE).load().size());
+    }
+
+    @Test
+    void load_corruptedRecord_shouldNotShiftLaterRecords() throws Exception {
+        add(new Todo("Todo 1"));
+        add(new Todo("Todo 2"));
+        add(new Todo("Todo 3"));
+        tasks.delete(0);
+        storage.persistDelete(tasks, 0);
+        tasks.get(1).markAsDone();
+        storage.persistMark(tasks, 1);
+
+        List<String> lines = Files.readAllLines(Path.of(JOURNAL_FILE));
+        String delete = lines.get(4);
+        assertTrue(delete.endsWith("D #0"));
+        lines.set(4, (delete.charAt(0) == '0' ? '1' : '0') + delete.substring(1));
+        Files.write(Path.of(JOURNAL_FILE), lines);
+
+        ArrayList<Task> loaded = new JournaledStorage(TEST_FILE).load();
+        assertEquals(3, loaded.size());
+        assertEquals("T | 0 | Todo 2", loaded.get(1).toFileFormat());
+        assertEquals("T | 1 | Todo 3", loaded.get(2).toFileFormat());
+    }
+
+    @Test
+    void load_recordsWithoutChecksumOrId_shouldBeSkipped() throws Exception {
+        add(new Todo("Todo 1"));
+        add(new Todo("Todo 2"));
+        try (FileWriter fw = new FileWriter(JOURNAL_FILE, true)) {
+            fw.write("D #0" + System.lineSeparator());
+        }
+        new Journal(JOURNAL_FILE).append(List.of("M 1", "A T | 0 | Todo 3"), false);
+
+        ArrayList<Task> loaded = new JournaledStorage(TEST_FILE).load();
+        assertEquals(2, loaded.size());
+        assertEquals("T | 0 | Todo 1", loaded.get(0).toFileFormat());
+        assertEquals("T | 0 | Todo 2", loaded.get(1).toFileFormat());
+    }
+}
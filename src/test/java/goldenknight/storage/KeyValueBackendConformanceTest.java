@@ -0,0 +1,14 @@
+package goldenknight.storage;
+
+class KeyValueBackendConformanceTest extends StorageBackendConformanceTest {
+
+    @Override
+    StorageBackendType type() {
+        return StorageBackendType.KEY_VALUE;
+    }
+
+    @Override
+    String storeFile(String taskFile) {
+        return taskFile + ".kv";
+    }
+}
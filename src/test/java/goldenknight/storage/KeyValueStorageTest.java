@@ -0,0 +1,127 @@
+package goldenknight.storage;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import goldenknight.task.Task;
+import goldenknight.task.TaskList;
+import goldenknight.task.Todo;
+
+class KeyValueStorageTest {
+
+    private static final String TEST_FILE = "test_key_value_tasks.txt";
+    private static final String STORE_FILE = TEST_FILE + ".kv";
+
+    @AfterEach
+    void tearDown() {
+        new File(TEST_FILE).delete();
+        new File(STORE_FILE).delete();
+        new File(STORE_FILE + ".tmp").delete();
+        new File(STORE_FILE + ".corrupt").delete();
+    }
+
+    @Test
+    void load_tornLastRecord_shouldKeepEarlierRecords() throws Exception {
+        KeyValueStorage storage = new KeyValueStorage(TEST_FILE);
+        TaskList tasks = new TaskList(storage.load());
+        for (int i = 0; i < 3; i++) {
+            Task task = new Todo("Todo " + i);
+            tasks.add(task);
+            storage.persistAdd(tasks, task);
+        }
+        storage.close();
+        try (RandomAccessFile file = new RandomAccessFile(STORE_FILE, "rw")) {
+            file.setLength(file.length() - 2);
+        }
+
+        storage = new KeyValueStorage(TEST_FILE);
+        tasks = new TaskList(storage.load());
+        assertEquals(2, tasks.size());
+        Task task = new Todo("Todo 3");
+        tasks.add(task);
+        storage.persistAdd(tasks, task);
+        storage.close();
+
+        ArrayList<Task> loaded = new KeyValueStorage(TEST_FILE).load();
+        assertEquals(3, loaded.size());
+        assertEquals("T | 0 | Todo 3", loaded.get(2).toFileFormat());
+        assertEquals(2, loaded.get(2).getId());
+    }
+
+    @Test
+    void load_textTaskFile_shouldImportTasksAndKeepFile() throws Exception {
+        String text = "T | 1 | Todo 1\nD | 0 | Deadline 1 | 2/9/2025 1800\n";
+        FileWriter fw = new FileWriter(TEST_FILE);
+        fw.write(text);
+        fw.close();
+
+        KeyValueStorage storage = new KeyValueStorage(TEST_FILE);
+        TaskList tasks = new TaskList(storage.load());
+        assertEquals(2, tasks.size());
+        Task task = new Todo("Todo 2");
+        tasks.add(task);
+        storage.persistAdd(tasks, task);
+        storage.close();
+
+        assertEquals(text, Files.readString(Path.of(TEST_FILE)));
+        ArrayList<Task> loaded = new KeyValueStorage(TEST_FILE).load();
+        assertEquals(3, loaded.size());
+        assertEquals("D | 0 | Deadline 1 | 2/9/2025 1800", loaded.get(1).toFileFormat());
+    }
+
+    @Test
+    void persistDeletesAndMarks_shouldReplayByTaskId() throws Exception {
+        KeyValueStorage storage = new KeyValueStorage(TEST_FILE);
+        TaskList tasks = new TaskList(storage.load());
+        for (int i = 0; i < 6; i++) {
+            Task task = new Todo("Todo " + i);
+            tasks.add(task);
+            storage.persistAdd(tasks, task);
+        }
+        tasks.delete(1);
+        storage.persistDelete(tasks, 1);
+        tasks.delete(3);
+        tasks.delete(0);
+        storage.persistDeletes(tasks, List.of(3, 0));
+        tasks.markAsDone(1);
+        storage.persistMark(tasks, 1);
+        storage.close();
+
+        ArrayList<Task> loaded = new KeyValueStorage(TEST_FILE).load();
+        assertEquals(3, loaded.size());
+        assertEquals("T | 0 | Todo 2", loaded.get(0).toFileFormat());
+        assertEquals("T | 1 | Todo 3", loaded.get(1).toFileFormat());
+        assertEquals("T | 0 | Todo 5", loaded.get(2).toFileFormat());
+        assertEquals(5, loaded.get(2).getId());
+    }
+
+    @Test
+    void load_unreadableStore_shouldSetItAsideAndKeepSaving() throws Exception {
+        byte[] futureVersion = {(byte) 0x89, 'G', 'K', 'V', 9, 1, 2, 3};
+        Files.write(Path.of(STORE_FILE), futureVersion);
+
+        KeyValueStorage storage = new KeyValueStorage(TEST_FILE);
+        TaskList tasks = new TaskList(storage.load());
+        assertEquals(0, tasks.size());
+        Task task = new Todo("Todo 1");
+        tasks.add(task);
+        storage.persistAdd(tasks, task);
+        storage.close();
+
+        assertArrayEquals(futureVersion, Files.readAllBytes(Path.of(STORE_FILE + ".corrupt")));
+        ArrayList<Task> loaded = new KeyValueStorage(TEST_FILE).load();
+        assertEquals(1, loaded.size());
+        assertEquals("T | 0 | Todo 1", loaded.get(0).toFileFormat());
+    }
+}
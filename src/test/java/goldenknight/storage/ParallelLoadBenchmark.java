@@ -0,0 +1,56 @@
+package goldenknight.storage;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+
+import goldenknight.task.Task;
+
+/**
+ * Compares sequential and parallel {@link Storage#load()} of a large task file
+ * for an increasing number of threads.
+ *
+ * <p>Run with {@code gradlew benchmark -Pbench=goldenknight.storage.ParallelLoadBenchmark}.</p>
+ */
+public class ParallelLoadBenchmark {
+
+    private static final String BENCH_FILE = "bench_parallel_tasks.txt";
+    private static final int TASK_COUNT = 1_000_000;
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) {
+        new Storage(BENCH_FILE).save(StorageBenchmark.generateTasks(TASK_COUNT));
+        System.out.printf("%d tasks, %.1f MB, %d cores%n", TASK_COUNT,
+                new File(BENCH_FILE).length() / 1e6, Runtime.getRuntime().availableProcessors());
+
+        Storage sequential = new Storage(BENCH_FILE);
+        sequential.setParallelLoad(null, Long.MAX_VALUE);
+        double baseline = timeLoad(sequential);
+        System.out.printf("%-12s %10s %10s%n", "threads", "ms/load", "speedup");
+        System.out.printf("%-12s %10.1f %10.2f%n", "sequential", baseline, 1.0);
+
+        for (int threads = 2; threads <= Runtime.getRuntime().availableProcessors() * 2; threads *= 2) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            Storage parallel = new Storage(BENCH_FILE);
+            parallel.setParallelLoad(pool, 0);
+            double millis = timeLoad(parallel);
+            System.out.printf("%-12d %10.1f %10.2f%n", threads, millis, baseline / millis);
+            pool.shutdown();
+        }
+        new File(BENCH_FILE).delete();
+    }
+
+    private static double timeLoad(Storage storage) {
+        int loaded = 0;
+        for (int i = 0; i < ROUNDS; i++) {
+            loaded += storage.load().size();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            ArrayList<Task> tasks = storage.load();
+            loaded += tasks.size();
+        }
+        assert loaded == 2 * ROUNDS * TASK_COUNT : "Every round should load every task";
+        return (System.nanoTime() - start) / 1e6 / ROUNDS;
+    }
+}
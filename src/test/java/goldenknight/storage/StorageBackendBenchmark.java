@@ -0,0 +1,72 @@
+package goldenknight.storage;
+
+import java.io.File;
+import java.util.ArrayList;
+
+import goldenknight.task.Task;
+import goldenknight.task.TaskList;
+
+/**
+ * Measures every {@link StorageBackendType} on the same workload: adding tasks, marking them,
+ * deleting some, and loading the result again.
+ *
+ * <p>Run with {@code gradlew benchmark -Pbench=goldenknight.storage.StorageBackendBenchmark}.</p>
+ */
+public class StorageBackendBenchmark {
+
+    private static final String BENCH_FILE = "bench_backend_tasks.txt";
+    private static final String[] SIDE_FILE_SUFFIXES = {
+        "", ".journal", ".tmp", ".archive.gz", ".archive.gz.tmp", ".kv", ".kv.tmp"
+    };
+    private static final int TASK_COUNT = 5_000;
+    private static final int DELETE_COUNT = 500;
+
+    public static void main(String[] args) {
+        ArrayList<Task> generated = StorageBenchmark.generateTasks(TASK_COUNT);
+        System.out.printf("%-12s %12s %12s %12s %12s%n", "backend", "us/add", "us/mark", "us/delete", "ms/load");
+        for (StorageBackendType type : StorageBackendType.values()) {
+            deleteFiles();
+            StorageBackend backend = type.create(BENCH_FILE, Durability.NONE);
+            TaskList tasks = new TaskList(backend.load());
+
+            long start = System.nanoTime();
+            for (Task task : generated) {
+                tasks.add(task);
+                backend.persistAdd(tasks, task);
+            }
+            double microsPerAdd = (System.nanoTime() - start) / 1e3 / TASK_COUNT;
+
+            start = System.nanoTime();
+            for (int i = 0; i < TASK_COUNT; i++) {
+                tasks.markAsDone(i);
+                backend.persistMark(tasks, i);
+            }
+            double microsPerMark = (System.nanoTime() - start) / 1e3 / TASK_COUNT;
+
+            start = System.nanoTime();
+            for (int i = 0; i < DELETE_COUNT; i++) {
+                tasks.delete(i);
+                backend.persistDelete(tasks, i);
+            }
+            double microsPerDelete = (System.nanoTime() - start) / 1e3 / DELETE_COUNT;
+            backend.close();
+
+            start = System.nanoTime();
+            StorageBackend reloaded = type.create(BENCH_FILE, Durability.NONE);
+            int loaded = reloaded.load().size();
+            double millisPerLoad = (System.nanoTime() - start) / 1e6;
+            reloaded.close();
+            assert loaded == TASK_COUNT - DELETE_COUNT : "Every remaining task should be loaded";
+
+            System.out.printf("%-12s %12.1f %12.1f %12.1f %12.1f%n", type, microsPerAdd, microsPerMark,
+                    microsPerDelete, millisPerLoad);
+        }
+        deleteFiles();
+    }
+
+    private static void deleteFiles() {
+        for (String suffix : SIDE_FILE_SUFFIXES) {
+            new File(BENCH_FILE + suffix).delete();
+        }
+    }
+}
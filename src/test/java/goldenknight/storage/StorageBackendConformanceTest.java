@@ -0,0 +1,149 @@
+package goldenknight.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import goldenknight.task.Deadline;
+import goldenknight.task.Event;
+import goldenknight.task.Task;
+import goldenknight.task.TaskList;
+import goldenknight.task.Todo;
+
+/**
+ * Checks the behaviour every {@link StorageBackend} must share.
+ * Each backend runs these tests through a subclass that names its {@link StorageBackendType}.
+ */
+abstract class StorageBackendConformanceTest {
+
+    private static final String[] SIDE_FILE_SUFFIXES = {
+        "", ".journal", ".tmp", ".archive.gz", ".archive.gz.tmp", ".kv", ".kv.tmp"
+    };
+
+    private String testFile;
+    private StorageBackend backend;
+    private TaskList tasks;
+
+    /**
+     * Returns the type of the backend under test.
+     */
+    abstract StorageBackendType type();
+
+    /**
+     * Returns the file the backend keeps its tasks in, given the task file it was created for.
+     */
+    String storeFile(String taskFile) {
+        return taskFile;
+    }
+
+    @BeforeEach
+    void setUp() {
+        testFile = "test_conformance_" + type().name().toLowerCase() + ".txt";
+        tearDown();
+        backend = type().create(testFile, Durability.NONE);
+        tasks = new TaskList(backend.load());
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (backend != null) {
+            backend.close();
+        }
+        for (String suffix : SIDE_FILE_SUFFIXES) {
+            new File(testFile + suffix).delete();
+        }
+    }
+
+    private void add(Task task) {
+        tasks.add(task);
+        backend.persistAdd(tasks, task);
+    }
+
+    private void assertReloadsAs(TaskList expected) {
+        backend.flush();
+        StorageBackend reloaded = type().create(testFile, Durability.NONE);
+        ArrayList<Task> loaded = reloaded.load();
+        reloaded.close();
+        assertEquals(expected.size(), loaded.size());
+        for (int i = 0; i < loaded.size(); i++) {
+            assertEquals(expected.get(i).toFileFormat(), loaded.get(i).toFileFormat());
+        }
+    }
+
+    @Test
+    void load_missingFile_shouldReturnEmptyList() {
+        assertEquals(0, tasks.size());
+        assertTrue(new File(storeFile(testFile)).exists());
+    }
+
+    @Test
+    void persist_everyMutation_shouldSurviveReload() {
+        add(new Todo("Todo 1"));
+        add(new Deadline("Deadline 1", "2/9/2025 1800"));
+        add(new Event("Event 1", "2/9/2025 1000", "2/9/2025 1200"));
+        tasks.markAsDone(1);
+        backend.persistMark(tasks, 1);
+        tasks.markAsDone(2);
+        backend.persistMark(tasks, 2);
+        tasks.markAsNotDone(2);
+        backend.persistUnmark(tasks, 2);
+        tasks.delete(0);
+        backend.persistDelete(tasks, 0);
+
+        assertReloadsAs(tasks);
+    }
+
+    @Test
+    void persistDeletes_severalIndices_shouldSurviveReload() {
+        for (int i = 0; i < 6; i++) {
+            add(new Todo("Todo " + i));
+        }
+        tasks.delete(4);
+        tasks.delete(2);
+        tasks.delete(0);
+        backend.persistDeletes(tasks, List.of(4, 2, 0));
+
+        assertReloadsAs(tasks);
+    }
+
+    @Test
+    void persist_manyMutations_shouldSurviveCompaction() {
+        for (int i = 0; i < 3000; i++) {
+            add(new Todo("Todo " + i));
+        }
+        for (int i = 0; i < 3000; i += 2) {
+            tasks.markAsDone(i);
+            backend.persistMark(tasks, i);
+        }
+        for (int i = 0; i < 1500; i++) {
+            tasks.delete(i);
+            backend.persistDelete(tasks, i);
+        }
+
+        assertReloadsAs(tasks);
+    }
+
+    @Test
+    void archiveDone_shouldRemoveArchivedTasks() throws Exception {
+        add(new Todo("pending"));
+        add(new Deadline("finished", "1/5/2025 1800"));
+        add(new Todo("done todo"));
+        tasks.markAsDone(1);
+        backend.persistMark(tasks, 1);
+        tasks.markAsDone(2);
+        backend.persistMark(tasks, 2);
+
+        assertEquals(1, backend.archiveDone(tasks, LocalDateTime.now()));
+        assertEquals(2, tasks.size());
+        assertReloadsAs(tasks);
+        assertEquals(1, backend.getArchive().find("finished").size());
+    }
+}
@@ -0,0 +1,53 @@
+package goldenknight.storage;
+
+import java.io.File;
+import java.util.ArrayList;
+
+import goldenknight.task.Deadline;
+import goldenknight.task.Task;
+import goldenknight.task.Todo;
+
+/**
+ * Measures the cost of a full {@link Storage#save(ArrayList)} at each {@link Durability} level.
+ *
+ * <p>Run with {@code gradlew benchmark -Pbench=goldenknight.storage.StorageBenchmark}.</p>
+ */
+public class StorageBenchmark {
+
+    private static final String BENCH_FILE = "bench_tasks.txt";
+    private static final int[] SIZES = {100, 10_000};
+    private static final int WARMUP_SAVES = 20;
+    private static final int MEASURED_SAVES = 50;
+
+    public static void main(String[] args) {
+        System.out.printf("%-20s %10s %14s%n", "durability", "tasks", "ms/save");
+        for (int size : SIZES) {
+            ArrayList<Task> tasks = generateTasks(size);
+            for (Durability durability : Durability.values()) {
+                Storage storage = new Storage(BENCH_FILE, durability);
+                for (int i = 0; i < WARMUP_SAVES; i++) {
+                    storage.save(tasks);
+                }
+                long start = System.nanoTime();
+                for (int i = 0; i < MEASURED_SAVES; i++) {
+                    storage.save(tasks);
+                }
+                double millisPerSave = (System.nanoTime() - start) / 1e6 / MEASURED_SAVES;
+                System.out.printf("%-20s %10d %14.3f%n", durability, size, millisPerSave);
+            }
+        }
+        new File(BENCH_FILE).delete();
+    }
+
+    static ArrayList<Task> generateTasks(int size) {
+        ArrayList<Task> tasks = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            if (i % 2 == 0) {
+                tasks.add(new Todo("todo task number " + i));
+            } else {
+                tasks.add(new Deadline("deadline task number " + i, (i % 28 + 1) + "/10/2025 1800"));
+            }
+        }
+        return tasks;
+    }
+}
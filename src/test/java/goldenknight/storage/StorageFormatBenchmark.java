@@ -0,0 +1,42 @@
+package goldenknight.storage;
+
+import java.io.File;
+import java.util.ArrayList;
+
+import goldenknight.task.Task;
+
+/**
+ * Compares the size and load time of the same tasks stored in each {@link StorageFormat}.
+ *
+ * <p>Run with {@code gradlew benchmark -Pbench=goldenknight.storage.StorageFormatBenchmark}.</p>
+ */
+public class StorageFormatBenchmark {
+
+    private static final String BENCH_FILE = "bench_format_tasks";
+    private static final int TASK_COUNT = 1_000_000;
+    private static final int WARMUP_LOADS = 3;
+    private static final int MEASURED_LOADS = 5;
+
+    public static void main(String[] args) {
+        ArrayList<Task> tasks = StorageBenchmark.generateTasks(TASK_COUNT);
+        System.out.printf("%-10s %10s %12s %12s%n", "format", "tasks", "MB", "ms/load");
+        for (StorageFormat format : StorageFormat.values()) {
+            Storage storage = new Storage(BENCH_FILE);
+            storage.setFormat(format);
+            storage.save(tasks);
+            for (int i = 0; i < WARMUP_LOADS; i++) {
+                storage.load();
+            }
+            long start = System.nanoTime();
+            int loaded = 0;
+            for (int i = 0; i < MEASURED_LOADS; i++) {
+                loaded += storage.load().size();
+            }
+            double millisPerLoad = (System.nanoTime() - start) / 1e6 / MEASURED_LOADS;
+            assert loaded == MEASURED_LOADS * TASK_COUNT : "Every load should return every task";
+            System.out.printf("%-10s %10d %12.1f %12.1f%n", format, TASK_COUNT,
+                    new File(BENCH_FILE).length() / 1e6, millisPerLoad);
+        }
+        new File(BENCH_FILE).delete();
+    }
+}
@@ -5,6 +5,9 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.File;
 import java.io.FileWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 
 import org.junit.jupiter.api.AfterEach;
@@ -55,6 +58,17 @@ class StorageTest {
         }
     }
 
+    @Test
+    void save_nonAsciiDescription_shouldWriteUtf8() throws Exception {
+        ArrayList<Task> tasks = new ArrayList<>();
+        tasks.add(new Todo("café crème"));
+        storage.save(tasks);
+
+        assertEquals("T | 0 | café crème" + System.lineSeparator(),
+                Files.readString(Path.of(TEST_FILE), StandardCharsets.UTF_8));
+        assertEquals("café crème", storage.load().get(0).getDescription());
+    }
+
     @Test
     void load_emptyFile_shouldReturnEmptyList() throws Exception {
         // Create an empty file
@@ -77,4 +91,123 @@ class StorageTest {
         assertEquals("T | 0 | Todo 1", loadedTasks.get(0).toFileFormat());
         assertEquals("D | 1 | Deadline 1 | 2/9/2025 1800", loadedTasks.get(1).toFileFormat());
     }
+
+    @Test
+    void save_everyDurabilityLevel_shouldRoundTrip() {
+        for (Durability durability : Durability.values()) {
+            Storage durableStorage = new Storage(TEST_FILE, durability);
+            ArrayList<Task> tasks = new ArrayList<>();
+            tasks.add(new Todo("Todo " + durability));
+            durableStorage.save(tasks);
+
+            ArrayList<Task> loadedTasks = durableStorage.load();
+            assertEquals(1, loadedTasks.size());
+            assertEquals("T | 0 | Todo " + durability, loadedTasks.get(0).toFileFormat());
+        }
+    }
+
+    @Test
+    void save_existingFile_shouldReplaceAtomicallyWithoutLeftovers() throws Exception {
+        FileWriter fw = new FileWriter(TEST_FILE);
+        fw.write("T | 0 | Old 1\nT | 0 | Old 2\nT | 0 | Old 3\n");
+        fw.close();
+
+        ArrayList<Task> tasks = new ArrayList<>();
+        tasks.add(new Todo("New 1"));
+        storage.save(tasks);
+
+        ArrayList<Task> loadedTasks = storage.load();
+        assertEquals(1, loadedTasks.size());
+        assertEquals("T | 0 | New 1", loadedTasks.get(0).toFileFormat());
+        assertTrue(!new File(TEST_FILE + ".tmp").exists(), "Temporary file should be renamed away");
+    }
+
+    @Test
+    void convert_textToBinaryAndBack_shouldKeepTasks() throws Exception {
+        ArrayList<Task> tasks = new ArrayList<>();
+        tasks.add(new Todo("Todo 1"));
+        tasks.add(new Deadline("Deadline 1", "2/9/2025 1800"));
+        tasks.add(new Event("Event 1", "2/9/2025 1000", "2/9/2025 1200"));
+        tasks.get(1).markAsDone();
+        storage.save(tasks);
+
+        String binaryFile = TEST_FILE + ".bin";
+        Storage.convert(TEST_FILE, binaryFile, StorageFormat.BINARY);
+        assertTrue(new File(binaryFile).length() < new File(TEST_FILE).length());
+        new File(TEST_FILE).delete();
+        Storage.convert(binaryFile, TEST_FILE, StorageFormat.TEXT);
+        new File(binaryFile).delete();
+
+        ArrayList<Task> loadedTasks = storage.load();
+        assertEquals(tasks.size(), loadedTasks.size());
+        for (int i = 0; i < tasks.size(); i++) {
+            assertEquals(tasks.get(i).toFileFormat(), loadedTasks.get(i).toFileFormat());
+        }
+    }
+
+    @Test
+    void saveAndLoad_taskIds_shouldRoundTripInBothFormats() throws Exception {
+        ArrayList<Task> tasks = new ArrayList<>();
+        tasks.add(new Todo("Todo 1"));
+        tasks.add(new Event("Event 1", "2/9/2025 1000", "2/9/2025 1200"));
+        tasks.add(new Deadline("Deadline 1", "2/9/2025 1800"));
+        tasks.get(0).setId(3);
+        tasks.get(1).setId(7);
+
+        for (StorageFormat format : StorageFormat.values()) {
+            storage.setFormat(format);
+            storage.save(tasks);
+            ArrayList<Task> loadedTasks = new Storage(TEST_FILE).load();
+            assertEquals(3, loadedTasks.get(0).getId());
+            assertEquals(7, loadedTasks.get(1).getId());
+            assertEquals(Task.NO_ID, loadedTasks.get(2).getId());
+            assertEquals("E | 0 | Event 1 | 2/9/2025 1000 | 2/9/2025 1200", loadedTasks.get(1).toFileFormat());
+        }
+
+        FileWriter fw = new FileWriter(TEST_FILE);
+        fw.write("T | 0 | Todo 1 | #x\nT | 0 | Todo 2 | #4\n");
+        fw.close();
+        ArrayList<Task> loadedTasks = storage.load();
+        assertEquals(2, loadedTasks.size());
+        assertEquals("Todo 1 | #x", loadedTasks.get(0).getDescription());
+        assertEquals(Task.NO_ID, loadedTasks.get(0).getId());
+        assertEquals(4, loadedTasks.get(1).getId());
+    }
+
+    @Test
+    void saveAndLoad_descriptionLikeAnId_shouldKeepDescriptionAndId() {
+        ArrayList<Task> tasks = new ArrayList<>();
+        tasks.add(new Todo("pay | #12"));
+        tasks.get(0).setId(5);
+        storage.save(tasks);
+
+        ArrayList<Task> loadedTasks = new Storage(TEST_FILE).load();
+        assertEquals(1, loadedTasks.size());
+        assertEquals("pay | #12", loadedTasks.get(0).getDescription());
+        assertEquals(5, loadedTasks.get(0).getId());
+    }
+
+    @Test
+    void load_idOutOfRange_shouldSkipLine() throws Exception {
+        FileWriter fw = new FileWriter(TEST_FILE);
+        fw.write("T | 0 | Todo 1 | #2147483648\nT | 0 | Todo 2 | #4294967295\nT | 0 | Todo 3 | #6\n");
+        fw.close();
+
+        ArrayList<Task> loadedTasks = storage.load();
+        assertEquals(1, loadedTasks.size());
+        assertEquals("Todo 3", loadedTasks.get(0).getDescription());
+        assertEquals(6, loadedTasks.get(0).getId());
+    }
+
+    @Test
+    void save_binaryFormat_shouldLoadWithAnyStorage() {
+        ArrayList<Task> tasks = new ArrayList<>();
+        tasks.add(new Deadline("Deadline 1", "2/9/2025 1800"));
+        storage.setFormat(StorageFormat.BINARY);
+        storage.save(tasks);
+
+        ArrayList<Task> loadedTasks = new Storage(TEST_FILE).load();
+        assertEquals(1, loadedTasks.size());
+        assertEquals("D | 0 | Deadline 1 | 2/9/2025 1800", loadedTasks.get(0).toFileFormat());
+    }
 }
@@ -0,0 +1,143 @@
+package goldenknight.storage;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import goldenknight.task.Deadline;
+import goldenknight.task.Event;
+import goldenknight.task.Task;
+import goldenknight.task.TaskList;
+import goldenknight.task.Todo;
+
+class TaskArchiveTest {
+
+    private static final String TEST_FILE = "test_archive_tasks.txt";
+    private static final String ARCHIVE_FILE = TEST_FILE + ".archive.gz";
+    private static final LocalDateTime CUTOFF = LocalDateTime.of(2025, 6, 1, 0, 0);
+
+    private Storage storage;
+    private TaskList tasks;
+
+    @BeforeEach
+    void setUp() {
+        storage = new Storage(TEST_FILE);
+        tasks = new TaskList(storage.load());
+        tasks.add(new Todo("pending todo"));
+        tasks.add(new Todo("finished todo"));
+        tasks.add(new Deadline("old report", "1/5/2025 1800"));
+        tasks.add(new Deadline("new report", "1/7/2025 1800"));
+        tasks.add(new Event("old meeting", "1/1/2025 1000", "1/1/2025 1200"));
+        for (int i = 1; i < tasks.size(); i++) {
+            tasks.markAsDone(i);
+        }
+        storage.save(tasks.getAll());
+    }
+
+    @AfterEach
+    void tearDown() {
+        new File(TEST_FILE).delete();
+        new File(ARCHIVE_FILE).delete();
+        new File(ARCHIVE_FILE + ".tmp").delete();
+        new File(TEST_FILE + ".journal").delete();
+    }
+
+    @Test
+    void isArchivable_doneAndOldTasks_shouldBeArchivable() {
+        assertFalse(TaskArchive.isArchivable(tasks.get(0), CUTOFF));
+        assertFalse(TaskArchive.isArchivable(tasks.get(1), CUTOFF), "Done to-dos have no age to archive by");
+        assertTrue(TaskArchive.isArchivable(tasks.get(2), CUTOFF));
+        assertFalse(TaskArchive.isArchivable(tasks.get(3), CUTOFF));
+        assertTrue(TaskArchive.isArchivable(tasks.get(4), CUTOFF));
+    }
+
+    @Test
+    void archiveDone_shouldMoveTasksOutOfTaskFile() throws Exception {
+        assertEquals(2, storage.archiveDone(tasks, CUTOFF));
+
+        ArrayList<Task> loaded = new Storage(TEST_FILE).load();
+        assertEquals(3, loaded.size());
+        assertEquals("T | 0 | pending todo", loaded.get(0).toFileFormat());
+        assertEquals("T | 1 | finished todo", loaded.get(1).toFileFormat());
+        assertEquals("D | 1 | new report | 1/7/2025 1800", loaded.get(2).toFileFormat());
+        assertEquals(0, storage.archiveDone(tasks, CUTOFF));
+    }
+
+    @Test
+    void find_acrossSeveralArchiveRuns_shouldSearchAllMembers() throws Exception {
+        storage.archiveDone(tasks, CUTOFF);
+        storage.archiveDone(tasks, LocalDateTime.of(2026, 1, 1, 0, 0));
+
+        ArrayList<Task> reports = storage.getArchive().find("report");
+        assertEquals(2, reports.size());
+        assertEquals("D | 1 | old report | 1/5/2025 1800", reports.get(0).toFileFormat());
+        assertEquals("D | 1 | new report | 1/7/2025 1800", reports.get(1).toFileFormat());
+        assertTrue(storage.getArchive().find("D |").isEmpty(), "Only descriptions should match");
+    }
+
+    @Test
+    void archiveDone_journaledStorage_shouldReplayDeletes() throws Exception {
+        JournaledStorage journaled = new JournaledStorage(TEST_FILE);
+        TaskList journaledTasks = new TaskList(journaled.load());
+        assertEquals(2, journaled.archiveDone(journaledTasks, CUTOFF));
+
+        ArrayList<Task> loaded = new JournaledStorage(TEST_FILE).load();
+        assertEquals(3, loaded.size());
+        assertEquals("T | 0 | pending todo", loaded.get(0).toFileFormat());
+        assertEquals("D | 1 | new report | 1/7/2025 1800", loaded.get(2).toFileFormat());
+    }
+
+    @Test
+    void find_archiveCutShort_shouldKeepEarlierMembers() throws Exception {
+        storage.archiveDone(tasks, CUTOFF);
+        int firstMember = (int) new File(ARCHIVE_FILE).length();
+        storage.archiveDone(tasks, LocalDateTime.of(2026, 1, 1, 0, 0));
+        byte[] archived = Files.readAllBytes(Path.of(ARCHIVE_FILE));
+        int secondMember = archived.length - firstMember;
+
+        // A member cut short at the end of the archive
+        Files.write(Path.of(ARCHIVE_FILE), Arrays.copyOf(archived, firstMember + secondMember / 2));
+        ArrayList<Task> reports = storage.getArchive().find("report");
+        assertEquals(1, reports.size());
+        assertEquals("D | 1 | old report | 1/5/2025 1800", reports.get(0).toFileFormat());
+
+        // A member cut short with a whole one after it, as appending after a crash would leave
+        Files.write(Path.of(ARCHIVE_FILE), archived, StandardOpenOption.APPEND);
+        reports = storage.getArchive().find("report");
+        assertEquals(1, reports.size());
+        assertEquals("D | 1 | old report | 1/5/2025 1800", reports.get(0).toFileFormat());
+    }
+
+    @Test
+    void archiveDone_failedWrite_shouldLeaveArchiveUnchanged() throws Exception {
+        storage.archiveDone(tasks, CUTOFF);
+        byte[] archived = Files.readAllBytes(Path.of(ARCHIVE_FILE));
+        // A directory that is not empty in place of the temporary copy makes the write fail
+        Path blocker = Path.of(ARCHIVE_FILE + ".tmp");
+        Files.createDirectory(blocker);
+        Files.createFile(blocker.resolve("file"));
+        try {
+            assertThrows(IOException.class, () -> storage.archiveDone(tasks, LocalDateTime.of(2026, 1, 1, 0, 0)));
+        } finally {
+            Files.delete(blocker.resolve("file"));
+            Files.delete(blocker);
+        }
+        assertArrayEquals(archived, Files.readAllBytes(Path.of(ARCHIVE_FILE)));
+        assertEquals(3, tasks.size());
+    }
+}
@@ -0,0 +1,97 @@
+package goldenknight.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import goldenknight.task.Task;
+
+class TaskFileReaderTest {
+
+    private static final String TEST_FILE = "test_reader_tasks.txt";
+
+    @AfterEach
+    void tearDown() {
+        new File(TEST_FILE).delete();
+    }
+
+    private ArrayList<Task> read(String content) throws Exception {
+        Files.writeString(Path.of(TEST_FILE), content, StandardCharsets.UTF_8);
+        TaskFileReader reader = new TaskFileReader(new Storage(TEST_FILE)::parseFields);
+        return reader.read(Path.of(TEST_FILE));
+    }
+
+    @Test
+    void split_variousLines_matchesRegexSplit() {
+        String[] lines = {"T | 1 | read book", "T | 1 |", "T |  | x", "a | b | c | d | e", "no delimiter",
+            "T | 0 | a|b", "E | 0 | x |  | y | ", " | ", "T | 0 |  |  | "};
+        for (String line : lines) {
+            assertEquals(Arrays.toString(line.split(" \\| ")), Arrays.toString(TaskFileReader.split(line)));
+        }
+    }
+
+    @Test
+    void read_windowsLineEndingsAndBlankLines_shouldReadAllTasks() throws Exception {
+        ArrayList<Task> tasks = read("T | 1 | Todo 1\r\n\r\n   \r\nD | 0 | Deadline 1 | 2/9/2025 1800\r\n");
+        assertEquals(2, tasks.size());
+        assertEquals("T | 1 | Todo 1", tasks.get(0).toFileFormat());
+        assertEquals("D | 0 | Deadline 1 | 2/9/2025 1800", tasks.get(1).toFileFormat());
+    }
+
+    @Test
+    void read_nonAsciiDescription_shouldDecodeField() throws Exception {
+        ArrayList<Task> tasks = read("T | 0 | café crème\nE | 1 | réunion | 2/9/2025 1000 | 2/9/2025 1200\n");
+        assertEquals(2, tasks.size());
+        assertEquals("café crème", tasks.get(0).getDescription());
+        assertEquals("E | 1 | réunion | 2/9/2025 1000 | 2/9/2025 1200", tasks.get(1).toFileFormat());
+    }
+
+    @Test
+    void read_corruptedAndUnknownLines_shouldCollectWarnings() throws Exception {
+        Files.writeString(Path.of(TEST_FILE), "T | 0 | Todo 1\nINVALID LINE\nX | 0 | what\nD | 0 | late | soon\n");
+        TaskFileReader reader = new TaskFileReader(new Storage(TEST_FILE)::parseFields);
+        ArrayList<Task> tasks = reader.read(Path.of(TEST_FILE));
+
+        assertEquals(1, tasks.size());
+        assertEquals(3, reader.getWarnings().size());
+        assertTrue(reader.getWarnings().get(0).contains("INVALID LINE"));
+        assertTrue(reader.getWarnings().get(1).contains("Unknown task type: X"));
+        assertTrue(reader.getWarnings().get(2).contains("D | 0 | late | soon"));
+    }
+
+    @Test
+    void read_parallelChunks_shouldKeepFileOrderAndWarnings() throws Exception {
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 2000; i++) {
+            content.append(i % 3 == 0 ? "T | 1 | Todo " + i : "D | 0 | Deadline " + i + " | 2/9/2025 1800");
+            content.append(i % 2 == 0 ? "\r\n" : "\n");
+            if (i % 500 == 0) {
+                content.append("INVALID LINE ").append(i).append("\n");
+            }
+        }
+        Files.writeString(Path.of(TEST_FILE), content.toString());
+
+        TaskFileReader sequential = new TaskFileReader(new Storage(TEST_FILE)::parseFields);
+        ArrayList<Task> expected = sequential.read(Path.of(TEST_FILE));
+        ForkJoinPool pool = new ForkJoinPool(4);
+        TaskFileReader parallel = new TaskFileReader(new Storage(TEST_FILE)::parseFields);
+        ArrayList<Task> actual = parallel.read(Path.of(TEST_FILE), pool, 0);
+        pool.shutdown();
+
+        assertEquals(2000, actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).toFileFormat(), actual.get(i).toFileFormat());
+        }
+        assertEquals(sequential.getWarnings(), parallel.getWarnings());
+    }
+}
@@ -0,0 +1,186 @@
+package goldenknight.task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class ColumnarTaskListTest {
+
+    private static final String[] WORDS = {"read", "book", "café", "report", "team", "sync", "日本", "gym"};
+
+    @Test
+    void get_sameRowTwice_shouldReturnSameTask() {
+        ArrayList<Task> loaded = new ArrayList<>(List.of(new Todo("read book"),
+                new Deadline("file taxes", "1/9/2025 0900"), new Event("trip", "2/9/2025 0900", "3/9/2025 1000")));
+        ColumnarTaskList list = new ColumnarTaskList(loaded);
+
+        // Tasks still held by the caller are handed back
+        assertSame(loaded.get(1), list.get(1));
+        Task event = list.get(2);
+        assertSame(event, list.get(2));
+        assertSame(event, list.getById(event.getId()));
+        assertSame(event, list.snapshot().get(2));
+        assertEquals("[E][ ] trip (from: Sep 2 2025 09:00 to: Sep 3 2025 10:00)", event.toString());
+        assertEquals("D | 0 | file taxes | 1/9/2025 0900", list.get(1).toFileFormat());
+    }
+
+    @Test
+    void markAsDone_heldTask_shouldUpdateRowAndChanges() {
+        ColumnarTaskList list = new ColumnarTaskList();
+        list.add(new Todo("read book"));
+        list.add(new Deadline("file taxes", "1/9/2025 0900"));
+        list.clearChanges();
+
+        Task deadline = list.get(1);
+        deadline.markAsDone();
+
+        assertTrue(list.get(1).isDone());
+        assertEquals(List.of(deadline), new ArrayList<>(list.getDirtyTasks()));
+        assertEquals(1, list.getStats(LocalDateTime.of(2025, 9, 2, 0, 0)).getDone());
+        assertEquals(0, list.getStats(LocalDateTime.of(2025, 9, 2, 0, 0)).getOverdue());
+
+        Task deleted = list.delete(1);
+        assertSame(deadline, deleted);
+        assertEquals("file taxes", deleted.getDescription());
+        deleted.markAsNotDone();
+        assertEquals(0, list.getStats(LocalDateTime.of(2025, 9, 2, 0, 0)).getDone(),
+                "A deleted task should no longer change the list");
+    }
+
+    @Test
+    void delete_acrossBitsetWords_shouldKeepDoneFlags() {
+        ColumnarTaskList list = new ColumnarTaskList();
+        List<Boolean> expected = new ArrayList<>();
+        Random random = new Random(20);
+        for (int i = 0; i < 200; i++) {
+            list.add(new Todo("task " + i));
+            boolean isDone = random.nextBoolean();
+            if (isDone) {
+                list.markAsDone(i);
+            }
+            expected.add(isDone);
+        }
+
+        for (int index : new int[] {0, 63, 64, 100, 127, 150, 192}) {
+            list.delete(index);
+            expected.remove(index);
+        }
+        list.add(new Todo("last"));
+        expected.add(false);
+
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i), list.snapshot().get(i).isDone(), "Task at " + i);
+        }
+    }
+
+    @Test
+    void snapshot_taskDeletedAfterwards_shouldKeepItsRow() {
+        ColumnarTaskList list = new ColumnarTaskList();
+        list.add(new Todo("read book"));
+        list.add(new Todo("write report"));
+        List<Task> snapshot = list.snapshot();
+
+        list.delete(0);
+        list.add(new Todo("buy milk"));
+
+        assertEquals(2, snapshot.size());
+        assertEquals("T | 0 | read book", snapshot.get(0).toFileFormat());
+        assertSame(list.get(0), snapshot.get(1));
+        assertEquals(2, list.size());
+    }
+
+    @Test
+    void randomOperations_shouldMatchTaskList() {
+        Random random = new Random(21);
+        LocalDateTime start = LocalDateTime.of(2025, 9, 1, 0, 0);
+        TaskList expected = new TaskList();
+        ColumnarTaskList actual = new ColumnarTaskList();
+        for (int i = 0; i < 3000; i++) {
+            int operation = random.nextInt(5);
+            if (operation <= 1 || expected.size() == 0) {
+                String description = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)];
+                LocalDateTime from = start.plusMinutes(random.nextInt(30 * 24 * 60));
+                LocalDateTime to = from.plusMinutes(30 * (random.nextInt(8) - 1));
+                int type = random.nextInt(3);
+                expected.add(type == 0 ? new Todo(description)
+                        : type == 1 ? new Deadline(description, from) : new Event(description, from, to));
+                actual.add(type == 0 ? new Todo(description)
+                        : type == 1 ? new Deadline(description, from) : new Event(description, from, to));
+            } else if (operation == 2) {
+                int index = random.nextInt(expected.size());
+                assertEquals(expected.delete(index).toString(), actual.delete(index).toString());
+            } else {
+                int index = random.nextInt(expected.size());
+                if (random.nextBoolean()) {
+                    expected.markAsDone(index);
+                    actual.markAsDone(index);
+                } else {
+                    expected.markAsNotDone(index);
+                    actual.markAsNotDone(index);
+                }
+            }
+
+            if (i % 100 == 0) {
+                assertSameResults(expected, actual, start.plusHours(i / 4), random);
+            }
+        }
+        assertSameResults(expected, actual, start.plusDays(10), random);
+    }
+
+    private static void assertSameResults(TaskList expected, ColumnarTaskList actual, LocalDateTime now,
+            Random random) {
+        assertEquals(strings(expected.getAll()), strings(actual.getAll()));
+        assertEquals(strings(expected.snapshot()), strings(actual.snapshot()));
+        String keyword = WORDS[random.nextInt(WORDS.length)].substring(1);
+        assertEquals(strings(expected.find(keyword)), strings(actual.find(keyword)), keyword);
+        assertEquals(strings(expected.find("k")), strings(actual.find("k")));
+
+        TaskStats expectedStats = expected.getStats(now);
+        TaskStats actualStats = actual.getStats(now);
+        assertEquals(expectedStats.getDone(), actualStats.getDone());
+        assertEquals(expectedStats.getOverdue(), actualStats.getOverdue());
+        for (TaskType type : TaskType.values()) {
+            assertEquals(expectedStats.getCount(type), actualStats.getCount(type));
+            assertEquals(expectedStats.getDoneCount(type), actualStats.getDoneCount(type));
+        }
+
+        assertEquals(String.valueOf(expected.getNextDue(now, false)), String.valueOf(actual.getNextDue(now, false)));
+        assertEquals(String.valueOf(expected.getNextDue(now, true)), String.valueOf(actual.getNextDue(now, true)));
+        assertEquals(strings(expected.getUpcoming(now, 7)), strings(actual.getUpcoming(now, 7)));
+        assertEquals(strings(expected.getDueBetween(now, now.plusDays(3))),
+                strings(actual.getDueBetween(now, now.plusDays(3))));
+        assertEquals(strings(expected.getOverlapping(now, now.plusHours(20))),
+                strings(actual.getOverlapping(now, now.plusHours(20))));
+        for (int hours : new int[] {0, 1, 2, 4}) {
+            Duration length = Duration.ofHours(hours);
+            assertEquals(expected.findFreeSlot(now, now.plusDays(2), length),
+                    actual.findFreeSlot(now, now.plusDays(2), length), "Free slot of " + length);
+        }
+    }
+
+    private static List<String> strings(List<? extends Task> tasks) {
+        List<String> strings = new ArrayList<>();
+        for (Task task : tasks) {
+            strings.add(task.getId() + " " + task);
+        }
+        return strings;
+    }
+
+    @Test
+    void getNextDue_noTimedTasks_shouldReturnNull() {
+        ColumnarTaskList list = new ColumnarTaskList();
+        list.add(new Todo("read book"));
+        assertNull(list.getNextDue(LocalDateTime.of(2025, 9, 1, 0, 0), true));
+        assertEquals(-1, list.indexOf(5));
+        assertNull(list.getById(5));
+    }
+}
@@ -0,0 +1,106 @@
+package goldenknight.task;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Measures the throughput of {@link ConcurrentTaskList} at 1 to 32 threads, against a plain
+ * {@link TaskList} behind one {@code synchronized} lock.
+ *
+ * <p>Every thread runs the same mix: mostly positional reads and size checks, some finds, and a
+ * few adds and deletes. Deletes go through {@link TaskList#delete(int)} with a position checked
+ * under the same lock, so both lists stay the same size on average.</p>
+ *
+ * <p>Run with {@code gradlew benchmark -Pbench=goldenknight.task.ConcurrentTaskListBenchmark}.</p>
+ */
+public class ConcurrentTaskListBenchmark {
+
+    private static final int[] THREADS = {1, 2, 4, 8, 16, 32};
+    private static final int TASK_COUNT = 100_000;
+    private static final int WRITE_PERCENT = 2;
+    private static final int FIND_PERCENT = 3;
+    private static final long WARMUP_MILLIS = 500;
+    private static final long MEASURED_MILLIS = 1000;
+
+    public static void main(String[] args) throws InterruptedException {
+        ArrayList<Task> generated = FindBenchmark.generateTasks(TASK_COUNT);
+        System.out.printf("%8s %16s %16s%n", "threads", "kops/s locked", "kops/s concurrent");
+        for (int threads : THREADS) {
+            TaskList locked = new TaskList(copy(generated));
+            double lockedRate = measure(threads, () -> {
+                synchronized (locked) {
+                    operate(locked);
+                }
+            });
+            TaskList concurrent = new ConcurrentTaskList(copy(generated));
+            double concurrentRate = measure(threads, () -> operate(concurrent));
+            System.out.printf("%8d %16.0f %16.0f%n", threads, lockedRate, concurrentRate);
+        }
+    }
+
+    private static ArrayList<Task> copy(List<Task> tasks) {
+        ArrayList<Task> copies = new ArrayList<>(tasks.size());
+        for (Task task : tasks) {
+            copies.add(new Todo(task.getDescription()));
+        }
+        return copies;
+    }
+
+    private static void operate(TaskList tasks) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int roll = random.nextInt(100);
+        if (roll < WRITE_PERCENT / 2) {
+            tasks.add(new Todo("added item" + random.nextInt(TASK_COUNT)));
+        } else if (roll < WRITE_PERCENT) {
+            synchronized (ConcurrentTaskListBenchmark.class) {
+                int size = tasks.size();
+                if (size > 0) {
+                    tasks.delete(random.nextInt(size));
+                }
+            }
+        } else if (roll < WRITE_PERCENT + FIND_PERCENT) {
+            tasks.find("item" + random.nextInt(TASK_COUNT));
+        } else {
+            List<Task> snapshot = tasks.snapshot();
+            if (!snapshot.isEmpty()) {
+                snapshot.get(random.nextInt(snapshot.size())).getDescription();
+            }
+        }
+    }
+
+    /**
+     * Runs the operation on the given number of threads and returns thousands of operations per second.
+     */
+    private static double measure(int threads, Runnable operation) throws InterruptedException {
+        LongAdder count = new LongAdder();
+        AtomicBoolean isMeasuring = new AtomicBoolean(false);
+        AtomicBoolean isRunning = new AtomicBoolean(true);
+        List<Thread> workers = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            Thread worker = new Thread(() -> {
+                while (isRunning.get()) {
+                    operation.run();
+                    if (isMeasuring.get()) {
+                        count.increment();
+                    }
+                }
+            });
+            workers.add(worker);
+            worker.start();
+        }
+        Thread.sleep(WARMUP_MILLIS);
+        isMeasuring.set(true);
+        long start = System.nanoTime();
+        Thread.sleep(MEASURED_MILLIS);
+        isMeasuring.set(false);
+        long elapsed = System.nanoTime() - start;
+        isRunning.set(false);
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        return count.sum() / (elapsed / 1e6);
+    }
+}
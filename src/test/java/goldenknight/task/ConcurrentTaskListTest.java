@@ -0,0 +1,213 @@
+package goldenknight.task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+
+class ConcurrentTaskListTest {
+
+    private static final int WRITERS = 4;
+    private static final int READERS = 4;
+    private static final int ADDS_PER_WRITER = 2000;
+    private static final int DELETES = 3000;
+
+    @Test
+    void concurrentWritersAndReaders_shouldKeepListConsistent() throws Exception {
+        ConcurrentTaskList tasks = new ConcurrentTaskList();
+        ConcurrentLinkedQueue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        AtomicBoolean isWriting = new AtomicBoolean(true);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> writers = new ArrayList<>();
+        List<Thread> readers = new ArrayList<>();
+
+        for (int w = 0; w < WRITERS; w++) {
+            int writer = w;
+            writers.add(new Thread(() -> run(start, failures, () -> {
+                for (int i = 0; i < ADDS_PER_WRITER; i++) {
+                    tasks.add(new Todo("writer" + writer + " item" + i));
+                }
+            })));
+        }
+        // Only this thread deletes, so a position read from size() is still valid when it deletes
+        writers.add(new Thread(() -> run(start, failures, () -> {
+            Random random = new Random(19);
+            int deleted = 0;
+            while (deleted < DELETES) {
+                int size = tasks.size();
+                if (size > 0) {
+                    int index = random.nextInt(size);
+                    if (random.nextBoolean()) {
+                        tasks.markAsDone(index);
+                    }
+                    tasks.delete(index);
+                    deleted++;
+                }
+            }
+        })));
+        for (int r = 0; r < READERS; r++) {
+            readers.add(new Thread(() -> run(start, failures, () -> {
+                Random random = new Random();
+                while (isWriting.get()) {
+                    List<Task> snapshot = tasks.snapshot();
+                    checkSnapshot(snapshot);
+                    for (Task task : tasks.find("item1")) {
+                        assertTrue(task.getDescription().contains("item1"));
+                    }
+                    if (!snapshot.isEmpty()) {
+                        Task task = snapshot.get(random.nextInt(snapshot.size()));
+                        Task byId = tasks.getById(task.getId());
+                        assertTrue(byId == null || byId == task, "Lookup by id should find the same task");
+                    }
+                }
+            })));
+        }
+
+        writers.forEach(Thread::start);
+        readers.forEach(Thread::start);
+        start.countDown();
+        for (Thread thread : writers) {
+            thread.join();
+        }
+        isWriting.set(false);
+        for (Thread thread : readers) {
+            thread.join();
+        }
+
+        assertTrue(failures.isEmpty(), "Threads failed: " + failures);
+        assertEquals(WRITERS * ADDS_PER_WRITER - DELETES, tasks.size());
+        List<Task> all = tasks.snapshot();
+        checkSnapshot(all);
+        for (int i = 0; i < all.size(); i++) {
+            assertSame(all.get(i), tasks.getById(all.get(i).getId()));
+            assertEquals(i, tasks.indexOf(all.get(i).getId()));
+        }
+        assertEquals(new TaskList(new ArrayList<>(all)).find("item1").size(), tasks.find("item1").size());
+    }
+
+    @Test
+    void markTasksDirectly_fromSeveralThreads_shouldKeepStatsCorrect() throws Exception {
+        ArrayList<Task> initial = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            initial.add(new Deadline("deadline " + i, (1 + i % 28) + "/9/2025 1800"));
+        }
+        ConcurrentTaskList tasks = new ConcurrentTaskList(initial);
+        ConcurrentLinkedQueue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> markers = new ArrayList<>();
+        for (int m = 0; m < WRITERS; m++) {
+            int seed = m;
+            markers.add(new Thread(() -> run(start, failures, () -> {
+                Random random = new Random(seed);
+                for (int i = 0; i < 5000; i++) {
+                    Task task = initial.get(random.nextInt(initial.size()));
+                    if (random.nextBoolean()) {
+                        task.markAsDone();
+                    } else {
+                        task.markAsNotDone();
+                    }
+                }
+            })));
+        }
+
+        markers.forEach(Thread::start);
+        start.countDown();
+        for (Thread thread : markers) {
+            thread.join();
+        }
+
+        assertTrue(failures.isEmpty(), "Threads failed: " + failures);
+        int done = 0;
+        for (Task task : tasks.snapshot()) {
+            done += task.isDone() ? 1 : 0;
+        }
+        TaskStats stats = tasks.getStats(LocalDateTime.of(2025, 10, 1, 0, 0));
+        assertEquals(done, stats.getDone());
+        assertEquals(1000 - done, stats.getOverdue());
+    }
+
+    @Test
+    void markAndDelete_fromSeveralThreads_shouldNotBringBackDeletedTasks() throws Exception {
+        ArrayList<Task> initial = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            initial.add(new Deadline("deadline " + i, (1 + i % 28) + "/9/2025 1800"));
+        }
+        ConcurrentTaskList tasks = new ConcurrentTaskList(initial);
+        ConcurrentLinkedQueue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int m = 0; m < WRITERS; m++) {
+            int seed = m;
+            threads.add(new Thread(() -> run(start, failures, () -> {
+                Random random = new Random(seed);
+                for (int i = 0; i < 5000; i++) {
+                    Task task = initial.get(random.nextInt(initial.size()));
+                    if (random.nextBoolean()) {
+                        task.markAsDone();
+                    } else {
+                        task.markAsNotDone();
+                    }
+                }
+            })));
+        }
+        threads.add(new Thread(() -> run(start, failures, () -> {
+            Random random = new Random(WRITERS);
+            for (int i = 0; i < 1500; i++) {
+                tasks.delete(random.nextInt(tasks.size()));
+            }
+        })));
+
+        threads.forEach(Thread::start);
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertTrue(failures.isEmpty(), "Threads failed: " + failures);
+        int done = 0;
+        for (Task task : tasks.snapshot()) {
+            done += task.isDone() ? 1 : 0;
+        }
+        TaskStats stats = tasks.getStats(LocalDateTime.of(2025, 10, 1, 0, 0));
+        assertEquals(500, stats.getTotal());
+        assertEquals(done, stats.getDone());
+        assertEquals(500 - done, stats.getOverdue());
+        assertEquals(500, tasks.getDueBetween(LocalDateTime.of(2025, 1, 1, 0, 0),
+                LocalDateTime.of(2025, 12, 1, 0, 0)).size());
+        assertTrue(tasks.snapshot().containsAll(tasks.getDirtyTasks()), "Deleted tasks should not be dirty");
+    }
+
+    /**
+     * Checks that a snapshot lists distinct tasks with increasing ids, as many as its size.
+     */
+    private static void checkSnapshot(List<Task> snapshot) {
+        Set<Task> seen = new HashSet<>();
+        int lastId = Task.NO_ID;
+        for (Task task : snapshot) {
+            assertTrue(task.getId() > lastId, "Ids should increase along the list");
+            assertTrue(seen.add(task), "Tasks should be distinct");
+            lastId = task.getId();
+        }
+        assertEquals(snapshot.size(), seen.size());
+    }
+
+    private static void run(CountDownLatch start, ConcurrentLinkedQueue<Throwable> failures, Runnable body) {
+        try {
+            start.await();
+            body.run();
+        } catch (Throwable e) {
+            failures.add(e);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package goldenknight.task;
+
+import java.util.ArrayList;
+
+/**
+ * Compares {@link TaskList#find(String)} with a linear {@code contains} scan over every task.
+ *
+ * <p>Every description ends with a word of its own, so the vocabulary grows with the list.</p>
+ *
+ * <p>Run with {@code gradlew benchmark -Pbench=goldenknight.task.FindBenchmark}.</p>
+ */
+public class FindBenchmark {
+
+    private static final int[] SIZES = {10_000, 100_000, 1_000_000};
+    private static final String[] WORDS = {"read", "book", "write", "report", "buy", "groceries", "call", "mom",
+        "finish", "homework", "project", "meeting", "gym", "laundry", "review", "notes"};
+    private static final String[] KEYWORDS = {"item4242", "homework", "laundry notes", "work", "m42", "e4", "ad"};
+    private static final int WARMUP_RUNS = 20;
+    private static final int MEASURED_RUNS = 50;
+
+    public static void main(String[] args) {
+        System.out.printf("%-16s %10s %10s %14s %14s%n", "keyword", "tasks", "matches", "ms/scan", "ms/find");
+        for (int size : SIZES) {
+            TaskList tasks = new TaskList(generateTasks(size));
+            ArrayList<Task> all = tasks.getAll();
+            for (String keyword : KEYWORDS) {
+                int matches = scan(all, keyword).size();
+                if (tasks.find(keyword).size() != matches) {
+                    throw new AssertionError("Indexed find disagrees with the scan for " + keyword);
+                }
+                double scanMillis = time(() -> scan(all, keyword));
+                double findMillis = time(() -> tasks.find(keyword));
+                System.out.printf("%-16s %10d %10d %14.3f %14.3f%n", keyword, size, matches, scanMillis, findMillis);
+            }
+        }
+    }
+
+    static ArrayList<Task> generateTasks(int size) {
+        ArrayList<Task> tasks = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            String first = WORDS[i % WORDS.length];
+            String second = WORDS[i / WORDS.length % WORDS.length];
+            tasks.add(new Todo(first + " " + second + " item" + i));
+        }
+        return tasks;
+    }
+
+    private static ArrayList<Task> scan(ArrayList<Task> tasks, String keyword) {
+        ArrayList<Task> results = new ArrayList<>();
+        for (Task task : tasks) {
+            if (task.getDescription().contains(keyword)) {
+                results.add(task);
+            }
+        }
+        return results;
+    }
+
+    private static double time(Runnable search) {
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            search.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_RUNS; i++) {
+            search.run();
+        }
+        return (System.nanoTime() - start) / 1e6 / MEASURED_RUNS;
+    }
+}
@@ -0,0 +1,134 @@
+package goldenknight.task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class IntervalIndexTest {
+
+    private static Event event(int fromHour, int toHour) {
+        return new Event("event", "1/10/2025 " + String.format("%02d00", fromHour),
+                "1/10/2025 " + String.format("%02d00", toHour));
+    }
+
+    private static long minutes(int hour) {
+        return TaskDateTime.parseEpochMinutes("1/10/2025 " + String.format("%02d00", hour));
+    }
+
+    @Test
+    void overlapping_touchingAndNestedEvents_shouldUseHalfOpenSpans() {
+        IntervalIndex index = new IntervalIndex();
+        Event morning = event(9, 12);
+        Event lunch = event(12, 13);
+        Event day = event(8, 18);
+        index.add(0, morning);
+        index.add(1, lunch);
+        index.add(2, day);
+
+        assertEquals(List.of(day, morning), index.overlapping(minutes(10), minutes(12)));
+        assertEquals(List.of(day, lunch), index.overlapping(minutes(12), minutes(14)));
+        index.remove(2, day);
+        assertEquals(List.of(), index.overlapping(minutes(13), minutes(20)));
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void freeSlot_doneAndBusyEvents_shouldReturnEarliestGap() {
+        IntervalIndex index = new IntervalIndex();
+        Event done = event(9, 10);
+        done.markAsDone();
+        index.add(0, event(10, 12));
+        index.add(1, event(11, 14));
+        index.add(2, done);
+        index.add(3, event(15, 17));
+
+        assertEquals(minutes(8), index.freeSlot(minutes(8), minutes(18), 120));
+        assertEquals(minutes(17), index.freeSlot(minutes(10), minutes(20), 120));
+        assertEquals(minutes(14), index.freeSlot(minutes(10), minutes(18), 60));
+        assertEquals(Long.MIN_VALUE, index.freeSlot(minutes(10), minutes(18), 180));
+    }
+
+    @Test
+    void freeSlot_randomEvents_shouldMatchLinearScan() {
+        Random random = new Random(16);
+        IntervalIndex index = new IntervalIndex();
+        ArrayList<Event> events = new ArrayList<>();
+        for (int id = 0; id < 300; id++) {
+            Event event = event(random.nextInt(24), random.nextInt(24));
+            if (random.nextInt(4) == 0) {
+                event.markAsDone();
+            }
+            index.add(id, event);
+            events.add(event);
+        }
+        events.sort((a, b) -> Long.compare(Math.min(a.getFromEpochMinutes(), a.getToEpochMinutes()),
+                Math.min(b.getFromEpochMinutes(), b.getToEpochMinutes())));
+
+        for (int i = 0; i < 500; i++) {
+            long from = minutes(random.nextInt(24));
+            long to = from + random.nextInt(1500);
+            long length = 1 + random.nextInt(300);
+            long cursor = from;
+            long expected = Long.MIN_VALUE;
+            for (Event event : events) {
+                long start = Math.min(event.getFromEpochMinutes(), event.getToEpochMinutes());
+                long end = Math.max(event.getFromEpochMinutes(), event.getToEpochMinutes());
+                if (event.isDone() || end <= from) {
+                    continue;
+                }
+                if (start >= to) {
+                    break;
+                }
+                if (start - cursor >= length) {
+                    expected = cursor;
+                    break;
+                }
+                cursor = Math.max(cursor, end);
+            }
+            if (expected == Long.MIN_VALUE && to - cursor >= length) {
+                expected = cursor;
+            }
+            assertEquals(expected, index.freeSlot(from, to, length));
+        }
+    }
+
+    @Test
+    void overlapping_randomEvents_shouldMatchLinearScan() {
+        Random random = new Random(15);
+        IntervalIndex index = new IntervalIndex();
+        ArrayList<Event> events = new ArrayList<>();
+        ArrayList<Integer> ids = new ArrayList<>();
+        for (int id = 0; id < 2000; id++) {
+            if (!events.isEmpty() && random.nextInt(3) == 0) {
+                int victim = random.nextInt(events.size());
+                index.remove(ids.remove(victim), events.remove(victim));
+            }
+            Event event = event(random.nextInt(24), random.nextInt(24));
+            index.add(id, event);
+            events.add(event);
+            ids.add(id);
+        }
+
+        for (int i = 0; i < 200; i++) {
+            long from = minutes(random.nextInt(24));
+            long to = from + random.nextInt(600);
+            ArrayList<Event> overlapping = index.overlapping(from, to);
+            int expected = 0;
+            for (Event event : events) {
+                long start = Math.min(event.getFromEpochMinutes(), event.getToEpochMinutes());
+                long end = Math.max(event.getFromEpochMinutes(), event.getToEpochMinutes());
+                if (start < to && end > from) {
+                    expected++;
+                    assertTrue(overlapping.contains(event));
+                }
+            }
+            assertEquals(expected, overlapping.size());
+        }
+        assertEquals(events.size(), index.size());
+    }
+}
@@ -0,0 +1,69 @@
+package goldenknight.task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class TaskDateTimeTest {
+
+    @Test
+    public void parseEpochMinutes_variousDates_matchesFormatter() {
+        String[] dates = {"2/9/2025 1800", "29/2/2024 0000", "31/12/1969 2359", "1/1/0001 0000", "02/09/2025 0705"};
+        for (String date : dates) {
+            LocalDateTime expected = LocalDateTime.parse(date, Deadline.INPUT_FORMAT);
+            assertEquals(TaskDateTime.toEpochMinutes(expected), TaskDateTime.parseEpochMinutes(date));
+        }
+    }
+
+    @Test
+    public void parseEpochMinutes_invalidDate_throws() {
+        assertThrows(DateTimeParseException.class, () -> TaskDateTime.parseEpochMinutes("32/1/2025 1800"));
+        assertThrows(DateTimeParseException.class, () -> TaskDateTime.parseEpochMinutes("soon"));
+    }
+
+    @Test
+    public void formatEpochMinutes_roundTrip_normalizesPadding() {
+        long minutes = TaskDateTime.parseEpochMinutes("02/09/2025 1800");
+        assertEquals("2/9/2025 1800", TaskDateTime.formatEpochMinutes(minutes));
+        assertEquals("31/12/1969 2359", TaskDateTime.formatEpochMinutes(-1));
+        assertEquals("1/1/1970 0000", TaskDateTime.formatEpochMinutes(0));
+    }
+
+    @Test
+    public void epochMinutes_randomAndBoundaryMinutes_roundTripThroughFormatter() {
+        long first = TaskDateTime.toEpochMinutes(LocalDateTime.of(1, 1, 1, 0, 0));
+        long last = TaskDateTime.toEpochMinutes(LocalDateTime.of(9999, 12, 31, 23, 59));
+        List<Long> minutes = new ArrayList<>(List.of(first, first + 1, last - 1, last, -1L, 0L, 1L,
+                TaskDateTime.toEpochMinutes(LocalDateTime.of(2000, 2, 29, 23, 59)),
+                TaskDateTime.toEpochMinutes(LocalDateTime.of(1900, 3, 1, 0, 0)),
+                TaskDateTime.toEpochMinutes(LocalDateTime.of(1600, 2, 29, 12, 30))));
+        Random random = new Random(42);
+        for (int i = 0; i < 100_000; i++) {
+            minutes.add(first + Math.floorMod(random.nextLong(), last - first + 1));
+        }
+
+        for (long minute : minutes) {
+            LocalDateTime dateTime = TaskDateTime.ofEpochMinutes(minute);
+            String text = TaskDateTime.formatEpochMinutes(minute);
+            assertEquals(dateTime.format(Deadline.INPUT_FORMAT), text);
+            assertEquals(minute, TaskDateTime.parseEpochMinutes(text));
+            assertEquals(minute, TaskDateTime.toEpochMinutes(dateTime));
+            assertEquals(dateTime, TaskDateTime.parse(text));
+        }
+    }
+
+    @Test
+    public void deadline_lazyDate_matchesEagerParse() {
+        Deadline d = new Deadline("submit", "02/09/2025 1800");
+        assertEquals("D | 0 | submit | 2/9/2025 1800", d.toFileFormat());
+        assertEquals(LocalDateTime.of(2025, 9, 2, 18, 0), d.getByDateTime());
+        assertThrows(DateTimeParseException.class, () -> new Deadline("submit", "32/1/2025 1800"));
+    }
+}
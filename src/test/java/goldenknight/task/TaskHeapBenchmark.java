@@ -0,0 +1,134 @@
+package goldenknight.task;
+
+import java.util.ArrayList;
+
+/**
+ * Measures the heap taken by a million tasks held as {@link Task} objects.
+ *
+ * <p>Heap use is read from the runtime after forcing garbage collection, before and after the
+ * tasks are built, so run it with a fixed heap such as {@code -Xms2g -Xmx2g} for stable numbers.
+ * The tasks are measured as loaded, after every task has been displayed, which creates the
+ * {@code LocalDateTime} of each date, and after they are displayed again with the string cache on,
+ * which keeps each display string. They are also measured in a {@link TaskList}, with its
+ * indexes, and in a {@link ColumnarTaskList}, as loaded and after every task has been shown.</p>
+ *
+ * <p>Tasks whose descriptions repeat, as recurring chores do, are measured before and after a
+ * {@link TaskList} is built from them, which keeps each distinct description once as UTF-8 bytes
+ * and drops the strings of the tasks. The second figure includes the list and its word index.</p>
+ *
+ * <p>Run with {@code gradlew benchmark -Pbench=goldenknight.task.TaskHeapBenchmark}.</p>
+ */
+public class TaskHeapBenchmark {
+
+    private static final int TASK_COUNT = 1_000_000;
+    private static final String[] WORDS = {"read", "book", "write", "report", "buy", "groceries", "call", "mom"};
+
+    public static void main(String[] args) {
+        System.out.printf("%-40s %14s %14s%n", "representation", "MB", "bytes/task");
+        measureDisplayed();
+        measureList();
+        measureColumnar();
+        measureShared();
+    }
+
+    private static void measureDisplayed() {
+        long baseline = usedHeap();
+        ArrayList<Task> tasks = generateTasks(TASK_COUNT);
+        print("Task objects", usedHeap() - baseline);
+
+        for (Task task : tasks) {
+            task.toString();
+        }
+        print("Task objects, dates shown", usedHeap() - baseline);
+
+        Task.setStringCacheEnabled(true);
+        for (Task task : tasks) {
+            task.toString();
+        }
+        Task.setStringCacheEnabled(false);
+        print("Task objects, display strings cached", usedHeap() - baseline);
+        if (tasks.size() != TASK_COUNT) {
+            throw new AssertionError("Every task should be kept");
+        }
+    }
+
+    private static void measureList() {
+        long baseline = usedHeap();
+        TaskList list = new TaskList(generateTasks(TASK_COUNT));
+        print("TaskList", usedHeap() - baseline);
+        if (list.size() != TASK_COUNT) {
+            throw new AssertionError("Every task should be kept");
+        }
+    }
+
+    private static void measureColumnar() {
+        long baseline = usedHeap();
+        ColumnarTaskList list = new ColumnarTaskList(generateTasks(TASK_COUNT));
+        usedHeap();
+        // Lets the list drop its references to the loaded tasks, which have now been collected
+        list.get(0);
+        print("ColumnarTaskList", usedHeap() - baseline);
+
+        for (int i = 0; i < TASK_COUNT; i++) {
+            list.get(i).toString();
+        }
+        usedHeap();
+        list.get(0);
+        print("ColumnarTaskList, tasks shown", usedHeap() - baseline);
+        if (list.size() != TASK_COUNT) {
+            throw new AssertionError("Every task should be kept");
+        }
+    }
+
+    private static void measureShared() {
+        long baseline = usedHeap();
+        ArrayList<Task> tasks = generateTasks(TASK_COUNT, WORDS.length * WORDS.length);
+        print("Task objects, repeated descriptions", usedHeap() - baseline);
+
+        TaskList list = new TaskList(tasks);
+        print("TaskList, repeated descriptions", usedHeap() - baseline);
+        if (tasks.size() != TASK_COUNT || list.size() != TASK_COUNT) {
+            throw new AssertionError("Every task should be kept");
+        }
+    }
+
+    private static void print(String name, long bytes) {
+        System.out.printf("%-40s %14.1f %14.1f%n", name, bytes / 1e6, (double) bytes / TASK_COUNT);
+    }
+
+    static ArrayList<Task> generateTasks(int size) {
+        return generateTasks(size, size);
+    }
+
+    /**
+     * Generates tasks whose descriptions cycle through the given number of distinct ones,
+     * each task holding its own copy as it would after loading.
+     */
+    static ArrayList<Task> generateTasks(int size, int distinct) {
+        ArrayList<Task> tasks = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            int d = i % distinct;
+            String description = WORDS[d % WORDS.length] + " " + WORDS[d / WORDS.length % WORDS.length]
+                    + (distinct == size ? " " + i : "");
+            String date = (1 + i % 28) + "/" + (1 + i % 12) + "/2025 1800";
+            Task task = switch (i % 3) {
+            case 0 -> new Todo(description);
+            case 1 -> new Deadline(description, date);
+            default -> new Event(description, date, (1 + i % 28) + "/" + (1 + i % 12) + "/2026 1800");
+            };
+            task.setId(i);
+            tasks.add(task);
+        }
+        return tasks;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        long used = Long.MAX_VALUE;
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+            used = Math.min(used, runtime.totalMemory() - runtime.freeMemory());
+        }
+        return used;
+    }
+}
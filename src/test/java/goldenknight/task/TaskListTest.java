@@ -1,9 +1,16 @@
 package goldenknight.task;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -68,4 +75,318 @@ class TaskListTest {
         taskList.delete(1);
         assertEquals(1, taskList.size());
     }
+
+    @Test
+    void ids_addAndDelete_shouldStayWithTasks() {
+        Task task3 = new Todo("Buy milk");
+        taskList.add(task1);
+        taskList.add(task2);
+        taskList.add(task3);
+        taskList.delete(0);
+
+        assertEquals(1, task2.getId());
+        assertEquals(2, task3.getId());
+        assertSame(task3, taskList.getById(2));
+        assertNull(taskList.getById(0));
+        assertEquals(1, taskList.indexOf(2));
+        assertEquals(-1, taskList.indexOf(0));
+
+        taskList.add(task1);
+        assertEquals(3, task1.getId());
+        assertEquals(2, taskList.indexOf(3));
+    }
+
+    @Test
+    void constructor_storedIds_shouldKeepIncreasingOnes() {
+        task1.setId(5);
+        task2.setId(5);
+        Task task3 = new Todo("Buy milk");
+        TaskList list = new TaskList(new ArrayList<>(List.of(task1, task2, task3)));
+
+        assertEquals(5, task1.getId());
+        assertEquals(6, task2.getId());
+        assertEquals(7, task3.getId());
+        Task task4 = new Todo("Sell milk");
+        list.add(task4);
+        assertEquals(8, task4.getId());
+        assertSame(task2, list.getById(6));
+    }
+
+    @Test
+    void changes_addMarkDelete_shouldTrackDirtyAndDeletedTasks() {
+        taskList.add(task1);
+        taskList.add(task2);
+        taskList.clearChanges();
+
+        taskList.markAsDone(0);
+        assertTrue(task1.isDone());
+        assertEquals(1, taskList.getDirtyTasks().size());
+        assertTrue(taskList.getDirtyTasks().contains(task1));
+
+        taskList.delete(0);
+        assertTrue(taskList.getDirtyTasks().isEmpty());
+        assertEquals(1, taskList.getDeletedTasks().size());
+
+        taskList.clearChanges();
+        assertTrue(taskList.getDeletedTasks().isEmpty());
+    }
+
+    @Test
+    void find_substringsAndPhrases_shouldMatchLinearScan() {
+        String[] descriptions = {"Read book", "clean room", "read notebook", "Read  book twice", "bookshelf",
+            "mushroom soup", "book"};
+        ArrayList<Task> all = new ArrayList<>();
+        for (String description : descriptions) {
+            all.add(new Task(TaskType.TODO, description));
+        }
+        TaskList list = new TaskList(new ArrayList<>(all));
+        list.delete(5);
+        all.remove(5);
+        list.add(new Task(TaskType.TODO, "boom room"));
+        all.add(list.get(list.size() - 1));
+
+        for (String keyword : new String[] {"book", "oom", "Read book", "ead b", "d  b", "room", "x", "o"}) {
+            ArrayList<Task> expected = new ArrayList<>();
+            for (Task task : all) {
+                if (task.getDescription().contains(keyword)) {
+                    expected.add(task);
+                }
+            }
+            assertEquals(expected, list.find(keyword), keyword);
+        }
+    }
+
+    @Test
+    void find_randomOperationsAndKeywords_shouldMatchLinearScan() {
+        Random random = new Random(12);
+        ArrayList<Task> all = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            if (random.nextInt(4) == 0 && taskList.size() > 0) {
+                all.remove(taskList.delete(random.nextInt(taskList.size())));
+            } else {
+                Task task = new Todo(randomText(random, 1 + random.nextInt(20)));
+                taskList.add(task);
+                all.add(task);
+            }
+
+            if (i % 10 == 0) {
+                String keyword;
+                if (random.nextBoolean() && !all.isEmpty()) {
+                    // A piece of an existing description, which may span words or start with a space
+                    String description = all.get(random.nextInt(all.size())).getDescription();
+                    int from = random.nextInt(description.length());
+                    keyword = description.substring(from, Math.min(description.length(),
+                            from + 1 + random.nextInt(8)));
+                } else {
+                    keyword = randomText(random, 1 + random.nextInt(6));
+                }
+                if (keyword.isBlank()) {
+                    continue;
+                }
+                ArrayList<Task> expected = new ArrayList<>();
+                for (Task task : all) {
+                    if (task.getDescription().contains(keyword)) {
+                        expected.add(task);
+                    }
+                }
+                assertEquals(expected, taskList.find(keyword), keyword);
+            }
+        }
+    }
+
+    /**
+     * Returns text over a small alphabet with spaces, so that random keywords often match.
+     */
+    private static String randomText(Random random, int length) {
+        String alphabet = "abcab c";
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            sb.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return sb.toString().isBlank() ? "a" + sb : sb.toString();
+    }
+
+    @Test
+    void getNextDue_markAndDelete_shouldFollowTimeIndex() {
+        LocalDateTime now = LocalDateTime.of(2025, 9, 2, 18, 0, 30);
+        Deadline past = new Deadline("past", "2/9/2025 1800");
+        Deadline first = new Deadline("first", "2/9/2025 1801");
+        Event tie = new Event("tie", "1/9/2025 1000", "2/9/2025 1801");
+        Deadline later = new Deadline("later", "3/9/2025 0900");
+        taskList.add(task1);
+        taskList.add(past);
+        taskList.add(later);
+        taskList.add(first);
+        taskList.add(tie);
+
+        assertEquals(first, taskList.getNextDue(now, false));
+        taskList.markAsDone(3);
+        assertEquals(tie, taskList.getNextDue(now, false));
+        assertEquals(first, taskList.getNextDue(now, true));
+        taskList.delete(4);
+        assertEquals(later, taskList.getNextDue(now, false));
+        taskList.markAsNotDone(3);
+        assertEquals(first, taskList.getNextDue(now, false));
+        assertNull(taskList.getNextDue(LocalDateTime.of(2025, 9, 3, 9, 0), true));
+    }
+
+    @Test
+    void getUpcomingAndDueBetween_shouldReturnTasksInDueOrder() {
+        LocalDateTime now = LocalDateTime.of(2025, 9, 2, 12, 0);
+        Deadline late = new Deadline("late", "5/9/2025 0900");
+        Deadline done = new Deadline("done", "3/9/2025 0900");
+        Event soon = new Event("soon", "2/9/2025 1300", "2/9/2025 1400");
+        Deadline past = new Deadline("past", "1/9/2025 0900");
+        taskList.add(late);
+        taskList.add(task1);
+        taskList.add(done);
+        taskList.add(soon);
+        taskList.add(past);
+        taskList.markAsDone(2);
+
+        assertEquals(List.of(soon, late), taskList.getUpcoming(now, 5));
+        assertEquals(List.of(soon), taskList.getUpcoming(now, 1));
+        assertEquals(List.of(past, soon, done),
+                taskList.getDueBetween(LocalDateTime.of(2025, 9, 1, 9, 0), LocalDateTime.of(2025, 9, 3, 9, 0)));
+        assertTrue(taskList.getDueBetween(now, now.minusDays(1)).isEmpty());
+    }
+
+    @Test
+    void getStats_directAndListChanges_shouldMatchRecount() {
+        LocalDateTime now = LocalDateTime.of(2025, 9, 2, 12, 0);
+        Deadline overdue = new Deadline("overdue", "1/9/2025 0900");
+        Deadline soon = new Deadline("soon", "2/9/2025 1300");
+        Event event = new Event("event", "1/9/2025 1000", "1/9/2025 1100");
+        taskList.add(task1);
+        taskList.add(overdue);
+        taskList.add(soon);
+        taskList.add(event);
+
+        TaskStats stats = taskList.getStats(now);
+        assertEquals(4, stats.getTotal());
+        assertEquals(0, stats.getDone());
+        assertEquals(2, stats.getOverdue());
+        assertEquals(2, stats.getCount(TaskType.DEADLINE));
+
+        taskList.markAsDone(1);
+        event.markAsDone();
+        task1.markAsDone();
+        task1.markAsDone();
+        stats = taskList.getStats(now);
+        assertEquals(3, stats.getDone());
+        assertEquals(1, stats.getPending());
+        assertEquals(1, stats.getDoneCount(TaskType.TODO));
+        assertEquals(1, stats.getDoneCount(TaskType.EVENT));
+        assertEquals(0, stats.getOverdue());
+        assertTrue(taskList.getDirtyTasks().contains(event));
+
+        event.markAsNotDone();
+        assertEquals(2, taskList.getStats(now.plusHours(2)).getOverdue());
+        taskList.delete(3);
+        assertEquals(1, taskList.getStats(now.plusHours(2)).getOverdue());
+        assertEquals(0, taskList.getStats(now).getOverdue());
+        event.markAsDone();
+        stats = taskList.getStats(now.plusHours(2));
+        assertEquals(3, stats.getTotal());
+        assertEquals(2, stats.getDone());
+        assertEquals(0, stats.getCount(TaskType.EVENT));
+        assertEquals(1, stats.getOverdue());
+    }
+
+    @Test
+    void descriptions_repeatedDescriptions_shouldBeKeptOnce() {
+        Task first = new Todo("clean room");
+        Task second = new Deadline("clean room", "1/9/2025 0900");
+        Task other = new Todo("clean car");
+        TaskList loaded = new TaskList(new ArrayList<>(List.of(first, other, second)));
+        Task added = new Event("clean room", "2/9/2025 0900", "2/9/2025 1000");
+        loaded.add(added);
+
+        assertEquals(first.getDescriptionId(), second.getDescriptionId());
+        assertEquals(first.getDescriptionId(), added.getDescriptionId(), "Tasks added later should share too");
+        assertEquals("clean room", second.getDescription());
+        assertEquals("clean car", other.getDescription());
+        assertEquals(List.of(first, second, added), loaded.find("room"));
+
+        Task deleted = loaded.delete(0);
+        assertEquals("clean room", deleted.getDescription());
+        assertEquals("T | 0 | clean room", deleted.toFileFormat());
+        assertEquals(List.of(second, added), loaded.find("room"));
+    }
+
+    @Test
+    void writeFileFormat_descriptionsInArena_shouldMatchFileFormat() {
+        TaskList list = new TaskList();
+        list.add(new Todo("café ☕ with 日本 friends"));
+        list.add(new Deadline("file taxes", "1/9/2025 0900"));
+        list.add(new Event("trip \uD83D\uDE80", "2/9/2025 0900", "3/9/2025 1000"));
+        list.markAsDone(1);
+
+        for (Task task : list.getAll()) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            task.writeFileFormat(out);
+            assertEquals(task.toFileFormat(), out.toString(StandardCharsets.UTF_8));
+        }
+        assertEquals(List.of(list.get(0)), list.find("日"), "Short keywords should be matched by a scan");
+    }
+
+    @Test
+    void changeStatus_taskDeletedMeanwhile_shouldOnlyMarkTask() {
+        LocalDateTime now = LocalDateTime.of(2025, 9, 2, 12, 0);
+        Deadline overdue = new Deadline("overdue", "1/9/2025 0900");
+        taskList.add(task1);
+        taskList.add(overdue);
+        taskList.clearChanges();
+        taskList.delete(1);
+
+        // As if another thread had read the owner just before the delete
+        taskList.changeStatus(overdue, true);
+
+        assertTrue(overdue.isDone());
+        TaskStats stats = taskList.getStats(now);
+        assertEquals(1, stats.getTotal());
+        assertEquals(0, stats.getDone());
+        assertEquals(0, stats.getOverdue());
+        assertNull(taskList.getNextDue(now.minusDays(5), true));
+        assertTrue(taskList.getDirtyTasks().isEmpty());
+    }
+
+    @Test
+    void getStats_randomOperations_shouldMatchLinearScan() {
+        Random random = new Random(22);
+        LocalDateTime start = LocalDateTime.of(2025, 9, 1, 0, 0);
+        ArrayList<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            int operation = random.nextInt(4);
+            if (operation == 0 || taskList.size() == 0) {
+                String date = (1 + random.nextInt(28)) + "/9/2025 " + (10 + random.nextInt(10)) + "00";
+                Task task = random.nextBoolean() ? new Deadline("d" + i, date) : new Todo("t" + i);
+                taskList.add(task);
+                tasks.add(task);
+            } else if (operation == 1) {
+                tasks.remove(taskList.delete(random.nextInt(taskList.size())));
+            } else {
+                Task task = tasks.get(random.nextInt(tasks.size()));
+                if (random.nextBoolean()) {
+                    task.markAsDone();
+                } else {
+                    task.markAsNotDone();
+                }
+            }
+
+            // Mostly moves forward, but sometimes jumps back
+            LocalDateTime now = start.plusHours(i / 3 - (random.nextInt(10) == 0 ? 100 : 0));
+            int done = 0;
+            int overdue = 0;
+            for (Task task : tasks) {
+                done += task.isDone() ? 1 : 0;
+                overdue += task instanceof Deadline && !task.isDone()
+                        && ((Deadline) task).getByEpochMinutes() < TaskDateTime.toEpochMinutes(now) ? 1 : 0;
+            }
+            TaskStats stats = taskList.getStats(now);
+            assertEquals(tasks.size(), stats.getTotal());
+            assertEquals(done, stats.getDone());
+            assertEquals(overdue, stats.getOverdue());
+        }
+    }
 }
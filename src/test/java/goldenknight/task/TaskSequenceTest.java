@@ -0,0 +1,96 @@
+package goldenknight.task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class TaskSequenceTest {
+
+    private static Todo todo(int id) {
+        Todo todo = new Todo("Todo " + id);
+        todo.setId(id);
+        return todo;
+    }
+
+    @Test
+    void addGetRemove_randomOperations_shouldMatchArrayList() {
+        Random random = new Random(17);
+        ArrayList<Task> initial = new ArrayList<>();
+        int nextId = 0;
+        for (; nextId < 500; nextId++) {
+            initial.add(todo(nextId));
+        }
+        TaskSequence sequence = new TaskSequence(initial);
+        ArrayList<Task> expected = new ArrayList<>(initial);
+
+        for (int i = 0; i < 5000; i++) {
+            int operation = random.nextInt(3);
+            if (operation == 0) {
+                Task task = todo(nextId++);
+                sequence.add(task);
+                expected.add(task);
+            } else if (operation == 1 && !expected.isEmpty()) {
+                int index = random.nextInt(expected.size());
+                assertEquals(expected.remove(index), sequence.remove(index));
+            } else if (!expected.isEmpty()) {
+                int index = random.nextInt(expected.size());
+                assertEquals(expected.get(index), sequence.get(index));
+                assertEquals(index, sequence.indexOf(expected.get(index).getId()));
+            }
+            assertEquals(expected.size(), sequence.size());
+        }
+        assertEquals(expected, sequence.toList());
+        assertEquals(-1, sequence.indexOf(nextId));
+    }
+
+    @Test
+    void snapshot_laterChanges_shouldNotShowInSnapshot() {
+        Random random = new Random(18);
+        TaskSequence sequence = new TaskSequence();
+        ArrayList<Task> expected = new ArrayList<>();
+        ArrayList<List<Task>> snapshots = new ArrayList<>();
+        ArrayList<List<Task>> copies = new ArrayList<>();
+        int nextId = 0;
+
+        for (int i = 0; i < 3000; i++) {
+            if (expected.isEmpty() || random.nextInt(3) > 0) {
+                Task task = todo(nextId++);
+                sequence.add(task);
+                expected.add(task);
+            } else {
+                int index = random.nextInt(expected.size());
+                assertEquals(expected.remove(index), sequence.remove(index));
+            }
+            if (i % 100 == 0) {
+                snapshots.add(sequence.snapshot());
+                copies.add(new ArrayList<>(expected));
+            }
+        }
+        assertEquals(expected, sequence.toList());
+        for (int i = 0; i < snapshots.size(); i++) {
+            assertEquals(copies.get(i), snapshots.get(i));
+            assertEquals(copies.get(i).size(), snapshots.get(i).size());
+            for (int j = 0; j < copies.get(i).size(); j += 7) {
+                assertEquals(j, TaskSequence.indexOf(snapshots.get(i), copies.get(i).get(j).getId()));
+            }
+            assertEquals(-1, TaskSequence.indexOf(snapshots.get(i), nextId));
+        }
+        Task extra = todo(nextId);
+        assertThrows(UnsupportedOperationException.class, () -> snapshots.get(0).add(extra));
+    }
+
+    @Test
+    void emptySequence_shouldHaveNoTasks() {
+        TaskSequence sequence = new TaskSequence(new ArrayList<>());
+        assertEquals(0, sequence.size());
+        assertEquals(new ArrayList<Task>(), sequence.toList());
+        sequence.add(todo(3));
+        assertEquals(0, sequence.indexOf(3));
+        assertEquals(-1, sequence.indexOf(2));
+    }
+}
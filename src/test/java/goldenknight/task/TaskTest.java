@@ -1,6 +1,8 @@
 package goldenknight.task;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -64,7 +66,7 @@ class TaskTest {
         Task task = Task.fromFileFormat(line);
 
         assertEquals(TaskType.TODO, task.type);
-        assertEquals("Read book", task.description);
+        assertEquals("Read book", task.getDescription());
         assertTrue(task.isDone, "Task should be marked as done from file format");
     }
 
@@ -75,4 +77,37 @@ class TaskTest {
                 ) -> Task.fromFileFormat(invalidLine),
                 "Invalid input should throw IllegalArgumentException");
     }
+
+    @Test
+    void toStringAndToFileFormat_cacheEnabled_shouldReuseStrings() {
+        Deadline task = new Deadline("Return book", "2/10/2025 1800");
+        Task.setStringCacheEnabled(true);
+        try {
+            String display = task.toString();
+            String file = task.toFileFormat();
+            assertSame(display, task.toString());
+            assertSame(file, task.toFileFormat());
+
+            task.markAsDone();
+            assertEquals("[D][X] Return book (by: Oct 2 2025 18:00)", task.toString());
+            assertEquals("D | 1 | Return book | 2/10/2025 1800", task.toFileFormat());
+            assertSame(task.toString(), task.toString());
+            task.markAsNotDone();
+            assertEquals(display, task.toString());
+            assertEquals(file, task.toFileFormat());
+        } finally {
+            Task.setStringCacheEnabled(false);
+        }
+    }
+
+    @Test
+    void toString_byDefault_shouldFormatEachTime() {
+        Event task = new Event("Meeting", "2/10/2025 1400", "2/10/2025 1500");
+        String display = task.toString();
+        assertNotSame(display, task.toString());
+        assertEquals(display, task.toString());
+        assertNotSame(task.toFileFormat(), task.toFileFormat());
+        assertEquals("[E][ ] Meeting (from: Oct 2 2025 14:00 to: Oct 2 2025 15:00)", display);
+        assertEquals(" ", task.getStatusIcon());
+    }
 }
@@ -0,0 +1,106 @@
+package goldenknight.task;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+class TokenIndexTest {
+
+    private static void add(TokenIndex index, int id, String description) {
+        byte[] bytes = description.getBytes(StandardCharsets.UTF_8);
+        index.add(id, bytes, 0, bytes.length);
+    }
+
+    private static void remove(TokenIndex index, int id, String description) {
+        byte[] bytes = description.getBytes(StandardCharsets.UTF_8);
+        index.remove(id, bytes, 0, bytes.length);
+    }
+
+    private static int[] candidates(TokenIndex index, String keyword) {
+        return index.candidates(keyword.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static int[] trigrams(String word) {
+        byte[] bytes = word.getBytes(StandardCharsets.UTF_8);
+        return TokenIndex.trigrams(bytes, 0, bytes.length);
+    }
+
+    @Test
+    void add_repeatedAndPaddedWords_shouldIndexDistinctWords() {
+        TokenIndex index = new TokenIndex();
+        add(index, 0, "  read the\tbook the ");
+        add(index, 1, "the last\u3000end\u00A0note");
+
+        assertEquals(5, index.wordCount(), "An ideographic space separates words, a no-break space does not");
+        assertArrayEquals(new int[] {0, 1}, candidates(index, "the"));
+        assertArrayEquals(new int[] {1}, candidates(index, "end\u00A0no"));
+    }
+
+    @Test
+    void candidates_nonAsciiWords_shouldMatchWholeCharacters() {
+        TokenIndex index = new TokenIndex();
+        add(index, 0, "café au lait");
+        add(index, 1, "日本語 lesson");
+
+        assertArrayEquals(new int[] {0}, candidates(index, "café"));
+        assertArrayEquals(new int[] {1}, candidates(index, "本"));
+        assertArrayEquals(new int[0], candidates(index, "cafe"));
+    }
+
+    @Test
+    void candidates_afterRemove_shouldReturnSortedLiveIds() {
+        TokenIndex index = new TokenIndex();
+        add(index, 0, "read book");
+        add(index, 1, "notebook");
+        add(index, 2, "book club");
+        remove(index, 0, "read book");
+
+        assertArrayEquals(new int[] {1, 2}, candidates(index, "book"));
+        assertArrayEquals(new int[] {2}, candidates(index, "a club"));
+        assertArrayEquals(new int[0], candidates(index, "read"));
+        assertEquals(3, index.wordCount());
+    }
+
+    @Test
+    void trigrams_repeatedRuns_shouldBeDistinct() {
+        assertEquals(1, trigrams("aaaa").length);
+        assertEquals(0, trigrams("ab").length);
+        assertEquals(2, trigrams("room").length);
+    }
+
+    @Test
+    void candidates_shortAndLongKeywords_shouldFindContainingWords() {
+        TokenIndex index = new TokenIndex();
+        add(index, 0, "clean room");
+        add(index, 1, "mushroom soup");
+        add(index, 2, "roommate");
+        add(index, 3, "ro");
+
+        assertArrayEquals(new int[] {0, 1, 2}, candidates(index, "oom"));
+        assertNull(candidates(index, "ro"));
+        assertNull(candidates(index, "ro oo"));
+        assertArrayEquals(new int[] {0, 1, 2}, candidates(index, "n room"));
+        assertArrayEquals(new int[] {1}, candidates(index, "hroo"));
+        assertArrayEquals(new int[0], candidates(index, "moor"));
+    }
+
+    @Test
+    void remove_manyWords_shouldRenumberAndKeepLookups() {
+        TokenIndex index = new TokenIndex();
+        for (int i = 0; i < 3000; i++) {
+            add(index, i, "task" + i + " shared");
+        }
+        for (int i = 0; i < 2500; i++) {
+            remove(index, i, "task" + i + " shared");
+        }
+
+        assertEquals(501, index.wordCount());
+        assertArrayEquals(new int[] {2999}, candidates(index, "task2999"));
+        assertEquals(500, candidates(index, "shared").length);
+        assertEquals(100, candidates(index, "sk29").length);
+    }
+}
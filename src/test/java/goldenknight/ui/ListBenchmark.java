@@ -0,0 +1,82 @@
+package goldenknight.ui;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import goldenknight.exception.DukeException;
+import goldenknight.task.Deadline;
+import goldenknight.task.Event;
+import goldenknight.task.Task;
+import goldenknight.task.TaskList;
+import goldenknight.task.Todo;
+
+/**
+ * Compares rendering the whole task list into one string, as {@code list} used to, with
+ * rendering the first and the last page of {@value Ui#DEFAULT_PAGE_SIZE} tasks.
+ *
+ * <p>Run with {@code gradlew benchmark -Pbench=goldenknight.ui.ListBenchmark}.</p>
+ */
+public class ListBenchmark {
+
+    private static final int[] SIZES = {10_000, 100_000, 1_000_000};
+    private static final int WARMUP_RUNS = 3;
+    private static final int MEASURED_RUNS = 5;
+
+    public static void main(String[] args) throws DukeException {
+        Ui ui = new Ui();
+        System.out.printf("%10s %16s %14s %14s %14s%n", "tasks", "ms/whole list", "chars", "ms/first page",
+                "ms/last page");
+        for (int size : SIZES) {
+            TaskList tasks = new TaskList(generateTasks(size));
+            String lastPage = String.valueOf((size + Ui.DEFAULT_PAGE_SIZE - 1) / Ui.DEFAULT_PAGE_SIZE);
+            int chars = renderAll(tasks.snapshot()).length();
+            double allMillis = time(() -> renderAll(tasks.snapshot()));
+            double firstMillis = time(() -> ui.getTaskListString(tasks));
+            double lastMillis = time(() -> {
+                try {
+                    ui.listTasksString(tasks, lastPage);
+                } catch (DukeException e) {
+                    throw new AssertionError(e);
+                }
+            });
+            System.out.printf("%10d %16.3f %14d %14.3f %14.3f%n", size, allMillis, chars, firstMillis, lastMillis);
+        }
+    }
+
+    /**
+     * Renders every task the way {@code list} did before it was paged.
+     */
+    private static String renderAll(List<Task> tasks) {
+        StringBuilder sb = new StringBuilder();
+        int number = 1;
+        for (Task task : tasks) {
+            sb.append(number++).append(". ").append(task).append("\n");
+        }
+        return sb.toString();
+    }
+
+    private static ArrayList<Task> generateTasks(int size) {
+        ArrayList<Task> tasks = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            String date = (1 + i % 28) + "/" + (1 + i % 12) + "/2025 1800";
+            Task task = switch (i % 3) {
+            case 0 -> new Todo("todo " + i);
+            case 1 -> new Deadline("deadline " + i, date);
+            default -> new Event("event " + i, date, (1 + i % 28) + "/" + (1 + i % 12) + "/2026 1800");
+            };
+            tasks.add(task);
+        }
+        return tasks;
+    }
+
+    private static double time(Runnable render) {
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            render.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_RUNS; i++) {
+            render.run();
+        }
+        return (System.nanoTime() - start) / 1e6 / MEASURED_RUNS;
+    }
+}
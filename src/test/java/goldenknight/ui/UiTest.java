@@ -125,4 +125,125 @@ class UiTest {
         String result = ui.findTasksString(tasks, "Play");
         assertTrue(result.contains("No matching tasks found"));
     }
+
+    @Test
+    void upcomingTasksString_shouldListFutureTasksInOrder() throws DukeException {
+        ui.addDeadlineString(tasks, "Later report /by 2/1/9999 1200");
+        ui.addDeadlineString(tasks, "Old report /by 2/1/2000 1200");
+        ui.addDeadlineString(tasks, "Sooner report /by 1/1/9999 1200");
+        String result = ui.upcomingTasksString(tasks, "5");
+        assertTrue(result.indexOf("1. [D][ ] Sooner report") < result.indexOf("2. [D][ ] Later report"));
+        assertTrue(!result.contains("Old report"));
+
+        DukeException e = assertThrows(DukeException.class, () -> ui.upcomingTasksString(tasks, "zero"));
+        assertTrue(e.getMessage().contains("number of tasks"));
+    }
+
+    @Test
+    void dueTasksString_windowWithAndWithoutTimes_shouldListTasksInWindow() throws DukeException {
+        ui.addDeadlineString(tasks, "Submit report /by 6/9/2025 2359");
+        ui.addEventString(tasks, "Meeting /from 5/9/2025 1000 /to 5/9/2025 1200");
+        assertTrue(ui.dueTasksString(tasks, "5/9/2025 6/9/2025").contains("2. [D][ ] Submit report"));
+        String result = ui.dueTasksString(tasks, "5/9/2025 1200 6/9/2025 2358");
+        assertTrue(result.contains("1. [E][ ] Meeting") && !result.contains("Submit report"));
+        assertTrue(ui.dueTasksString(tasks, "7/9/2025 8/9/2025").contains("No tasks are due"));
+
+        assertThrows(DukeException.class, () -> ui.dueTasksString(tasks, "6/9/2025"));
+        assertThrows(DukeException.class, () -> ui.dueTasksString(tasks, "6/9/2025 5/9/2025"));
+        assertThrows(DukeException.class, () -> ui.dueTasksString(tasks, "6/13/2025 7/9/2025"));
+    }
+
+    @Test
+    void addEventString_overlappingEvent_shouldWarn() throws DukeException {
+        ui.addEventString(tasks, "Standup /from 1/10/2025 0900 /to 1/10/2025 1000");
+        String touching = ui.addEventString(tasks, "Review /from 1/10/2025 1000 /to 1/10/2025 1100");
+        assertTrue(!touching.contains("Warning"));
+        String result = ui.addEventString(tasks, "Workshop /from 1/10/2025 0930 /to 1/10/2025 1200");
+        assertTrue(result.contains("Warning: this event overlaps with:\n  [E][ ] Standup"));
+        assertTrue(result.contains("  [E][ ] Review"));
+        assertTrue(result.contains("Now you have 3 tasks in the list.\nWarning"));
+        assertTrue(result.endsWith("Review (from: Oct 1 2025 10:00 to: Oct 1 2025 11:00)\n"
+                + "_______________________________________"));
+        assertEquals(3, tasks.size());
+    }
+
+    @Test
+    void freeSlotString_shouldFindEarliestGap() throws DukeException {
+        ui.addEventString(tasks, "Standup /from 1/10/2025 0900 /to 1/10/2025 1000");
+        ui.addEventString(tasks, "Workshop /from 1/10/2025 1030 /to 1/10/2025 1200");
+        String result = ui.freeSlotString(tasks, "1h 1/10/2025 0900 1/10/2025 1800");
+        assertTrue(result.contains("from Oct 1 2025 12:00 to Oct 1 2025 13:00"));
+        assertTrue(ui.freeSlotString(tasks, "30m 1/10/2025 0900 1/10/2025 1800").contains("Oct 1 2025 10:00"));
+        assertTrue(ui.freeSlotString(tasks, "1h 1/10/2025 0900 1/10/2025 1100").contains("no free slot"));
+        assertTrue(ui.freeSlotString(tasks, "24h 2/10/2025 2/10/2025").contains("Oct 2 2025 00:00"));
+        assertTrue(ui.freeSlotString(tasks, "1H30M 1/10/2025 0900 1/10/2025 1800").contains("to Oct 1 2025 13:30"));
+
+        assertThrows(DukeException.class, () -> ui.freeSlotString(tasks, "0m 1/10/2025 2/10/2025"));
+        assertThrows(DukeException.class, () -> ui.freeSlotString(tasks, "soon 1/10/2025 2/10/2025"));
+        assertThrows(DukeException.class, () -> ui.freeSlotString(tasks, "1h"));
+        assertThrows(DukeException.class, () -> ui.freeSlotString(tasks, "30m1h 1/10/2025 2/10/2025"));
+        assertThrows(DukeException.class, () -> ui.freeSlotString(tasks, "12345h 1/10/2025 2/10/2025"));
+        assertThrows(DukeException.class, () -> ui.freeSlotString(tasks, "1h30 1/10/2025 2/10/2025"));
+        assertThrows(DukeException.class, () -> ui.freeSlotString(tasks, "1h 1/10/2025 0900 1000 2/10/2025"));
+    }
+
+    @Test
+    void getStatsString_shouldCountTasksByStatusAndType() throws DukeException {
+        ui.addTodoString(tasks, "Read book");
+        ui.addDeadlineString(tasks, "Return book /by 1/1/2020 1800");
+        ui.addEventString(tasks, "Workshop /from 1/10/2099 0930 /to 1/10/2099 1200");
+        ui.markTaskString(tasks, 0);
+        String result = ui.getStatsString(tasks);
+        assertTrue(result.contains("Total: 3 (1 done, 2 pending)"));
+        assertTrue(result.contains("Overdue: 1"));
+        assertTrue(result.contains("Todos: 1 (1 done)"));
+        assertTrue(result.contains("Events: 1 (0 done)"));
+    }
+
+    @Test
+    void listTasksString_pages_shouldShowOnlyTasksOnPage() throws DukeException {
+        for (int i = 1; i <= 120; i++) {
+            ui.addTodoString(tasks, "Task " + i);
+        }
+        String first = ui.getTaskListString(tasks);
+        assertTrue(first.contains("1. [T][ ] Task 1\n"));
+        assertTrue(first.contains("50. [T][ ] Task 50\n"));
+        assertTrue(!first.contains("51. "));
+        assertTrue(first.contains("Page 1 of 3 (tasks 1-50 of 120). Type list 2 for more."));
+
+        String last = ui.listTasksString(tasks, "3");
+        assertTrue(last.contains("101. [T][ ] Task 101\n"));
+        assertTrue(last.contains("120. [T][ ] Task 120\n"));
+        assertTrue(!last.contains("100. "));
+        assertTrue(last.contains("Page 3 of 3 (tasks 101-120 of 120)."));
+
+        String sized = ui.listTasksString(tasks, " 2  10 ");
+        assertTrue(sized.contains("11. [T][ ] Task 11\n"));
+        assertTrue(!sized.contains("21. "));
+        assertTrue(sized.contains("Type list 3 10 for more."));
+
+        assertThrows(DukeException.class, () -> ui.listTasksString(tasks, "4"));
+        assertThrows(DukeException.class, () -> ui.listTasksString(tasks, "0"));
+        assertThrows(DukeException.class, () -> ui.listTasksString(tasks, "1 -5"));
+        assertThrows(DukeException.class, () -> ui.listTasksString(tasks, "one"));
+        assertThrows(DukeException.class, () -> ui.listTasksString(tasks, "1 2 3"));
+    }
+
+    @Test
+    void getTaskListString_singlePage_shouldShowPageNumber() throws DukeException {
+        ui.addTodoString(tasks, "Task 1");
+        ui.addTodoString(tasks, "Task 2");
+        String result = ui.getTaskListString(tasks);
+        assertTrue(result.contains("2. [T][ ] Task 2\n"));
+        assertTrue(result.contains("Page 1 of 1 (tasks 1-2 of 2).\n"));
+        assertTrue(!result.contains("for more"));
+    }
+
+    @Test
+    void listTasksString_emptyList_shouldShowFirstPage() throws DukeException {
+        String result = ui.listTasksString(tasks, "");
+        assertTrue(result.contains("Here are the tasks in your list"));
+        assertTrue(!result.contains("Page"));
+        assertThrows(DukeException.class, () -> ui.listTasksString(tasks, "2"));
+    }
 }